@@ -72,7 +72,6 @@ public final class Constants {
     public static final boolean REVERSE_LEFT_BACK_MOTOR = true;
     public static final boolean REVERSE_RIGHT_FRONT_MOTOR = false;
     public static final boolean REVERSE_RIGHT_BACK_MOTOR = false;
-    public static final double GYRO_TURN_KP = 0.007; // P (Proportional) constant of a PID loop
     public static final double TRACKED_TAG_ROATION_KP = 0.3; // P (Proportional) constant of a PID loop
     public static final double TRACKED_TAG_FORWARD_DRIVE_KP = 0.4; // P (Proportional) constant of a PID loop
     public static final double TRACKED_TAG_STRAFE_DRIVE_KP = 0.5; // P (Proportional) constant of a PID loop
@@ -81,17 +80,56 @@ public final class Constants {
     public static final double APRILTAG_STRAFE_POWER_CAP = 0.3;
     public static final double APRILTAG_TRACKING_DISTANCE_THRESHOLD = 0.1;
     public static final double TURNING_THRESHOLD_DEGREES = 3;
-    public static final double MAX_POWER_GYRO = 0.4;
-    public static final double kP_FRONT_RIGHT_VELOCITY = 0.0005269;
-	public static final double kP_FRONT_LEFT_VELOCITY = 0.0005269;
-	public static final double kP_BACK_RIGHT_VELOCITY = 0.0005269;
-	public static final double kP_BACK_LEFT_VELOCITY = 0.0005269;
+    public static final double TURNING_VELOCITY_THRESHOLD_DEGREES = 5; // Degrees/second a turn must slow below before it counts as finished
+    public static final double kP_TURN = 5; // Radians/second of turn rate per radian of heading error, on top of the profile's own turn rate
+    public static final double kP_DRIVE_DISTANCE = 3; // Meters/second of correction per meter off the profile, for Drivetrain_GyroStraight and Drivetrain_GyroStrafe
+    public static final double DRIVE_DISTANCE_TOLERANCE = 0.02; // Meters from the end of a straight or strafe that counts as there
+    public static final double kP_FRONT_RIGHT_VELOCITY = 1.2; // Volts per meter/second of wheel speed error
+	public static final double kP_FRONT_LEFT_VELOCITY = 1.2;
+	public static final double kP_BACK_RIGHT_VELOCITY = 1.2;
+	public static final double kP_BACK_LEFT_VELOCITY = 1.2;
 	public static final double kP_X_CONTROLLER = 9.6421;
     public static final double kP_Y_CONTROLLER = 9.6421;
     public static final double kP_THETA_CONTROLLER = 9.6421;
 	public static final double kMAX_ANGULAR_SPEED_RADIANS_PER_SECOND = 2*Math.PI;
 	public static final double kMAX_ANGULAR_ACCELERATION_RADIANS_PER_SECOND_SQUARED = 2*Math.PI;
     public static final double SPEED_LIMIT = 0.4;
+    public static final double TELEOP_DEADBAND = 0.1; // Stick magnitude that reads as 0 (the rest of the stick is rescaled, see StickShaper)
+    public static final double TELEOP_TRANSLATION_EXPONENT = 2; // Response curve for driving, 1 is linear
+    public static final double TELEOP_ROTATION_EXPONENT = 2; // Response curve for turning
+    public static final double TELEOP_TRANSLATION_SLEW_RATE = 4; // Fastest the driving command can change, in full stick per second
+    public static final double TELEOP_ROTATION_SLEW_RATE = 6; // Fastest the turning command can change
+    public static final boolean FIELD_ORIENTED_TELEOP = true; // Teleop starts field-oriented, the left stick button toggles it
+    public static final double kP_HEADING_HOLD = 0.03; // Rotation command per degree of heading error
+    public static final double kD_HEADING_HOLD = 0.001;
+    public static final double HEADING_HOLD_MAX_VELOCITY = 360; // Degrees/second the heading hold turns at most
+    public static final double HEADING_HOLD_MAX_ACCELERATION = 720; // Degrees/second squared
+    public static final double MAX_DRIVE_SPEED = 4.0; // Meters per second a wheel can reach (NEO free speed through the 10:1 gearbox is about 4.5)
+    public static final boolean CLOSED_LOOP_TELEOP = false; // Teleop drives wheel speeds with feedforward + PID instead of open-loop duty cycle. Off until checked on the robot
+    public static final double ROBOT_MASS_KG = 50; // Including bumpers and battery
+    public static final double ROBOT_MOI = 5; // Moment of inertia about the vertical axis (kg*m^2)
+    public static final double WHEEL_COF = 0.9; // Coefficient of friction between the mecanum rollers and the carpet
+    public static final int DRIVE_CURRENT_LIMIT = 40; // Amps per drive motor
+    public static final double PATH_MAX_VELOCITY = 2.5; // Meters per second while following PathPlanner paths
+    public static final double PATH_MAX_ACCELERATION = 2.5; // Meters per second squared while following PathPlanner paths
+    public static final double ODOMETRY_FREQUENCY = 200; // Hz, how often the odometry thread samples the encoders and NavX
+    public static final int POSE_HISTORY_SIZE = 300; // Number of past poses kept for latency compensation (1.5 seconds at 200 Hz)
+
+    // Vision Constants //
+    public static final String VISION_CAMERA_NAME = "Camera"; // Name of the camera in the PhotonVision UI
+    public static final double CAMERA_FORWARD_OFFSET = Units.inchesToMeters(8); // Camera position relative to the center of the robot (in meters)
+    public static final double CAMERA_LEFT_OFFSET = Units.inchesToMeters(0);
+    public static final double CAMERA_UP_OFFSET = Units.inchesToMeters(10);
+    public static final double CAMERA_PITCH_DEGREES = -15; // Negative is tilted up
+    public static final double VISION_FREQUENCY = 50; // Hz, how often the vision thread checks for new camera frames
+    public static final double VISION_MAX_AMBIGUITY = 0.2; // Single-tag estimates more ambiguous than this are thrown out
+    public static final double VISION_MAX_DISTANCE = 4; // Meters, tags farther than this are too noisy to trust
+    public static final double VISION_SINGLE_TAG_STD_DEV_XY = 0.9; // Meters, scaled up with distance to the tags
+    public static final double VISION_MULTI_TAG_STD_DEV_XY = 0.3;
+    public static final double VISION_SINGLE_TAG_STD_DEV_THETA = Math.toRadians(30);
+    public static final double VISION_MULTI_TAG_STD_DEV_THETA = Math.toRadians(10);
+    public static final double ODOMETRY_STD_DEV_XY = 0.1; // Meters, how much odometry is trusted against vision (WPILib's pose estimator default)
+    public static final double ODOMETRY_STD_DEV_THETA = 0.1; // Radians
 
     // Coral Elevator Constants //
     public static final boolean ELEVATOR_STAGE_1_INVERT = true;
@@ -103,6 +141,55 @@ public final class Constants {
     public static final double WHEEL_SPEED = 1.0;
     public static final double ARM_GRAVITY_CONST = -0.03;
     public static final int ELEVATOR_ROTATIONS_PER_INCH = 13; // Number of rotations elevator climb motor must complete to raise/lower elevator by one inch
+    public static final double ARM_GEAR_RATIO = 70; // Arm motor rotations per full revolution of the arm (0 rotations is horizontal)
+    public static final double ELEVATOR_DRUM_RADIUS = Units.inchesToMeters(1); // Used by the simulation, only ELEVATOR_ROTATIONS_PER_INCH matters on the robot
+    public static final double ELEVATOR_CARRIAGE_MASS_KG = 4; // Carriage plus arm, for the simulation
+    public static final double ARM_LENGTH = Units.inchesToMeters(16); // Pivot to the end of the end effector (in meters)
+    public static final double ARM_MASS_KG = 2; // For the simulation
+    public static final double ELEVATOR_GRAVITY_CONST = 0.02; // Duty cycle that holds the carriage up against gravity
+    public static final double ELEVATOR_kP = 0.1; // Spark MAX position gains (duty cycle per motor rotation of error)
+    public static final double ELEVATOR_MAX_VELOCITY = 4500; // MAXMotion cruise velocity, motor RPM
+    public static final double ELEVATOR_MAX_ACCELERATION = 12000; // MAXMotion acceleration, motor RPM per second
+    public static final double ARM_kP = 0.05;
+    public static final double ARM_MAX_VELOCITY = 3000;
+    public static final double ARM_MAX_ACCELERATION = 8000;
+    public static final double ELEVATOR_CLIMB_MAX = 255; // Climb limiters, motor rotations
+    public static final double ELEVATOR_CLIMB_MIN = -255;
+    public static final double ARM_MAX = 30; // Arm limiters, motor rotations. Just past ARM_PLAYER_INTAKE, the furthest preset
+    public static final double ARM_MIN = -42.19;
+    public static final double ELEVATOR_CLIMB_NEUTRAL = 0; // Preset positions (motor rotations), see Superstructure
+    public static final double ELEVATOR_CLIMB_LOW_GOAL = 39.4;
+    public static final double ELEVATOR_CLIMB_MID_GOAL = 84.1;
+    public static final double ARM_DROP = 4; // Arm angle the coral drops onto the low and mid goals from
+    public static final double ARM_PLAYER_INTAKE = 29.2;
+    public static final double ARM_VERTICAL = 17.5;
+    public static final boolean ELEVATOR_KEEP_OUT_ENABLED = false; // The zone below is a guess: off until it's measured on the robot
+    public static final double ELEVATOR_KEEP_OUT_CLIMB_MAX = 80; // Below this climb position (motor rotations), the arm pointing down...
+    public static final double ELEVATOR_KEEP_OUT_ARM_MIN = -25; // ...anywhere between these arm positions (motor rotations) hits the drivetrain
+    public static final double ELEVATOR_KEEP_OUT_ARM_MAX = -10;
+    public static final double ELEVATOR_KEEP_OUT_MARGIN = 3; // Motor rotations of clearance left when moving around the keep-out zone
+    public static final double ELEVATOR_CLIMB_HOME_POSITION = 0; // Climb encoder reading with the carriage down on its hard stop
+    public static final double ARM_HOME_POSITION = -43.3; // Arm encoder reading stowed against its hard stop, just past ARM_MIN
+    public static final double ELEVATOR_HOMING_SPEED = -0.15; // Duty cycle that drives the climb slowly down into its hard stop, about 14 rotations a second
+    public static final double ARM_HOMING_SPEED = -0.12; // Duty cycle that drives the arm slowly back into its hard stop, about 11 rotations a second
+    public static final double ELEVATOR_HOMING_CURRENT = 8; // Drawing at least this many amps...
+    public static final double ELEVATOR_HOMING_VELOCITY = 60; // ...while turning slower than this (motor RPM)...
+    public static final double ELEVATOR_HOMING_DEBOUNCE = 0.08; // ...for this many seconds means the axis is on its hard stop
+    public static final double ELEVATOR_HOMING_CLEARANCE = ELEVATOR_KEEP_OUT_CLIMB_MAX + ELEVATOR_KEEP_OUT_MARGIN; // Motor rotations the carriage is lifted before the arm homes, with the keep-out zone enabled
+    public static final double ELEVATOR_HOMING_TOLERANCE = 3; // Motor rotations from a homing move's target that count as there
+    public static final double ARM_HOMING_PROBE_TIME = 0.25; // Seconds to find out whether the arm booted on its hard stop
+    public static final double ELEVATOR_HOMING_TIMEOUT = 20; // Seconds before homing gives up on a step: the whole climb travel takes ~18 s at homing speed
+    public static final double ARM_HOMING_TIMEOUT = 8; // The arm's whole travel takes ~7 s at homing speed
+    public static final double WHEEL_LOAD_CURRENT = 8; // Amps above which a coral is in the end effector wheel (it spins freely at a few amps)
+    public static final double WHEEL_STALL_CURRENT = 15; // Amps above which the wheel is stalled, if it's turning slower than...
+    public static final double WHEEL_STALL_VELOCITY = 500; // ...this (motor RPM)
+    public static final double WHEEL_SEAT_TRAVEL = 6; // Wheel motor rotations between a coral reaching the wheel and being seated, a stall before that is a jam (it's first seen ~3 rotations in)
+    public static final double WHEEL_EJECT_TRAVEL = 10; // Wheel motor rotations it takes to push a coral out
+    public static final double WHEEL_STARTUP_TIME = 0.15; // Seconds of start-up current the game piece detector ignores
+    public static final double WHEEL_DETECT_DEBOUNCE = 0.1; // Seconds a stall (or a free-spinning wheel while ejecting) has to last
+    public static final double WHEEL_UNJAM_SPEED = 0.5; // Duty cycle the wheel backs a jam out at...
+    public static final double WHEEL_UNJAM_TIME = 0.3; // ...for this many seconds
+    public static final double CORAL_RUMBLE_TIME = 0.3; // Seconds the controller rumbles when a coral is seated
 
     // Intake Constants //
     public static final double INTAKE_LIFT_GEAR_RATIO = 3*7*7*48/29;
@@ -141,6 +228,31 @@ public final class Constants {
     public static final int ELEVATOR_ARM_MOTOR_PDH_CHANNEL = 5; // TODO: Fix this number with the correct channel
     public static final int ELEVATOR_WHEEL_MOTOR_PDH_CHANNEL = 6; // TODO: Fix this number with the correct channel
 
+    public static final double BROWNOUT_VOLTAGE = 6.75; // roboRIO 2 default, motor outputs are disabled below this
+    public static final double POWER_BUDGET_START_VOLTAGE = 8.5; // Predicted battery voltage at which outputs start being scaled back
+    public static final double POWER_BUDGET_FLOOR_VOLTAGE = 7.25; // Predicted battery voltage at which outputs are scaled back to POWER_BUDGET_MIN_SCALE
+    public static final double POWER_BUDGET_MIN_SCALE = 0.3; // Never scale outputs below this fraction
+    public static final double POWER_BUDGET_LOOKAHEAD = 0.1; // Seconds ahead the voltage trend is extrapolated
+    public static final double POWER_BUDGET_MAX_CURRENT = 250; // Amps, total current the budget allows before scaling back
+    public static final double POWER_BUDGET_RECOVERY_RATE = 1.0; // Output scale recovered per second once the battery recovers
+    public static final int ELEVATOR_CURRENT_LIMIT = 40; // Amps per elevator climb/arm motor
+    public static final int WHEEL_CURRENT_LIMIT = 20; // Amps, protects the end effector wheel's NEO 550 when it stalls
+    public static final double PDH_SAMPLE_FREQUENCY = 10; // Hz, how often the background thread reads the PDH (the dashboard only shows it at 10 Hz)
+
     // Pneumatics Constants //
     public static final int COMPRESSOR_CAN_ID = 7;
+
+    // Telemetry Constants //
+    public static final double TELEMETRY_FAST_PERIOD = 0.02; // Seconds between dashboard updates for signals the driver watches live
+    public static final double TELEMETRY_SLOW_PERIOD = 0.1; // Seconds between dashboard updates for diagnostics
+    public static final double TELEMETRY_POSITION_DEADBAND = 0.001; // Encoder rotations below which a position change is not sent
+    public static final double TELEMETRY_GYRO_DEADBAND = 0.05; // Degrees below which a gyro change is not sent
+    public static final double TELEMETRY_CURRENT_DEADBAND = 0.125; // Amps, matches the PDH's current resolution
+    public static final double TELEMETRY_VOLTAGE_DEADBAND = 0.05; // Volts
+    public static final double TELEMETRY_POWER_DEADBAND = 1.0; // Watts
+
+    // Replay Constants //
+    // Path to a .wpilog recorded on the robot. When set, running the simulation replays that match through the
+    // subsystems instead of simulating hardware (see ReplaySource). Leave empty for normal simulation.
+    public static final String REPLAY_LOG_PATH = "";
 }
\ No newline at end of file
@@ -1,36 +1,59 @@
 // Author: UMN Robotics Ri3D
-// Last Updated: January 2025
+// Last Updated: October 2026
 
 package frc.robot;
 
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.XboxController;
-import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 
 import java.util.Optional;
 
 import com.studica.frc.AHRS;
 
+import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj.GenericHID;
+import edu.wpi.first.wpilibj.GenericHID.RumbleType;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.simulation.BatterySim;
+import edu.wpi.first.wpilibj.simulation.RoboRioSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import edu.wpi.first.wpilibj2.command.button.POVButton;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.RunCommand;
+import edu.wpi.first.wpilibj2.command.StartEndCommand;
+import frc.robot.commands.autonomous.AutoRoutineRegistry;
 import frc.robot.commands.autonomous.example_basic_auto.Drive1MeterAuto;
 import frc.robot.commands.autonomous.example_basic_auto.SquareAutonomous;
+import frc.robot.commands.autonomous.path_planner_auto.PathPlannerDrive1MeterAuto;
+import frc.robot.commands.autonomous.path_planner_auto.PathPlannerSquareAuto;
+import frc.robot.commands.elevator.CoralElevatorHomeCommand;
 import frc.robot.commands.elevator.CoralElevatorMoveCommand;
 import frc.robot.commands.elevator.CoralElevatorSetPositionArmCommand;
 import frc.robot.commands.elevator.CoralElevatorWheelMoveCommand;
 import frc.robot.subsystems.CoralElevatorSubsystem;
+import frc.robot.subsystems.DriveIOReplay;
+import frc.robot.subsystems.DriveIOSim;
+import frc.robot.subsystems.DriveIOSparkMax;
 import frc.robot.subsystems.DriveSubsystem;
+import frc.robot.subsystems.ElevatorIOReplay;
+import frc.robot.subsystems.ElevatorIOSim;
+import frc.robot.subsystems.ElevatorIOSparkMax;
 import frc.robot.subsystems.LEDSubsystem;
+import frc.robot.subsystems.LocalizationSubsystem;
 import frc.robot.subsystems.PowerSubsystem;
+import frc.robot.subsystems.Superstructure;
 import frc.robot.subsystems.LEDSubsystem.LEDMode;
+import frc.robot.util.HeadingController;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.ReplaySource;
+import frc.robot.util.StickShaper;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.NumberSignal;
 
 /**
  * The VM is configured to automatically run this class, and to call the functions corresponding to
@@ -41,21 +64,46 @@ import frc.robot.subsystems.LEDSubsystem.LEDMode;
 public class Robot extends TimedRobot {
   
   Command m_autonomousCommand;
-	SendableChooser<Command> autonChooser = new SendableChooser<Command>(); // Create a chooser to select an autonomous command
+	AutoRoutineRegistry autonChooser; // Chooser to select an autonomous command, with trajectories preloaded while disabled
   private double currentSpeedLimit = Constants.SPEED_LIMIT;
+  // Driver stick shaping, see StickShaper
+  private final StickShaper translationShaper = new StickShaper(Constants.TELEOP_DEADBAND, Constants.TELEOP_TRANSLATION_EXPONENT, Constants.TELEOP_TRANSLATION_SLEW_RATE);
+  private final StickShaper rotationShaper = new StickShaper(Constants.TELEOP_DEADBAND, Constants.TELEOP_ROTATION_EXPONENT, Constants.TELEOP_ROTATION_SLEW_RATE);
 
   public static boolean manualDriveControl = true;
 
   public static final GenericHID controller = new GenericHID(Constants.CONTROLLER_USB_PORT_ID); // Instantiate our controller at the specified USB port
 
-  public static final DriveSubsystem m_driveSubsystem = new DriveSubsystem(); // Drivetrain subsystem
+  // The match being replayed, when REPLAY_LOG_PATH is set and we're running in simulation (null otherwise)
+  private static final ReplaySource replay = ReplaySource.open(Constants.REPLAY_LOG_PATH);
+  private long replayStartNanos;
+
+  // Each subsystem gets the real hardware, the simulation, or the replayed log's inputs
+  public static final DriveSubsystem m_driveSubsystem = new DriveSubsystem( // Drivetrain subsystem
+      replay != null ? new DriveIOReplay(replay) : isReal() ? new DriveIOSparkMax() : new DriveIOSim());
+  public static final LocalizationSubsystem m_localizationSubsystem = new LocalizationSubsystem(m_driveSubsystem); // Fuses odometry and AprilTag vision into a field pose
   //public static final IntakeSubsystem m_intakeSubsystem = new IntakeSubsystem(); // Intake subsystem
-  public static final CoralElevatorSubsystem m_CoralElevatorSubsystem = new CoralElevatorSubsystem(); // Elevator subsystem
+  public static final CoralElevatorSubsystem m_CoralElevatorSubsystem = new CoralElevatorSubsystem( // Elevator subsystem
+      replay != null ? new ElevatorIOReplay(replay) : isReal() ? new ElevatorIOSparkMax() : new ElevatorIOSim());
+  public static final Superstructure m_superstructure = new Superstructure(); // Scoring presets for the coral elevator
   public static final PowerSubsystem m_powerSubsystem = new PowerSubsystem(); // Power subsystem for interacting with the Rev PDH
   
   public static final LEDSubsystem m_LEDSubsystem = new LEDSubsystem(); // Subsytem for controlling the REV Blinkin LED module
   
-  double goalAngle;
+  // Teleop drive mode
+  private boolean fieldOriented = Constants.FIELD_ORIENTED_TELEOP;
+  private final HeadingController headingController = new HeadingController(DriveSubsystem.kMaxAngularSpeed); // Holds the heading while the rotation stick is idle
+  private final CoralElevatorMoveCommand manualElevatorCommand = new CoralElevatorMoveCommand(); // Made once, every teleop reuses it
+  private final CoralElevatorHomeCommand homeElevatorCommand = new CoralElevatorHomeCommand(); // Finds the climb and arm hard stops after power-on
+
+  // Loop timing
+  private final LoopProfiler.Section schedulerProfile = LoopProfiler.section("Scheduler");
+  private final LoopProfiler.Section telemetryProfile = LoopProfiler.section("Telemetry");
+
+  // Dashboard signals
+  private final NumberSignal gyroPitchSignal = Telemetry.number("Gyroscope Pitch", Constants.TELEMETRY_GYRO_DEADBAND, Constants.TELEMETRY_SLOW_PERIOD);
+  private final NumberSignal gyroYawSignal = Telemetry.number("Gyroscope Yaw", Constants.TELEMETRY_GYRO_DEADBAND, Constants.TELEMETRY_FAST_PERIOD);
+  private final NumberSignal gyroRollSignal = Telemetry.number("Gyroscope Roll", Constants.TELEMETRY_GYRO_DEADBAND, Constants.TELEMETRY_SLOW_PERIOD);
 
   /**
    * This function is run when the robot is first started up and should be used for any
@@ -63,18 +111,43 @@ public class Robot extends TimedRobot {
    */
   @Override
   public void robotInit() {
+    // Record everything to a .wpilog: every Telemetry signal, and the driver station and joysticks
+    DataLogManager.start();
+    Telemetry.startLogging(DataLogManager.getLog());
+    DriverStation.startDataLog(DataLogManager.getLog());
     configureButtonBindings(); // Bind our commands to physical buttons on a controller
     m_driveSubsystem.zeroGyro();
+    // PathPlanner follows paths using the fused pose estimate
+    m_driveSubsystem.configureAutoBuilder(m_localizationSubsystem::getPose, m_localizationSubsystem::resetPose);
     // Add our Autonomous Routines to the chooser //
+    autonChooser = new AutoRoutineRegistry(m_driveSubsystem.getRobotConfig());
 		autonChooser.setDefaultOption("Do Nothing", new InstantCommand());
     autonChooser.addOption("Drive 1 Meter", new Drive1MeterAuto());
     autonChooser.addOption("Square Autonomous", new SquareAutonomous());
-		SmartDashboard.putData("Auto Mode", autonChooser);
+    autonChooser.addOption("PathPlanner Drive 1 Meter", new PathPlannerDrive1MeterAuto());
+    autonChooser.addOption("PathPlanner Square", new PathPlannerSquareAuto());
+		autonChooser.publish("Auto Mode");
+		autonChooser.preloadAll(); // Start generating trajectories in the background
 
     // Zero the gyroscope and reset the drive encoders
     m_driveSubsystem.zeroGyro();
     m_driveSubsystem.resetEncoders();
     m_LEDSubsystem.setLEDMode(LEDMode.DISABLED);
+    LoopProfiler.profileCommands(CommandScheduler.getInstance()); // After the button bindings, see profileCommands
+  }
+
+  /** Times every pass through the robot loop, including the LiveWindow and dashboard updates TimedRobot does after robotPeriodic */
+  @Override
+  protected void loopFunc() {
+    if (replay != null) {
+      replay.applyDriverStation(); // Before TimedRobot reads the driver station
+    }
+    LoopProfiler.startLoop();
+    super.loopFunc();
+    LoopProfiler.endLoop();
+    if (replay != null) {
+      stepReplay();
+    }
   }
 
   /**
@@ -90,10 +163,20 @@ public class Robot extends TimedRobot {
     // commands, running already-scheduled commands, removing finished or interrupted commands,
     // and running subsystem periodic() methods. This must be called from the robot's periodic
     // block in order for anything in the Command-based framework to work.
+    schedulerProfile.start();
     CommandScheduler.getInstance().run();
-    SmartDashboard.putNumber("Gyroscope Pitch", m_driveSubsystem.getPitch());
-    SmartDashboard.putNumber("Gyroscope Yaw", m_driveSubsystem.getYaw());
-    SmartDashboard.putNumber("Gyroscope Roll", m_driveSubsystem.getRoll());
+    schedulerProfile.stop();
+    // Hand the power budget to everything that draws a lot of current (it takes effect next loop)
+    m_driveSubsystem.setOutputScale(m_powerSubsystem.getOutputScale());
+    m_CoralElevatorSubsystem.setOutputScale(m_powerSubsystem.getOutputScale());
+    gyroPitchSignal.set(m_driveSubsystem.getPitch());
+    gyroYawSignal.set(m_driveSubsystem.getYaw());
+    gyroRollSignal.set(m_driveSubsystem.getRoll());
+
+    // Send everything the subsystems recorded this loop to the dashboard in one batch
+    telemetryProfile.start();
+    Telemetry.flush();
+    telemetryProfile.stop();
   }
 
   /** This function is called once each time the robot enters Disabled mode. */
@@ -101,6 +184,7 @@ public class Robot extends TimedRobot {
   public void disabledInit() {
     System.out.println("ROBOT DISABLED");
     m_LEDSubsystem.setLEDMode(LEDMode.DISABLED);
+    autonChooser.preloadAll(); // Nothing new to do unless a routine failed to load earlier
   }
 
   /** This function is called continuously after the robot enters Disabled mode. */
@@ -113,6 +197,7 @@ public class Robot extends TimedRobot {
   @Override
   public void autonomousInit() {
     System.out.println("AUTONOMOUS MODE STARTED");
+    LoopProfiler.reset(); // Loop time statistics per match period
 
     m_autonomousCommand = autonChooser.getSelected();
     
@@ -128,9 +213,9 @@ public class Robot extends TimedRobot {
     // Set the LED pattern for autonomous mode
     m_LEDSubsystem.setLEDMode(LEDMode.AUTO);
 
-    // Set Elevator/End Effector inital preset
-    m_CoralElevatorSubsystem.climbNeutral();
-    m_CoralElevatorSubsystem.armInitial();
+    // Home the elevator if it hasn't been since power-on, then set the Elevator/End Effector inital preset
+    homeElevatorIfNeeded();
+    m_superstructure.request(Superstructure.State.STOWED);
   }
 
   /** This function is called periodically during autonomous. */
@@ -140,6 +225,7 @@ public class Robot extends TimedRobot {
   @Override
   public void teleopInit() {
     System.out.println("TELEOP MODE STARTED");
+    LoopProfiler.reset(); // Loop time statistics per match period
 
     // This makes sure that the autonomous stops running when
     // teleop starts running. If you want the autonomous to
@@ -165,14 +251,23 @@ public class Robot extends TimedRobot {
       }
     }
 
-    goalAngle = m_driveSubsystem.getGyroAngle();
+    headingController.hold(m_driveSubsystem.getGyroAngle(), m_driveSubsystem.getGyroAngle(), 0); // Hold the heading we start teleop at
+    translationShaper.reset();
+    rotationShaper.reset();
 
     // // Set Elevator/End Effector inital preset
-    // m_CoralElevatorSubsystem.climbNeutral();
-    // m_CoralElevatorSubsystem.armInitial();
+    // m_superstructure.request(Superstructure.State.STOWED);
 
     // m_intakeSubsystem.setDefaultCommand(new IntakeManualControl());
-    m_CoralElevatorSubsystem.setDefaultCommand(new CoralElevatorMoveCommand());
+    m_CoralElevatorSubsystem.setDefaultCommand(manualElevatorCommand);
+    homeElevatorIfNeeded(); // After a reboot mid-event, or if homing didn't finish in autonomous
+  }
+
+  // The encoders count from wherever the mechanism was at power-on, so nothing trusts them until it's homed
+  private void homeElevatorIfNeeded() {
+    if (!m_CoralElevatorSubsystem.isHomed()) {
+      homeElevatorCommand.schedule();
+    }
   }
 
   /** This function is called periodically during operator control. */
@@ -196,28 +291,36 @@ public class Robot extends TimedRobot {
     double ySpeed = controller.getRawAxis(Constants.LEFT_VERTICAL_JOYSTICK_AXIS);
     double xSpeed = -controller.getRawAxis(Constants.LEFT_HORIZONTAL_JOYSTICK_AXIS);
     double zSpeed = -controller.getRawAxis(Constants.RIGHT_HORIZONTAL_JOYSTICK_AXIS);
-    // Implementing a dead zone
-    double deadZone = 0.20;
-    ySpeed = (Math.abs(ySpeed) > deadZone) ? ySpeed : 0;
-    xSpeed = (Math.abs(xSpeed) > deadZone) ? xSpeed : 0;
-    zSpeed = (Math.abs(zSpeed) > deadZone) ? zSpeed : 0;
-    // Speed limits
-    ySpeed = Math.max(Math.min(ySpeed, currentSpeedLimit), -currentSpeedLimit);
-    xSpeed = Math.max(Math.min(xSpeed, currentSpeedLimit), -currentSpeedLimit);
-    zSpeed = Math.max(Math.min(zSpeed, currentSpeedLimit), -currentSpeedLimit);
-    
-    if (Math.abs(zSpeed) > 0.01) { // If we are telling the robot to rotate, then let it rotate
-      m_driveSubsystem.driveCartesian(ySpeed, xSpeed, zSpeed, m_driveSubsystem.getRotation2d()); // robot-relative
-      goalAngle = m_driveSubsystem.getGyroAngle();
-    } else { // Otherwise, stop the robot's rotation
-      m_driveSubsystem.driveCartesian(ySpeed, xSpeed, 0, m_driveSubsystem.getRotation2d()); // robot-relative
-    }
+    // Dead zone, response curve, speed limit and slew limit (the left stick as one vector)
+    translationShaper.update(xSpeed, ySpeed, currentSpeedLimit);
+    rotationShaper.update(zSpeed, 0, currentSpeedLimit);
+    xSpeed = translationShaper.getX();
+    ySpeed = translationShaper.getY();
+    zSpeed = rotationShaper.getX();
+
+    // If we are telling the robot to rotate, then let it rotate. Otherwise hold the heading it stops at.
+    zSpeed = headingController.calculate(zSpeed, m_driveSubsystem.getGyroAngle(), m_driveSubsystem.getTurnRate());
+    teleopDrive(ySpeed, xSpeed, zSpeed);
   } else {
-    m_driveSubsystem.driveCartesian(0, 0, 0,m_driveSubsystem.getRotation2d()); // Stop the robot when manual control is disabled
-    goalAngle = m_driveSubsystem.getGyroAngle();
+    teleopDrive(0, 0, 0); // Stop the robot when manual control is disabled
+    headingController.release();
+    translationShaper.reset(); // Start from a standstill when manual control comes back
+    rotationShaper.reset();
   }
   }
 
+  /** Drives with joystick-style inputs (-1 to 1), closed-loop or open-loop depending on CLOSED_LOOP_TELEOP,
+   * and field-oriented or robot-oriented depending on the driver's toggle */
+  private void teleopDrive(double ySpeed, double xSpeed, double zSpeed) {
+    // Robot-oriented is field-oriented with the field turned to match the robot
+    if (Constants.CLOSED_LOOP_TELEOP) {
+      m_driveSubsystem.driveCartesianClosedLoop(ySpeed, xSpeed, zSpeed, fieldOriented ? m_driveSubsystem.getGyroAngle() : 0); // Degrees, so nothing is allocated
+    } else {
+      Rotation2d angle = fieldOriented ? m_driveSubsystem.getRotation2d() : Rotation2d.kZero;
+      m_driveSubsystem.driveCartesian(ySpeed, xSpeed, zSpeed, angle);
+    }
+  }
+
   @Override
   public void testInit() {
     // Cancels all running commands at the start of test mode.
@@ -229,6 +332,37 @@ public class Robot extends TimedRobot {
   @Override
   public void testPeriodic() {}
 
+  /** In replay the simulated clock is paused and stepped one loop at a time, as soon as each loop finishes */
+  @Override
+  public void simulationInit() {
+    if (replay != null) {
+      System.out.println("Replaying " + replay.getPath() + " (" + replay.getCycleCount() + " loops)");
+      replayStartNanos = System.nanoTime();
+      SimHooks.pauseTiming();
+      SimHooks.stepTimingAsync(kDefaultPeriod);
+    }
+  }
+
+  // Moves the replay on to the next logged loop, or stops once the whole log has been replayed
+  private void stepReplay() {
+    if (replay.advance()) {
+      SimHooks.stepTimingAsync(kDefaultPeriod);
+      return;
+    }
+    double seconds = (System.nanoTime() - replayStartNanos) / 1e9;
+    System.out.printf("Replay finished: %d loops in %.1f s (%.0fx real time)%n",
+        replay.getCycleCount(), seconds, replay.getCycleCount() * kDefaultPeriod / seconds);
+    DataLogManager.stop(); // Flush the replayed run's log
+    System.exit(0);
+  }
+
+  /** Sags the simulated battery under the simulated motors' load, so the power budget can be exercised off the robot */
+  @Override
+  public void simulationPeriodic() {
+    RoboRioSim.setVInVoltage(BatterySim.calculateDefaultBatteryLoadedVoltage(
+        m_driveSubsystem.getSimulatedCurrentDraw(), m_CoralElevatorSubsystem.getSimulatedCurrentDraw()));
+  }
+
   /**
    * Use this method to define your button->command mappings. Buttons can be created by
    * instantiating a {@link GenericHID} or onse of its subclasses ({@link edu.wpi.first.wpilibj.Joystick} 
@@ -237,7 +371,7 @@ public class Robot extends TimedRobot {
   private void configureButtonBindings() {
     // Intake Controls //
     // new Trigger(() -> controller.getRawButton(Constants.RIGHT_BUMPER)).whileTrue(new IntakeSetBarPowerCommand(Constants.INTAKE_BAR_SPEED)); // Intake 
-    new Trigger(() -> controller.getRawButton(Constants.RIGHT_BUMPER)).onTrue(new CoralElevatorMoveCommand());
+    new Trigger(() -> controller.getRawButton(Constants.RIGHT_BUMPER)).onTrue(manualElevatorCommand);
     // new Trigger(() -> controller.getRawButton(Constants.A_BUTTON)).onTrue(new IntakeSetArmPositionCommand(Constants.HOLD_ALGAE_POSITION)); // Set arm position
     // new Trigger(() -> controller.getRawButton(Constants.B_BUTTON)).onTrue(new IntakeSetArmPositionCommand(Constants.HOLD_CORAL_POSITION)); // Set arm position
     // new Trigger(() -> controller.getRawButton(Constants.Y_BUTTON)).onTrue(new IntakeSetArmPositionCommand(Constants.PICK_UP_ALGAE_POSITION)); // Set arm position
@@ -246,14 +380,25 @@ public class Robot extends TimedRobot {
     // Coral Elevator Controls //
     new Trigger(() -> controller.getRawButton(Constants.PREV_BUTTON)).whileTrue(new CoralElevatorWheelMoveCommand(-Constants.WHEEL_SPEED)); // Wheel Outtake Manual
     new Trigger(() -> controller.getRawButton(Constants.START_BUTTON)).whileTrue(new CoralElevatorWheelMoveCommand(Constants.WHEEL_SPEED)); // Weel Intake Manual
+    // The wheel stops by itself once the coral is seated, rumble so the driver knows too
+    m_CoralElevatorSubsystem.hasCoral().onTrue(new StartEndCommand(() -> controller.setRumble(RumbleType.kBothRumble, 1),
+        () -> controller.setRumble(RumbleType.kBothRumble, 0)).withTimeout(Constants.CORAL_RUMBLE_TIME));
     //new POVButton(controller, 0).onTrue(new CoralElevatorSetPositionArmCommand(4.19)); // Score Mid Preset
     //new POVButton(controller, 90).onTrue(new CoralElevatorSetPositionArmCommand(4.19)); // Score High Preset
     //new POVButton(controller, 180).onTrue(new CoralElevatorSetPositionArmCommand(-28.59)); //  Intake Preset
     //new POVButton(controller, 270).onTrue(new CoralElevatorSetPositionArmCommand(-42.19)); // Score Low Preset
+    // Scoring presets, queued so the next one can be picked before the elevator gets to the current one
+    new POVButton(controller, 90).onTrue(m_superstructure.requestCommand(Superstructure.State.SCORE_HIGH)); // Score High Preset
+    new Trigger(() -> controller.getRawButton(Constants.LEFT_BUMPER)).onTrue(m_superstructure.requestCommand(Superstructure.State.SCORE_MID)); // Score Mid Preset
+    new POVButton(controller, 270).onTrue(m_superstructure.requestCommand(Superstructure.State.SCORE_LOW)); // Score Low Preset
+    new Trigger(() -> controller.getRawButton(Constants.RIGHT_STICK_BUTTON)).onTrue(m_superstructure.requestCommand(Superstructure.State.INTAKE)); // Intake Preset
     // Change POVButton bindings to manually control the arm
     new POVButton(controller, 0).whileTrue(new RunCommand(() -> m_CoralElevatorSubsystem.setSpeedArm(0.5), m_CoralElevatorSubsystem)); // Move arm up
     new POVButton(controller, 180).whileTrue(new RunCommand(() -> m_CoralElevatorSubsystem.setSpeedArm(-0.5), m_CoralElevatorSubsystem)); // Move arm down
 
+    // Drive Controls //
+    new Trigger(() -> controller.getRawButton(Constants.LEFT_STICK_BUTTON)).onTrue(new InstantCommand(() -> fieldOriented = !fieldOriented)); // Toggle field-oriented drive
+
 
 // Speed Controls
   if (controller.getRawButtonPressed(Constants.A_BUTTON)) {
@@ -0,0 +1,163 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.commands.autonomous;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.pathplanner.lib.config.RobotConfig;
+import com.pathplanner.lib.path.PathPlannerPath;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Constants;
+import frc.robot.commands.autonomous.path_planner_auto.PathFollowingAuto;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.NumberSignal;
+
+/** Autonomous Routine Registry ************************************************
+ * Replaces a plain SendableChooser of autonomous commands. Routines are still
+ * built once at robotInit, but the trajectories for any PathPlanner paths they
+ * follow are generated on a background thread while the robot is disabled, so
+ * autonomousInit doesn't spend part of the 15 second auto period doing it.
+ *
+ * getSelected() counts whether the selected routine was ready (a cache hit) or
+ * had to be finished on the spot (a miss) on the dashboard, along with how long
+ * generating it took. Only a miss is reported to the driver station. */
+public class AutoRoutineRegistry {
+
+  private static final class Routine {
+    final Command command;
+    volatile boolean ready;
+    volatile double loadTimeMs;
+    Future<?> loading;
+
+    Routine(Command command) {
+      this.command = command;
+      this.ready = !(command instanceof PathFollowingAuto); // Nothing to precompute
+    }
+  }
+
+  private final SendableChooser<String> chooser = new SendableChooser<>();
+  private final Map<String, Routine> routines = new LinkedHashMap<>();
+  private final RobotConfig robotConfig;
+  private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "AutoPreload");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY); // Never compete with the robot loop
+    return thread;
+  });
+
+  private int cacheHits = 0;
+  private int cacheMisses = 0;
+
+  // Dashboard signals
+  private final NumberSignal cacheHitsSignal = Telemetry.number("Auto Cache Hits", 0, Constants.TELEMETRY_SLOW_PERIOD);
+  private final NumberSignal cacheMissesSignal = Telemetry.number("Auto Cache Misses", 0, Constants.TELEMETRY_SLOW_PERIOD);
+  private final NumberSignal loadTimeSignal = Telemetry.number("Auto Load Time (ms)", 0, Constants.TELEMETRY_SLOW_PERIOD);
+
+  /** @param robotConfig PathPlanner's robot model, used to generate trajectories */
+  public AutoRoutineRegistry(RobotConfig robotConfig) {
+    this.robotConfig = robotConfig;
+  }
+
+  /** Adds the routine that runs if nothing else is selected */
+  public void setDefaultOption(String name, Command command) {
+    routines.put(name, new Routine(command));
+    chooser.setDefaultOption(name, name);
+  }
+
+  /** Adds a routine to the chooser */
+  public void addOption(String name, Command command) {
+    routines.put(name, new Routine(command));
+    chooser.addOption(name, name);
+  }
+
+  /** Puts the chooser on the dashboard under the given key */
+  public void publish(String key) {
+    SmartDashboard.putData(key, chooser);
+  }
+
+  /** Starts generating trajectories in the background for every routine that isn't ready yet.
+   * Call while disabled; it returns immediately. */
+  public void preloadAll() {
+    for (Routine routine : routines.values()) {
+      if (!routine.ready && routine.loading == null) {
+        routine.loading = loader.submit(() -> load(routine));
+      }
+    }
+  }
+
+  /** The selected routine, with its trajectories generated. Blocks only if they aren't ready yet. */
+  public Command getSelected() {
+    String name = chooser.getSelected();
+    Routine routine = routines.get(name);
+    if (routine == null) {
+      return null;
+    }
+
+    if (routine.ready) {
+      cacheHits++;
+    } else {
+      cacheMisses++;
+      long start = System.nanoTime();
+      if (routine.loading != null) {
+        try {
+          routine.loading.get(); // Already being generated, so wait for it rather than starting over
+        } catch (InterruptedException | ExecutionException e) {
+          DriverStation.reportError("Failed to preload auto \"" + name + "\": " + e.getMessage(), e.getStackTrace());
+        }
+      } else {
+        load(routine);
+      }
+      double waitMs = (System.nanoTime() - start) / 1e6;
+      DriverStation.reportWarning("Auto \"" + name + "\" was not preloaded (cache miss), spent " + waitMs + " ms of auto loading it", false);
+    }
+
+    cacheHitsSignal.set(cacheHits);
+    cacheMissesSignal.set(cacheMisses);
+    loadTimeSignal.set(routine.loadTimeMs);
+    return routine.command;
+  }
+
+  /** True once the named routine's trajectories have been generated */
+  public boolean isReady(String name) {
+    Routine routine = routines.get(name);
+    return routine != null && routine.ready;
+  }
+
+  /** Milliseconds it took to generate the named routine's trajectories, 0 until they have been */
+  public double getLoadTimeMs(String name) {
+    Routine routine = routines.get(name);
+    return routine == null ? 0 : routine.loadTimeMs;
+  }
+
+  /** Times getSelected() found the routine ready */
+  public int getCacheHits() {
+    return cacheHits;
+  }
+
+  /** Times getSelected() had to generate the routine's trajectories itself */
+  public int getCacheMisses() {
+    return cacheMisses;
+  }
+
+  // Generate (and cache inside each PathPlannerPath) the trajectory for every path in the routine
+  private void load(Routine routine) {
+    long start = System.nanoTime();
+    if (routine.command instanceof PathFollowingAuto auto) {
+      for (PathPlannerPath path : auto.getPaths()) {
+        path.getIdealTrajectory(robotConfig);
+      }
+    }
+    routine.loadTimeMs = (System.nanoTime() - start) / 1e6;
+    routine.ready = true;
+  }
+}
@@ -1,77 +1,86 @@
 // Author: UMN Robotics Ri3D
-// Last Updated: January 2025
+// Last Updated: October 2026
 
 package frc.robot.commands.autonomous.basic_path_planning;
 
+import edu.wpi.first.math.controller.ProfiledPIDController;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
 import frc.robot.Constants;
 import frc.robot.Robot;
 
 import frc.robot.subsystems.DriveSubsystem;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.NumberSignal;
 
 /** Drivetrain Gyro Turn ******************************************************
- * Command for turning in place to a set angle. */
+ * Command for turning in place by a set angle. The turn follows a trapezoidal
+ * profile (the drivetrain's theta constraints), with the profile's turn rate
+ * as feedforward and a PID on the heading error, driven through the
+ * closed-loop wheel controllers. Angles wrap, so a turn always goes the short
+ * way around. The gyro is never zeroed, so odometry keeps its heading.
+ * Angles and turn rates are counterclockwise-positive, the same as the
+ * drivetrain's getGyroAngle() and ChassisSpeeds. */
 public class Drivetrain_GyroTurn extends Command {
 	/** Configuration Constants ***********************************************/
-	private static final double kP = Constants.GYRO_TURN_KP;
+	private static final double kP = Constants.kP_TURN;
 	private static final double kI = 0.0; // Not currently using this
 	private static final double kD = 0.0; // Not currently using this
 	private static final double TURNING_THRESHOLD_DEGREES = Constants.TURNING_THRESHOLD_DEGREES;
-	private static final double MAX_POWER = Constants.MAX_POWER_GYRO;
+	private static final double TURNING_VELOCITY_THRESHOLD_DEGREES = Constants.TURNING_VELOCITY_THRESHOLD_DEGREES;
+	private static final NumberSignal turnTimeSignal = Telemetry.number("Turn Time", 0, Constants.TELEMETRY_SLOW_PERIOD);
 	
 	/** Instance Variables ****************************************************/
 	DriveSubsystem drivetrain = Robot.m_driveSubsystem;
-	double lastError, integralError, goalAngle;
+	private final double angle; // Degrees to turn, relative to the heading when the command starts
+	private double goalAngle; // Gyro angle to finish at (degrees)
+	private final ProfiledPIDController controller = new ProfiledPIDController(kP, kI, kD, drivetrain.getkThetaControllerConstraints());
+	private final Timer turnTimer = new Timer();
 	
 	/** Drivetrain Gyro Turn ************************************************** 
 	 * Required subsystems will cancel commands when this command is run.
-	 * distance is given in physical units matching the wheel diameter unit
-	 * speed is given in physical units per second. The physical units should 
-	 * match that of the Wheel diameter.
-	 * @param angle (degrees) */
+	 * @param angle (degrees) to turn from wherever the robot is facing when the command starts,
+	 * positive counterclockwise */
 	public Drivetrain_GyroTurn(double angle) {
-		goalAngle = angle;
+		this.angle = angle;
+		controller.enableContinuousInput(-Math.PI, Math.PI);
 		addRequirements(drivetrain);
 	}
 	
 	/** initialize ************************************************************
 	 * Called just before this Command runs the first time */
 	public void initialize() {
-		drivetrain.driveCartesian(0, 0, 0);
-		lastError = 0.0;
-		integralError = 0.0;
-		drivetrain.zeroGyro();
+		double heading = drivetrain.getGyroAngle();
+		goalAngle = heading + angle;
+		// Start the profile from the robot's current heading and turn rate, so it picks up smoothly from whatever ran before
+		controller.reset(Math.toRadians(heading), Math.toRadians(drivetrain.getTurnRate()));
+		controller.setGoal(Math.toRadians(goalAngle));
+		turnTimer.restart();
 	}
 
 	/** execute ***************************************************************
 	 * Called repeatedly when this Command is scheduled to run */
 	public void execute() {
-		double error = goalAngle - drivetrain.getGyroAngle();
-		integralError += error;
-		double deltaError = error - lastError;
-		
-		double Pterm = kP * error;
-		double Iterm = kI * integralError;
-		double Dterm = kD * deltaError;
-		
-		double correction = Pterm + Iterm + Dterm;
-		
-		correction = Math.min(MAX_POWER, correction);
-		correction = Math.max(-MAX_POWER, correction);
-	
-		drivetrain.driveCartesian(0, 0, -1 * correction);		
-		
-		lastError = error;
+		double feedback = controller.calculate(Math.toRadians(drivetrain.getGyroAngle()));
+		double turnRate = controller.getSetpoint().velocity + feedback; // Radians/second
+		drivetrain.driveRobotRelative(new ChassisSpeeds(0, 0, turnRate));
 	}
 	
 	/** isFinished ************************************************************	
 	 * Make this return true when this Command no longer needs to run execute() */
 	public boolean isFinished() {
-		return Math.abs(lastError) < TURNING_THRESHOLD_DEGREES;
+		// Done once the heading is close enough and the robot has stopped turning, so it doesn't coast past the goal
+		double error = Math.IEEEremainder(goalAngle - drivetrain.getGyroAngle(), 360);
+		return Math.abs(error) < TURNING_THRESHOLD_DEGREES
+			&& Math.abs(drivetrain.getTurnRate()) < TURNING_VELOCITY_THRESHOLD_DEGREES;
 	}
 
 	// Called once the command ends or is interrupted.
 	public void end(boolean interrupted) {
-		drivetrain.driveCartesian(0, 0, 0);
+		drivetrain.driveRobotRelative(new ChassisSpeeds());
+		if (!interrupted) {
+			turnTimeSignal.set(turnTimer.get()); // Time to finish the turn, to compare tuning on the robot and in simulation
+		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.commands.autonomous.basic_path_planning;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Constants;
+import frc.robot.Robot;
+
+import frc.robot.subsystems.DriveSubsystem;
+
+/** Drivetrain Profiled Move **************************************************
+ * Shared by Drivetrain_GyroStraight and Drivetrain_GyroStrafe. Drives a set
+ * distance along one of the robot's axes (as it was facing when the command
+ * started), measured with odometry instead of resetting the wheel encoders.
+ * The speed follows a trapezoidal profile that starts from however fast the
+ * robot is already going that way and ends at an exit speed, so moves can be
+ * chained without stopping in between: a move with a nonzero exit speed hands
+ * over as soon as it crosses its finish line, still moving, and the next move
+ * picks up from there. Sideways drift off the line is steered out and the
+ * heading is held where it started.
+ *
+ * The motion across the line is profiled too. At a corner the robot is still
+ * moving the previous move's way, across this move's line. Rather than leave
+ * that to the feedback (which swings wide and overshoots), a second profile
+ * takes the sideways speed down to zero and back onto the line within the same
+ * acceleration limit, and the robot follows both profiles at once. */
+abstract class Drivetrain_ProfiledMove extends Command {
+	/** Configuration Constants ***********************************************/
+	private static final double kP_DISTANCE = Constants.kP_DRIVE_DISTANCE;
+	private static final double kP_HEADING = Constants.kP_TURN;
+	private static final double DISTANCE_TOLERANCE = Constants.DRIVE_DISTANCE_TOLERANCE;
+	private static final TrapezoidProfile.State ON_THE_LINE = new TrapezoidProfile.State(0, 0); // Goal of the across profile
+	
+	/** Instance Variables ****************************************************/
+	DriveSubsystem drivetrain = Robot.m_driveSubsystem;
+	private final double directionX, directionY; // Robot-relative direction of travel (unit vector)
+	private final TrapezoidProfile profile;
+	private final TrapezoidProfile.State goal; // Distance (meters) and exit speed (meters/second)
+	private TrapezoidProfile.State start;
+	// Across the line: from the sideways speed the move starts with, back to standing still on the line
+	private final TrapezoidProfile acrossProfile = new TrapezoidProfile(new TrapezoidProfile.Constraints(Constants.MAX_DRIVE_SPEED, Constants.PATH_MAX_ACCELERATION));
+	private TrapezoidProfile.State acrossStart;
+	private double acrossTime; // Seconds the across profile takes
+	private final Timer timer = new Timer();
+	private Pose2d startPose;
+	private double fieldDirectionX, fieldDirectionY; // Direction of travel on the field
+	private double progress; // Meters travelled along the line so far
+	
+	/** @param directionX, directionY robot-relative axis to drive along (unit vector)
+	 * @param distance meters to drive
+	 * @param power fraction of the top drive speed to cruise at, negative to drive the other way
+	 * @param exitPower fraction of the top drive speed to still be moving at the end, 0 to stop */
+	Drivetrain_ProfiledMove(double directionX, double directionY, double distance, double power, double exitPower) {
+		double sign = (power < 0) ? -1 : 1;
+		this.directionX = directionX * sign;
+		this.directionY = directionY * sign;
+		double maxSpeed = Math.abs(power) * Constants.MAX_DRIVE_SPEED;
+		profile = new TrapezoidProfile(new TrapezoidProfile.Constraints(maxSpeed, Constants.PATH_MAX_ACCELERATION));
+		goal = new TrapezoidProfile.State(Math.abs(distance), Math.min(Math.abs(exitPower) * Constants.MAX_DRIVE_SPEED, maxSpeed));
+		addRequirements(drivetrain);
+	}
+	
+	/** initialize ************************************************************
+	 * Called just before this Command runs the first time */
+	public void initialize() {
+		startPose = drivetrain.getPose();
+		double cos = startPose.getRotation().getCos();
+		double sin = startPose.getRotation().getSin();
+		fieldDirectionX = directionX * cos - directionY * sin;
+		fieldDirectionY = directionX * sin + directionY * cos;
+		// Start the profile at the speed the robot is already going this way, so a chained move doesn't brake first,
+		// and the across profile at the speed it's going sideways (to the left of the line)
+		ChassisSpeeds speeds = drivetrain.getRobotRelativeSpeeds();
+		double speed = speeds.vxMetersPerSecond * directionX + speeds.vyMetersPerSecond * directionY;
+		start = new TrapezoidProfile.State(0, Math.max(speed, 0));
+		acrossStart = new TrapezoidProfile.State(0, speeds.vyMetersPerSecond * directionX - speeds.vxMetersPerSecond * directionY);
+		acrossProfile.calculate(0, acrossStart, ON_THE_LINE);
+		acrossTime = acrossProfile.totalTime();
+		progress = 0;
+		timer.restart();
+	}
+
+	/** execute ***************************************************************
+	 * Called repeatedly when this Command is scheduled to run */
+	public void execute() {
+		Pose2d pose = drivetrain.getPose();
+		double dx = pose.getX() - startPose.getX();
+		double dy = pose.getY() - startPose.getY();
+		progress = dx * fieldDirectionX + dy * fieldDirectionY;
+		double offset = dy * fieldDirectionX - dx * fieldDirectionY; // Distance to the left of the line
+
+		TrapezoidProfile.State setpoint = profile.calculate(timer.get(), start, goal);
+		double alongSpeed = setpoint.velocity + kP_DISTANCE * (setpoint.position - progress);
+		TrapezoidProfile.State acrossSetpoint = acrossProfile.calculate(timer.get(), acrossStart, ON_THE_LINE);
+		double acrossSpeed = acrossSetpoint.velocity + kP_DISTANCE * (acrossSetpoint.position - offset);
+		double headingError = MathUtil.angleModulus(startPose.getRotation().getRadians() - pose.getRotation().getRadians());
+
+		drivetrain.driveRobotRelative(ChassisSpeeds.fromFieldRelativeSpeeds(
+			alongSpeed * fieldDirectionX - acrossSpeed * fieldDirectionY,
+			alongSpeed * fieldDirectionY + acrossSpeed * fieldDirectionX,
+			kP_HEADING * headingError, pose.getRotation()));
+	}
+	
+	/** isFinished ************************************************************	
+	 * Make this return true when this Command no longer needs to run execute() */
+	public boolean isFinished() {
+		if (goal.velocity > 0) {
+			return progress >= goal.position; // Hand over to the next move at speed
+		}
+		return timer.get() >= Math.max(profile.totalTime(), acrossTime) && Math.abs(goal.position - progress) < DISTANCE_TOLERANCE;
+	}
+
+	// Called once the command ends or is interrupted.
+	public void end(boolean interrupted) {
+		if (interrupted || goal.velocity == 0) {
+			drivetrain.driveRobotRelative(new ChassisSpeeds());
+		} // Otherwise keep rolling, the next move takes over on the next loop
+	}
+}
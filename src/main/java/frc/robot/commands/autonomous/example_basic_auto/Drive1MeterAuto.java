@@ -1,5 +1,5 @@
 // Author: UMN Robotics Ri3D
-// Last Updated: January 2025
+// Last Updated: October 2026
 
 package frc.robot.commands.autonomous.example_basic_auto;
 
@@ -7,7 +7,7 @@ import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import frc.robot.commands.autonomous.basic_path_planning.Drivetrain_GyroStraight;
 
 /** Autonomous Mode (Default) ******************************************************
- * This basic autonomous routine drives forward 1 meter using encoder feedback */
+ * This basic autonomous routine drives forward 1 meter using odometry feedback */
 public class Drive1MeterAuto extends SequentialCommandGroup {
 
   // List commands here sequentially
@@ -1,22 +1,19 @@
 // Author: UMN Robotics Ri3D
-// Last Updated: January 2025
+// Last Updated: October 2026
 
 package frc.robot.commands.autonomous.example_basic_auto;
 
 import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
+import frc.robot.commands.autonomous.basic_path_planning.Drivetrain_GyroStrafe;
 import frc.robot.commands.autonomous.basic_path_planning.Drivetrain_GyroStraight;
-import frc.robot.commands.autonomous.basic_path_planning.Drivetrain_GyroTurn;
 
-// This autonomous routine drives in a square!
+// This autonomous routine drives in a square! Mecanum wheels don't need to turn at the corners,
+// so it keeps facing the same way and carries some speed around each corner instead of stopping.
 public class SquareAutonomous extends SequentialCommandGroup{
     public SquareAutonomous(){
-    addCommands(new Drivetrain_GyroStraight(0.5, 0.2)); // Drive straight
-    addCommands(new Drivetrain_GyroTurn(90)); // Turn 90 degrees
-    addCommands(new Drivetrain_GyroStraight(0.5, 0.2)); // Drive straight
-    addCommands(new Drivetrain_GyroTurn(90)); // Turn 90 degrees
-    addCommands(new Drivetrain_GyroStraight(0.5, 0.2)); // Drive straight
-    addCommands(new Drivetrain_GyroTurn(90)); // Turn 90 degrees
-    addCommands(new Drivetrain_GyroStraight(0.5, 0.2)); // Drive straight
-    addCommands(new Drivetrain_GyroTurn(90)); // Turn 90 degrees
+    addCommands(new Drivetrain_GyroStraight(0.5, 0.3, 0.1)); // Drive forwards
+    addCommands(new Drivetrain_GyroStrafe(0.5, 0.3, 0.1)); // Strafe left
+    addCommands(new Drivetrain_GyroStraight(0.5, -0.3, 0.1)); // Drive backwards
+    addCommands(new Drivetrain_GyroStrafe(0.5, -0.3)); // Strafe right, stopping back where it started
     }
-}
\ No newline at end of file
+}
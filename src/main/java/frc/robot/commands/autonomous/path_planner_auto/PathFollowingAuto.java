@@ -0,0 +1,38 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.commands.autonomous.path_planner_auto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.pathplanner.lib.auto.AutoBuilder;
+import com.pathplanner.lib.path.PathConstraints;
+import com.pathplanner.lib.path.PathPlannerPath;
+
+import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
+import frc.robot.Constants;
+
+/** Path Following Autonomous **************************************************
+ * Base class for autonomous routines built from PathPlanner paths. It keeps
+ * track of every path the routine follows so AutoRoutineRegistry can generate
+ * their trajectories in the background before the match starts. */
+public abstract class PathFollowingAuto extends SequentialCommandGroup {
+  /** Speed limits shared by our autonomous paths */
+  protected static final PathConstraints PATH_CONSTRAINTS = new PathConstraints(Constants.PATH_MAX_VELOCITY, Constants.PATH_MAX_ACCELERATION,
+      Constants.kMAX_ANGULAR_SPEED_RADIANS_PER_SECOND, Constants.kMAX_ANGULAR_ACCELERATION_RADIANS_PER_SECOND_SQUARED);
+
+  private final List<PathPlannerPath> paths = new ArrayList<>();
+
+  /** Adds a command that follows the given path to the end of the routine */
+  protected void addPath(PathPlannerPath path) {
+    paths.add(path);
+    addCommands(AutoBuilder.followPath(path));
+  }
+
+  /** Every path this routine follows, in order */
+  public List<PathPlannerPath> getPaths() {
+    return Collections.unmodifiableList(paths);
+  }
+}
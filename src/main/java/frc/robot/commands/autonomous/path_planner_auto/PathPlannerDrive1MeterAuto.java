@@ -0,0 +1,33 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.commands.autonomous.path_planner_auto;
+
+import com.pathplanner.lib.path.GoalEndState;
+import com.pathplanner.lib.path.IdealStartingState;
+import com.pathplanner.lib.path.PathPlannerPath;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj2.command.InstantCommand;
+import frc.robot.Robot;
+
+/** PathPlanner Drive 1 Meter Autonomous **************************************
+ * Drives forward 1 meter along a PathPlanner path, using the pose estimate and
+ * the closed-loop wheel controllers instead of constant power. */
+public class PathPlannerDrive1MeterAuto extends PathFollowingAuto {
+
+  public PathPlannerDrive1MeterAuto() {
+    PathPlannerPath path = new PathPlannerPath(
+      PathPlannerPath.waypointsFromPoses(
+        new Pose2d(0, 0, Rotation2d.fromDegrees(0)),
+        new Pose2d(1.0, 0, Rotation2d.fromDegrees(0))),
+      PATH_CONSTRAINTS,
+      new IdealStartingState(0, new Rotation2d()),
+      new GoalEndState(0, new Rotation2d()));
+    path.preventFlipping = true; // The path is relative to wherever the robot starts, so it never gets mirrored
+
+    addCommands(new InstantCommand(() -> Robot.m_localizationSubsystem.resetPose(new Pose2d()))); // Start the path from where the robot is
+    addPath(path);
+  }
+}
@@ -0,0 +1,39 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.commands.autonomous.path_planner_auto;
+
+import com.pathplanner.lib.path.GoalEndState;
+import com.pathplanner.lib.path.IdealStartingState;
+import com.pathplanner.lib.path.PathPlannerPath;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj2.command.InstantCommand;
+import frc.robot.Robot;
+
+/** PathPlanner Square Autonomous *********************************************
+ * Drives the same square as SquareAutonomous, but as one continuous holonomic
+ * path: the corners are rounded off instead of stopping and turning in place,
+ * and the robot keeps facing forward the whole way. */
+public class PathPlannerSquareAuto extends PathFollowingAuto {
+  private static final double SIDE_LENGTH = 0.5; // Meters
+
+  public PathPlannerSquareAuto() {
+    PathPlannerPath path = new PathPlannerPath(
+      // Pose rotations here are the direction of travel through each waypoint, not the robot's heading
+      PathPlannerPath.waypointsFromPoses(
+        new Pose2d(0, 0, Rotation2d.fromDegrees(0)),
+        new Pose2d(SIDE_LENGTH, 0, Rotation2d.fromDegrees(45)),
+        new Pose2d(SIDE_LENGTH, SIDE_LENGTH, Rotation2d.fromDegrees(135)),
+        new Pose2d(0, SIDE_LENGTH, Rotation2d.fromDegrees(-135)),
+        new Pose2d(0, 0, Rotation2d.fromDegrees(-90))),
+      PATH_CONSTRAINTS,
+      new IdealStartingState(0, new Rotation2d()),
+      new GoalEndState(0, new Rotation2d()));
+    path.preventFlipping = true; // The path is relative to wherever the robot starts, so it never gets mirrored
+
+    addCommands(new InstantCommand(() -> Robot.m_localizationSubsystem.resetPose(new Pose2d()))); // Start the path from where the robot is
+    addPath(path);
+  }
+}
@@ -0,0 +1,194 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.commands.elevator;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Constants;
+import frc.robot.Robot;
+import frc.robot.subsystems.CoralElevatorSubsystem;
+import frc.robot.subsystems.ElevatorInputs;
+import frc.robot.util.StallDetector;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.NumberSignal;
+
+// Drives the climb and the arm slowly into their hard stops together, and re-zeros each encoder when its motor stalls
+// there. With the keep-out zone enabled, homing the arm would swing it down past the drivetrain, so instead the arm goes
+// first: unless it booted stowed on its stop (it stalls straight away without moving), the carriage is lifted clear of
+// the zone, from wherever it booted, and lowered back there after. The encoders are wrong until homed but count moves
+// right, so those lifts are relative ones.
+public class CoralElevatorHomeCommand extends Command {
+  private static final NumberSignal homeTimeSignal = Telemetry.number("Elevator Home Time", 0, Constants.TELEMETRY_SLOW_PERIOD);
+
+  // Homing steps: HOME_BOTH and then DONE, or with the keep-out zone enabled the rest in order
+  private enum Step {
+    HOME_BOTH, // Both axes at once, when there's no keep-out zone to go around
+    PROBE_ARM, // Push the arm towards its stop: stowed, it stalls at once; anywhere else, it starts to move
+    LIFT, // Lift the carriage clear of the keep-out zone
+    HOME_ARM,
+    LOWER, // Back down to where the carriage booted
+    HOME_CLIMB,
+    DONE,
+  }
+
+  private CoralElevatorSubsystem m_subsystem;
+  private final StallDetector climbStall = new StallDetector(Constants.ELEVATOR_HOMING_CURRENT, Constants.ELEVATOR_HOMING_VELOCITY, Constants.ELEVATOR_HOMING_DEBOUNCE);
+  private final StallDetector armStall = new StallDetector(Constants.ELEVATOR_HOMING_CURRENT, Constants.ELEVATOR_HOMING_VELOCITY, Constants.ELEVATOR_HOMING_DEBOUNCE);
+  private Step step;
+  private double climbStart; // Climb encoder reading where the carriage booted
+  private double armHold; // Arm encoder reading to hold while the carriage lifts
+  private boolean climbHomed, armHomed;
+  private final Timer homeTimer = new Timer();
+  private final Timer stepTimer = new Timer();
+
+  /** Finds where the climb and arm encoders really are, after the robot has booted with the mechanism anywhere */
+  public CoralElevatorHomeCommand() {
+    m_subsystem = Robot.m_CoralElevatorSubsystem;
+    addRequirements(m_subsystem);
+  }
+
+  // Called once when the command is initially scheduled.
+  @Override
+  public void initialize() {
+    climbStall.reset();
+    armStall.reset();
+    climbHomed = false;
+    armHomed = false;
+    climbStart = m_subsystem.getPositionClimbOne();
+    m_subsystem.startHoming();
+    homeTimer.restart();
+    next(Constants.ELEVATOR_KEEP_OUT_ENABLED ? Step.PROBE_ARM : Step.HOME_BOTH);
+  }
+
+  // Called every time the scheduler runs while the command is scheduled.
+  @Override
+  public void execute() {
+    ElevatorInputs inputs = m_subsystem.getInputs();
+    switch (step) {
+      case HOME_BOTH -> {
+        if (!climbHomed && climbStall.update(inputs.getClimbCurrent(), inputs.getClimbVelocity(), TimedRobot.kDefaultPeriod)) {
+          m_subsystem.homeClimb();
+          climbHomed = true;
+        }
+        if (!armHomed && armStall.update(inputs.getArmCurrent(), inputs.getArmVelocity(), TimedRobot.kDefaultPeriod)) {
+          m_subsystem.homeArm();
+          armHomed = true;
+        }
+        if (climbHomed && armHomed) {
+          next(Step.DONE);
+        }
+      }
+      case PROBE_ARM -> {
+        if (armStall.update(inputs.getArmCurrent(), inputs.getArmVelocity(), TimedRobot.kDefaultPeriod)) {
+          m_subsystem.homeArm();
+          next(Step.HOME_CLIMB); // It never moved, so the carriage can go straight down
+        } else if (Math.abs(inputs.getArmVelocity()) > Constants.ELEVATOR_HOMING_VELOCITY || stepTimer.hasElapsed(Constants.ARM_HOMING_PROBE_TIME)) {
+          armStall.reset();
+          armHold = inputs.getArmPosition();
+          next(Step.LIFT);
+        }
+      }
+      case LIFT -> {
+        // It booted at least at the bottom, so this is at least the clearance up (or it's on the top stop, higher still)
+        if (Math.abs(inputs.getClimbPosition() - (climbStart + Constants.ELEVATOR_HOMING_CLEARANCE)) < Constants.ELEVATOR_HOMING_TOLERANCE
+            || climbStall.update(inputs.getClimbCurrent(), inputs.getClimbVelocity(), TimedRobot.kDefaultPeriod)) {
+          climbStall.reset();
+          next(Step.HOME_ARM);
+        }
+      }
+      case HOME_ARM -> {
+        if (armStall.update(inputs.getArmCurrent(), inputs.getArmVelocity(), TimedRobot.kDefaultPeriod)) {
+          m_subsystem.homeArm();
+          next(Step.LOWER);
+        }
+      }
+      case LOWER -> {
+        if (Math.abs(inputs.getClimbPosition() - climbStart) < Constants.ELEVATOR_HOMING_TOLERANCE) {
+          next(Step.HOME_CLIMB);
+        }
+      }
+      case HOME_CLIMB -> {
+        if (climbStall.update(inputs.getClimbCurrent(), inputs.getClimbVelocity(), TimedRobot.kDefaultPeriod)) {
+          m_subsystem.homeClimb();
+          next(Step.DONE);
+        }
+      }
+      case DONE -> {}
+    }
+
+    switch (step) {
+      case HOME_BOTH -> {
+        // Each axis is held where it homed while the other carries on
+        if (climbHomed) {
+          m_subsystem.setPositionClimbOne(Constants.ELEVATOR_CLIMB_HOME_POSITION);
+        } else {
+          m_subsystem.setClimbHomingOutput(Constants.ELEVATOR_HOMING_SPEED);
+        }
+        if (armHomed) {
+          m_subsystem.setPositionArm(Constants.ARM_HOME_POSITION);
+        } else {
+          m_subsystem.setArmHomingOutput(Constants.ARM_HOMING_SPEED);
+        }
+      }
+      case PROBE_ARM -> {
+        m_subsystem.setPositionClimbOne(climbStart);
+        m_subsystem.setArmHomingOutput(Constants.ARM_HOMING_SPEED);
+      }
+      case LIFT -> {
+        m_subsystem.setPositionClimbOne(climbStart + Constants.ELEVATOR_HOMING_CLEARANCE);
+        m_subsystem.setPositionArm(armHold);
+      }
+      case HOME_ARM -> {
+        m_subsystem.setPositionClimbOne(climbStart + Constants.ELEVATOR_HOMING_CLEARANCE);
+        m_subsystem.setArmHomingOutput(Constants.ARM_HOMING_SPEED);
+      }
+      case LOWER -> {
+        m_subsystem.setPositionClimbOne(climbStart);
+        m_subsystem.setPositionArm(Constants.ARM_HOME_POSITION); // Stowed is past straight down, so gravity pulls it off its stop
+      }
+      case HOME_CLIMB -> {
+        m_subsystem.setClimbHomingOutput(Constants.ELEVATOR_HOMING_SPEED);
+        m_subsystem.setPositionArm(Constants.ARM_HOME_POSITION);
+      }
+      case DONE -> {}
+    }
+  }
+
+  // Called once the command ends or is interrupted.
+  @Override
+  public void end(boolean interrupted) {
+    m_subsystem.setClimbHomingOutput(0);
+    m_subsystem.setArmHomingOutput(0);
+    m_subsystem.finishHoming();
+    if (step == Step.DONE) {
+      homeTimeSignal.set(homeTimer.get());
+    } else if (!interrupted) {
+      DriverStation.reportWarning("Elevator homing gave up at " + step + ", presets stay disabled", false);
+    }
+  }
+
+  // Returns true when the command should end.
+  @Override
+  public boolean isFinished() {
+    return step == Step.DONE || stepTimer.hasElapsed(timeout(step));
+  }
+
+  private void next(Step step) {
+    this.step = step;
+    stepTimer.restart();
+  }
+
+  // Seconds a step gets before homing gives up
+  private static double timeout(Step step) {
+    return switch (step) {
+      case HOME_BOTH -> Math.max(Constants.ELEVATOR_HOMING_TIMEOUT, Constants.ARM_HOMING_TIMEOUT);
+      case PROBE_ARM -> Constants.ARM_HOMING_PROBE_TIME + Constants.ELEVATOR_HOMING_DEBOUNCE; // It moves on by itself
+      case HOME_ARM -> Constants.ARM_HOMING_TIMEOUT;
+      case LIFT, LOWER, HOME_CLIMB -> Constants.ELEVATOR_HOMING_TIMEOUT;
+      case DONE -> Double.POSITIVE_INFINITY;
+    };
+  }
+}
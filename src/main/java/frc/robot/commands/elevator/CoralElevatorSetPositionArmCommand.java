@@ -1,18 +1,24 @@
 // Author: UMN Robotics Ri3D
-// Last Updated: January 2025
+// Last Updated: October 2026
 
 package frc.robot.commands.elevator;
 
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Constants;
 import frc.robot.Robot;
 import frc.robot.subsystems.CoralElevatorSubsystem;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.NumberSignal;
 
 // This is a custom Set Position command for the Arm motor
 public class CoralElevatorSetPositionArmCommand extends Command {
+  private static final NumberSignal moveTimeSignal = Telemetry.number("Arm Move Time", 0, Constants.TELEMETRY_SLOW_PERIOD);
+
   private CoralElevatorSubsystem m_subsystem;
   private double position;
   private double error;
-  private double kP = 0.04;
+  private final Timer moveTimer = new Timer();
 
   /** causes Arm motor to move to given position */
   public CoralElevatorSetPositionArmCommand(double position) {
@@ -21,32 +27,37 @@ public class CoralElevatorSetPositionArmCommand extends Command {
     addRequirements(m_subsystem);
   }
 
+  /** Points this command at a new position, so one instance can serve every setpoint. If it's running, the
+   * move restarts towards the new position. */
+  public void setTarget(double position) {
+    this.position = position;
+    if (isScheduled()) {
+      initialize();
+    }
+  }
+
   // Called once when the command is initially scheduled.
   @Override
   public void initialize() {
-    // -
+    this.error = position - m_subsystem.getPositionArm();
+    moveTimer.restart();
   }
 
   // Called every time the scheduler runs while the command is scheduled.
   @Override
   public void execute() {
+    // Re-sent every loop so the gravity feedforward follows the arm angle
+    m_subsystem.setPositionArm(position);
     this.error = position - m_subsystem.getPositionArm();
-    double output = kP * error;
-
-    if (Math.abs(output) > 0.2) { // Max power we want to allow
-      output = Math.copySign(0.2, output);
-    }
-    if (Math.abs(output) < 0.05) { // Min power we want to allow
-      output = Math.copySign(0.05, output);
-    }
-
-    m_subsystem.setSpeedArm(output-m_subsystem.getGravityControl());
   }
 
   // Called once the command ends or is interrupted.
   @Override
   public void end(boolean interrupted) {
     m_subsystem.stopArm();
+    if (!interrupted) {
+      moveTimeSignal.set(moveTimer.get()); // Time to setpoint, for tuning the profile
+    }
   }
 
   // Returns true when the command should end.
@@ -54,4 +65,4 @@ public class CoralElevatorSetPositionArmCommand extends Command {
   public boolean isFinished() {
     return Math.abs(error) <= 0.5;
   }
-}
\ No newline at end of file
+}
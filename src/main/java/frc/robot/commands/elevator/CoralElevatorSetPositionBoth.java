@@ -1,26 +1,39 @@
 // Author: UMN Robotics Ri3D
-// Last Updated: January 2025
+// Last Updated: October 2026
 
 package frc.robot.commands.elevator;
 
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Constants;
 import frc.robot.Robot;
 import frc.robot.subsystems.CoralElevatorSubsystem;
+import frc.robot.util.ElevatorMotionPlanner;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.NumberSignal;
 
-// This is a custom Set Position command for the Arm motor
+// This is a custom Set Position command for the Arm and Climb motors together
 public class CoralElevatorSetPositionBoth extends Command {
+  private static final NumberSignal moveTimeSignal = Telemetry.number("Elevator Move Time", 0, Constants.TELEMETRY_SLOW_PERIOD);
+  private static final NumberSignal plannedTimeSignal = Telemetry.number("Elevator Planned Move Time", 0, Constants.TELEMETRY_SLOW_PERIOD);
+
   private CoralElevatorSubsystem m_subsystem;
   private double position;
   private double error;
-  private double kP = 0.02;
 
   private double position_1;
   private double error_1;
 
-  private double kP_climb = 0.05;
   private double goalThreshold = 3;
 
-  /** Causes arm and climb motor to move to given position */
+  private final ElevatorMotionPlanner.Plan plan = new ElevatorMotionPlanner.Plan(); // Refilled for every move
+  private boolean planned; // Whether there was a safe way to the current target
+  private boolean arrived;
+  private final Timer moveTimer = new Timer();
+
+  /** Causes arm and climb motor to move to given position, both at once along a plan that keeps the arm
+   * out of the keep-out zone (see ElevatorMotionPlanner) */
   public CoralElevatorSetPositionBoth(double position, double position_1) {
     this.position = position;
     this.position_1 = position_1;
@@ -28,41 +41,44 @@ public class CoralElevatorSetPositionBoth extends Command {
     addRequirements(m_subsystem);
   }
 
+  /** Points this command at a new arm and climb position, so one instance can serve every preset instead of
+   * a new command per button press. If it's running, the move is re-planned from where the mechanism is now. */
+  public void setTarget(double position, double position_1) {
+    this.position = position;
+    this.position_1 = position_1;
+    if (isScheduled()) {
+      initialize();
+    }
+  }
+
   // Called once when the command is initially scheduled.
   @Override
   public void initialize() {
-    // -
+    // Planned from wherever the mechanism is now, so the same command works from any starting point
+    planned = m_subsystem.planMove(position_1, position, plan);
+    arrived = false;
+    if (!planned) {
+      DriverStation.reportWarning("No safe elevator move to climb " + position_1 + ", arm " + position, false);
+    } else {
+      plannedTimeSignal.set(plan.getDuration());
+    }
+    this.error = position - m_subsystem.getPositionArm();
+    this.error_1 = position_1 - m_subsystem.getPositionClimbOne();
+    moveTimer.restart();
   }
 
   // Called every time the scheduler runs while the command is scheduled.
   @Override
   public void execute() {
-    this.error = position - m_subsystem.getPositionArm();
-    double output = kP * error;
-    this.error_1 = position_1 - m_subsystem.getPositionClimbOne();
-    double output_1 = kP_climb * error_1;
-
-    if (Math.abs(output) > 0.2) { // Max power we want to allow
-      output = Math.copySign(0.2, output);
-    }
-    if (Math.abs(output) < 0.05) { // Min power we want to allow
-      output = Math.copySign(0.05, output);
-    }
-
-    if (Math.abs(error) > 0.5) {
-      m_subsystem.setSpeedArm(output-m_subsystem.getGravityControl());
-    } else {
-      m_subsystem.setSpeedArm(-m_subsystem.getGravityControl());
-    }
-
-    if (Math.abs(output_1) > 0.2) { // Max power we want to allow
-      output_1 = Math.copySign(0.2, output_1);
+    if (!planned) {
+      return;
     }
-    if ((Math.abs(this.error_1) > this.goalThreshold) && Math.abs(output_1) < 0.05) { // Min power we want to allow
-      output_1 = Math.copySign(0.05, output_1);
-    }
-
-    m_subsystem.setSpeedClimbOne(output_1);
+    // Both motion profiles run on the Spark MAXes, the plan says when each one gets which goal
+    double time = moveTimer.get();
+    m_subsystem.setPositionArm(plan.getArmGoal(time));
+    m_subsystem.setPositionClimbOne(plan.getClimbGoal(time));
+    this.error = plan.getArmTarget() - m_subsystem.getPositionArm();
+    this.error_1 = plan.getClimbTarget() - m_subsystem.getPositionClimbOne();
   }
 
   // Called once the command ends or is interrupted.
@@ -70,11 +86,23 @@ public class CoralElevatorSetPositionBoth extends Command {
   public void end(boolean interrupted) {
     m_subsystem.stopArm();
     m_subsystem.stopClimb();
+    if (!interrupted && planned) {
+      arrived = true;
+      moveTimeSignal.set(moveTimer.get()); // Compare with the planned time to check the plan matches the mechanism
+    }
+  }
+
+  /** True if the last run finished at the target (not interrupted, and there was a safe way there) */
+  public boolean hasArrived() {
+    return arrived;
   }
 
   // Returns true when the command should end.
   @Override
   public boolean isFinished() {
-    return Math.abs(error) <= 0.5 && (Math.abs(this.error_1) < this.goalThreshold);
+    if (!planned) {
+      return true;
+    }
+    return moveTimer.get() >= plan.getLastGoalTime() && Math.abs(error) <= 0.5 && (Math.abs(this.error_1) < this.goalThreshold);
   }
-}
\ No newline at end of file
+}
@@ -1,20 +1,25 @@
 // Author: UMN Robotics Ri3D
-// Last Updated: January 2025
+// Last Updated: October 2026
 
 package frc.robot.commands.elevator;
 
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Constants;
 import frc.robot.Robot;
 import frc.robot.subsystems.CoralElevatorSubsystem;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.NumberSignal;
 
 // This is a custom Set Position command for the Climb motor
 public class CoralElevatorSetPositionClimbCommand extends Command {
+  private static final NumberSignal moveTimeSignal = Telemetry.number("Climb Move Time", 0, Constants.TELEMETRY_SLOW_PERIOD);
+
   private CoralElevatorSubsystem m_subsystem;
   private double position_1;
   private double error_1;
-  private double error_2;
-  private double kP = 0.05;
   private double goalThreshold = 3;
+  private final Timer moveTimer = new Timer();
 
   /** causes Climb motor to move to given position */
   public CoralElevatorSetPositionClimbCommand(double position_1) {
@@ -23,37 +28,42 @@ public class CoralElevatorSetPositionClimbCommand extends Command {
     addRequirements(m_subsystem);
   }
 
+  /** Points this command at a new position, so one instance can serve every setpoint. If it's running, the
+   * move restarts towards the new position. */
+  public void setTarget(double position_1) {
+    this.position_1 = position_1;
+    if (isScheduled()) {
+      initialize();
+    }
+  }
+
   // Called once when the command is initially scheduled.
   @Override
   public void initialize() {
-    // -
+    this.error_1 = position_1 - m_subsystem.getPositionClimbOne();
+    moveTimer.restart();
   }
 
   // Called every time the scheduler runs while the command is scheduled.
   @Override
   public void execute() {
+    // The Spark MAX runs the motion profile and position loop, this just keeps the setpoint alive
+    m_subsystem.setPositionClimbOne(position_1);
     this.error_1 = position_1 - m_subsystem.getPositionClimbOne();
-    double output_1 = kP * error_1;
-
-    if (Math.abs(output_1) > 0.2) { // Max power we want to allow
-      output_1 = Math.copySign(0.5, output_1);
-    }
-    if (Math.abs(output_1) < 0.05) { // Min power we want to allow
-      output_1 = Math.copySign(0.05, output_1);
-    }
-
-    m_subsystem.setSpeedClimbOne(output_1);
   }
 
   // Called once the command ends or is interrupted.
   @Override
   public void end(boolean interrupted) {
     m_subsystem.setSpeedClimbOne(0);
+    if (!interrupted) {
+      moveTimeSignal.set(moveTimer.get()); // Time to setpoint, for tuning the profile
+    }
   }
 
   // Returns true when the command should end.
   @Override
   public boolean isFinished() {
-    return (Math.abs(this.error_1) < this.goalThreshold) && (Math.abs(this.error_2) < this.goalThreshold);
+    return Math.abs(this.error_1) < this.goalThreshold;
   }
-}
\ No newline at end of file
+}
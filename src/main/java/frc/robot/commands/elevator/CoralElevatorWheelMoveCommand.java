@@ -1,18 +1,25 @@
 // Author: UMN Robotics Ri3D
-// Last Updated: January 2025
+// Last Updated: October 2026
 
 package frc.robot.commands.elevator;
 
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Constants;
 import frc.robot.Robot;
 import frc.robot.subsystems.CoralElevatorSubsystem;
+import frc.robot.util.GamePieceDetector.State;
 
-// This Command causes the elevator to ascend or descend
+// This Command runs the end effector wheel in or out until the coral is seated or gone, backing out of jams
 public class CoralElevatorWheelMoveCommand extends Command {
   private CoralElevatorSubsystem m_subsystem;
   private double power;
+  private boolean started; // The game piece detector has seen this run start
+  private boolean unjamming;
+  private final Timer unjamTimer = new Timer();
 
-  /** Right Bumper command, causes Elevator to ascend. Left Bumper command, causes Elevator to descend */
+  /** Runs the wheel at the given power (positive intakes). Intaking stops once a coral is seated (and doesn't start
+   * if one already is), ejecting stops once the coral has left, and a jam is backed out for WHEEL_UNJAM_TIME. */
   public CoralElevatorWheelMoveCommand(double power) {
     this.power = power;
     m_subsystem = Robot.m_CoralElevatorSubsystem;
@@ -22,24 +29,42 @@ public class CoralElevatorWheelMoveCommand extends Command {
   // Called once when the command is initially scheduled.
   @Override
   public void initialize() {
+    started = false;
+    unjamming = false;
     m_subsystem.setSpeedWheel(power);
   }
 
   // Called every time the scheduler runs while the command is scheduled.
   @Override
   public void execute() {
-    // -
+    State state = m_subsystem.getGamePieceState();
+    started |= (state == State.INTAKING || state == State.EJECTING);
+    if (state == State.JAMMED && !unjamming) {
+      unjamming = true;
+      unjamTimer.restart();
+    }
+    m_subsystem.setSpeedWheel(unjamming ? -Math.signum(power) * Constants.WHEEL_UNJAM_SPEED : power);
   }
 
   // Called once the command ends or is interrupted.
   @Override
   public void end(boolean interrupted) {
     m_subsystem.stopWheel();
+    if (unjamming) {
+      m_subsystem.clearWheelJam();
+    }
   }
 
   // Returns true when the command should end.
   @Override
   public boolean isFinished() {
-    return false; // Command will never finish (we don't want it to)
+    if (unjamming) {
+      return unjamTimer.hasElapsed(Constants.WHEEL_UNJAM_TIME);
+    }
+    State state = m_subsystem.getGamePieceState();
+    if (power > 0) {
+      return state == State.HOLDING;
+    }
+    return started && state == State.EMPTY;
   }
-}
\ No newline at end of file
+}
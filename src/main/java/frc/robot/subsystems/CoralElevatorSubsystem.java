@@ -1,78 +1,120 @@
 // Author: UMN Robotics Ri3D
-// Last Updated: December 2024
+// Last Updated: October 2026
 
 package frc.robot.subsystems;
 
 import frc.robot.Constants;
-import frc.robot.commands.elevator.CoralElevatorSetPositionArmCommand;
-import frc.robot.commands.elevator.CoralElevatorSetPositionClimbCommand;
-
-import com.revrobotics.spark.SparkMax;
-import com.revrobotics.spark.config.SparkBaseConfig.IdleMode;
-import com.revrobotics.spark.config.SparkMaxConfig;
-import com.revrobotics.spark.SparkBase.PersistMode;
-import com.revrobotics.spark.SparkBase.ResetMode;
-import com.revrobotics.spark.SparkLowLevel.MotorType;
-
+import frc.robot.util.ElevatorMotionPlanner;
+import frc.robot.util.GamePieceDetector;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.BooleanSignal;
+import frc.robot.util.Telemetry.NumberSignal;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.smartdashboard.Mechanism2d;
+import edu.wpi.first.wpilibj.smartdashboard.MechanismLigament2d;
+import edu.wpi.first.wpilibj.smartdashboard.MechanismRoot2d;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj.util.Color8Bit;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import edu.wpi.first.wpilibj2.command.button.Trigger;
 
 public class CoralElevatorSubsystem extends SubsystemBase {
 
-    // Coral Elevator Motor Controllers
-    private SparkMax m_elevator_climb_1; // NEO motor
-    private SparkMax m_elevator_climb_2; // NEO motor
-    private SparkMax m_elevator_arm; // NEO motor
-    private SparkMax m_elevator_wheel; // NEO motor
+    // Coral Elevator hardware (real, simulated or replayed from a log), see ElevatorIO
+    private final ElevatorIO io;
+
+    // Sensor readings for the current cycle, refreshed once at the start of periodic()
+    private final ElevatorInputs inputs = new ElevatorInputs();
 
     private double gravityControl;
+    private double outputScale = 1; // Power budget, see PowerSubsystem
 
     // Coral Elevator limiters
-    public double climb_max_1 = 255;
-    public double climb_min_1 = -255;
-    public double arm_max = 4;
-    public double arm_min = -42.19;
+    public double climb_max_1 = Constants.ELEVATOR_CLIMB_MAX;
+    public double climb_min_1 = Constants.ELEVATOR_CLIMB_MIN;
+    public double arm_max = Constants.ARM_MAX;
+    public double arm_min = Constants.ARM_MIN;
+
+    // The encoders count from wherever the mechanism was at power-on until each axis has been homed against its hard stop
+    private boolean climbHomed = false;
+    private boolean armHomed = false;
+
+    // Watches the end effector wheel for a coral going in, coming out or jamming
+    private final GamePieceDetector gamePiece = new GamePieceDetector(Constants.WHEEL_LOAD_CURRENT, Constants.WHEEL_STALL_CURRENT,
+        Constants.WHEEL_STALL_VELOCITY, Constants.WHEEL_SEAT_TRAVEL, Constants.WHEEL_EJECT_TRAVEL, Constants.WHEEL_STARTUP_TIME,
+        Constants.WHEEL_DETECT_DEBOUNCE);
+    private double wheelOutput = 0; // Last wheel command, before the power budget
+    private final Trigger hasCoral = new Trigger(() -> gamePiece.getState() == GamePieceDetector.State.HOLDING);
+    private final Trigger wheelJammed = new Trigger(() -> gamePiece.getState() == GamePieceDetector.State.JAMMED);
+
+    // Plans climb and arm moves together, around the keep-out zone where the arm hits the drivetrain (once it's been measured)
+    private final ElevatorMotionPlanner planner = new ElevatorMotionPlanner(
+        Constants.ELEVATOR_MAX_VELOCITY, Constants.ELEVATOR_MAX_ACCELERATION, Constants.ARM_MAX_VELOCITY, Constants.ARM_MAX_ACCELERATION,
+        Constants.ELEVATOR_CLIMB_MIN, Constants.ELEVATOR_CLIMB_MAX, Constants.ARM_MIN, Constants.ARM_MAX, Constants.ELEVATOR_KEEP_OUT_MARGIN,
+        Constants.ELEVATOR_KEEP_OUT_ENABLED ? new ElevatorMotionPlanner.KeepOutZone[] {
+          new ElevatorMotionPlanner.KeepOutZone(Constants.ELEVATOR_CLIMB_MIN, Constants.ELEVATOR_KEEP_OUT_CLIMB_MAX,
+              Constants.ELEVATOR_KEEP_OUT_ARM_MIN, Constants.ELEVATOR_KEEP_OUT_ARM_MAX)
+        } : new ElevatorMotionPlanner.KeepOutZone[0]);
+
+    // Side view of the elevator and arm, drawn from the encoders (on the robot and in simulation)
+    private final Mechanism2d mechanism = new Mechanism2d(Units.inchesToMeters(40), Units.inchesToMeters(60));
+    private final MechanismLigament2d elevatorLigament;
+    private final MechanismLigament2d armLigament;
+    private static final double ELEVATOR_BASE_HEIGHT = Units.inchesToMeters(12); // Carriage height with the elevator all the way down
+
+    static final double METERS_PER_CLIMB_ROTATION = Units.inchesToMeters(1) / Constants.ELEVATOR_ROTATIONS_PER_INCH;
+
+    private final LoopProfiler.Section periodicProfile = LoopProfiler.section("Coral Elevator");
+
+    // Dashboard signals
+    private final NumberSignal climbPositionSignal = Telemetry.number("Elevator Climb 1 Position", Constants.TELEMETRY_POSITION_DEADBAND, Constants.TELEMETRY_FAST_PERIOD);
+    private final NumberSignal armPositionSignal = Telemetry.number("Elevator Arm Position", Constants.TELEMETRY_POSITION_DEADBAND, Constants.TELEMETRY_FAST_PERIOD);
+    private final NumberSignal wheelPositionSignal = Telemetry.number("Elevator Wheel Position", Constants.TELEMETRY_POSITION_DEADBAND, Constants.TELEMETRY_SLOW_PERIOD);
+    private final BooleanSignal homedSignal = Telemetry.bool("Elevator Homed", Constants.TELEMETRY_SLOW_PERIOD);
+    private final NumberSignal gamePieceSignal = Telemetry.number("Game Piece State"); // GamePieceDetector.State ordinal
 
     /** Subsystem for controlling the coral elevator */
-    public CoralElevatorSubsystem() {
-      // Configure the Spark MAX motor controller using the new 2025 method
-      m_elevator_climb_1 = new SparkMax(Constants.ELEVATOR_STAGE_1_MOTOR_ID, MotorType.kBrushless);
-      //configureSparkMAX(m_elevator_climb_1, Constants.ELEVATOR_STAGE_1_INVERT);
-      //m_elevator_climb_2 = new SparkMax(Constants.ELEVATOR_STAGE_2_MOTOR_ID, MotorType.kBrushless);
-      //configureSparkMAX(m_elevator_climb_2, Constants.ELEVATOR_STAGE_2_INVERT);
-      m_elevator_arm = new SparkMax(Constants.END_EFFECTOR_ARM_MOTOR_ID, MotorType.kBrushless);
-      //configureSparkMAX(m_elevator_arm, Constants.ELEVATOR_ARM_INVERT);
-      m_elevator_wheel = new SparkMax(Constants.END_EFFECTOR_WHEEL_MOTOR_ID, MotorType.kBrushless);
-      //configureSparkMAX(m_elevator_wheel, Constants.ELEVATOR_WHEEL_INVERT);
+    public CoralElevatorSubsystem(ElevatorIO io) {
+      this.io = io;
+      io.updateInputs(inputs); // First sample, so the getters are valid before the first periodic()
   
       // Put the default speed on SmartDashboard if needed
       // SmartDashboard.putNumber("Elevator Speed", Constants.ELEVATOR_SPEED);
+
+      MechanismRoot2d root = mechanism.getRoot("Elevator", Units.inchesToMeters(20), 0);
+      elevatorLigament = root.append(new MechanismLigament2d("Climb", ELEVATOR_BASE_HEIGHT, 90, 6, new Color8Bit(255, 165, 0)));
+      armLigament = elevatorLigament.append(new MechanismLigament2d("Arm", Constants.ARM_LENGTH, -90, 4, new Color8Bit(0, 128, 255)));
+      SmartDashboard.putData("Elevator Mechanism", mechanism);
     }
-  
-    private void configureSparkMAX(SparkMax max, boolean reverse) {
-      SparkMaxConfig config = new SparkMaxConfig();
-      config.inverted(reverse).idleMode(IdleMode.kBrake);
-      max.configure(config, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters);
-    }
-  
+
   // Climb Motors Methods --------------------------------------------------------------------------------
 
   /* Sets speed of the elevator CLimb motor one. Inbuilt limiters */
   public void setSpeedClimbOne(double speed) {
     // Spark Max set() method with inbuilt limiters
     if ((speed > 0) && (getPositionClimbOne() > climb_max_1)) {
-      m_elevator_climb_1.set(0);
+      io.setClimbDutyCycle(0);
     } else if ((speed < 0) && (getPositionClimbOne() < climb_min_1))  {
-      m_elevator_climb_1.set(0);
+      io.setClimbDutyCycle(0);
     } else {
-      m_elevator_climb_1.set(speed);
+      io.setClimbDutyCycle(speed * outputScale);
     }
   }
   
   /* Gets position of the elevator climb motor one */
   public double getPositionClimbOne() {
-    // Spark Max getEncoder().getPosition() method
-    return m_elevator_climb_1.getEncoder().getPosition();
+    // Sampled at the start of this loop
+    return inputs.climbPosition;
+  }
+
+  /* Moves the climb to a position (motor rotations) along a MAXMotion profile, holding the carriage up against gravity.
+   * Call every loop while moving; the profile itself runs on the Spark MAX. */
+  public void setPositionClimbOne(double position) {
+    io.setClimbPosition(position, Constants.ELEVATOR_GRAVITY_CONST);
   }
 
   /* Set climb motor one speed to 0 */
@@ -98,48 +140,30 @@ public class CoralElevatorSubsystem extends SubsystemBase {
     setSpeedClimbOne(0);
   }
 
-  /* Sets position of elevator climb to Neutral preset */
-  public void climbNeutral() {
-    // Calls CoralElevatorSetPositionClimbCommand()
-    (new CoralElevatorSetPositionClimbCommand(0)).schedule();
-  }
-
-  /* Sets position of elevator climb to low Goal preset */
-  public void climbLowGoal() {
-    // Calls CoralElevatorSetPositionClimbCommand()
-    (new CoralElevatorSetPositionClimbCommand(39.4)).schedule();
-  }
-
-  /* Sets position of elevator climb to Mid Goal preset */
-  public void climbMidGoal() {
-    // Calls CoralElevatorSetPositionClimbCommand()
-    (new CoralElevatorSetPositionClimbCommand(84.1)).schedule();
-  }
-
-  /* Sets position of elevator climb to High Goal preset */
-  public void climbHighGoal() {
-    // Calls CoralElevatorSetPositionClimbCommand()
-    (new CoralElevatorSetPositionClimbCommand(climb_max_1)).schedule();
-  }
-
   // Arm Motor Methods -------------------------------------------------------------------------------
 
   /* Sets speed of the elevator Arm motor. Inbuilt limiters */
   public void setSpeedArm(double speed) {
     // Spark Max set() method with inbuilt limiters
     if ((speed > 0) && (getPositionArm() > arm_max)) {
-      m_elevator_arm.set(0);
+      io.setArmDutyCycle(0);
     } else if ((speed < 0) && (getPositionArm() < arm_min))  {
-      m_elevator_arm.set(0);
+      io.setArmDutyCycle(0);
     } else {
-      m_elevator_arm.set(speed);
+      io.setArmDutyCycle(speed * outputScale);
     }
   }
 
   /* Gets position of the elevator Arm motor */
   public double getPositionArm() {
-    // Spark Max getEncoder().getPosition() method
-    return m_elevator_arm.getEncoder().getPosition();
+    // Sampled at the start of this loop
+    return inputs.armPosition;
+  }
+
+  /* Moves the arm to a position (motor rotations) along a MAXMotion profile. The gravity feedforward
+   * depends on the arm angle, so call every loop while moving to keep it current. */
+  public void setPositionArm(double position) {
+    io.setArmPosition(position, -gravityControl);
   }
 
   /* Set Arm speed to 0 */
@@ -147,42 +171,74 @@ public class CoralElevatorSubsystem extends SubsystemBase {
     setSpeedArm(0);
   }
 
-  /* Sets position of elevator Arm to Drop preset */
-  public void armDrop() {
-    // Calls CoralElevatorSetPositionArmCommand()
-    (new CoralElevatorSetPositionArmCommand(arm_max)).schedule();
+  // Coordinated Methods ------------------------------------------------------------------------------
+  // The presets are Superstructure states, which move the climb and arm together with CoralElevatorSetPositionBoth
+
+  /* Plans a move of both the climb and arm from where they are now into the given plan, keeping the arm out of the
+   * keep-out zone. Returns false if the target is inside the zone or can't be reached without passing through it. */
+  public boolean planMove(double climbPosition, double armPosition, ElevatorMotionPlanner.Plan plan) {
+    climbPosition = MathUtil.clamp(climbPosition, climb_min_1, climb_max_1);
+    armPosition = MathUtil.clamp(armPosition, arm_min, arm_max);
+    return planner.plan(getPositionClimbOne(), getPositionArm(), climbPosition, armPosition, plan);
+  }
+
+  // Homing Methods -----------------------------------------------------------------------------------
+  // See CoralElevatorHomeCommand
+
+  /* Turns the soft limits off for homing, since they're encoder positions and the encoders aren't trustworthy yet.
+   * Neither axis counts as homed again until it's back on its stop, so if homing gives up the presets stay disabled. */
+  public void startHoming() {
+    io.setSoftLimitsEnabled(false);
+    climbHomed = false;
+    armHomed = false;
+  }
+
+  /* Turns the soft limits back on after homing */
+  public void finishHoming() {
+    io.setSoftLimitsEnabled(true);
+  }
+
+  /* Open-loop climb output without the limiters, negative towards the hard stop. Only for homing. */
+  public void setClimbHomingOutput(double speed) {
+    io.setClimbDutyCycle(speed * outputScale);
+  }
+
+  /* Open-loop arm output without the limiters, negative towards the hard stop. Only for homing. */
+  public void setArmHomingOutput(double speed) {
+    io.setArmDutyCycle(speed * outputScale);
   }
 
-  /* Sets position of elevator Arm to Intake preset */
-  public void armPlayerIntake() {
-    // Calls CoralElevatorSetPositionArmCommand()
-    (new CoralElevatorSetPositionArmCommand(29.2)).schedule();
+  /* The carriage is down on its hard stop: re-zero the climb encoder there */
+  public void homeClimb() {
+    io.setClimbEncoderPosition(Constants.ELEVATOR_CLIMB_HOME_POSITION);
+    inputs.climbPosition = Constants.ELEVATOR_CLIMB_HOME_POSITION; // The rest of this loop sees it too
+    climbHomed = true;
   }
 
-  /* Sets position of elevator Arm to Vertical preset */
-  public void armVertical() {
-    // Calls CoralElevatorSetPositionArmCommand()
-    (new CoralElevatorSetPositionArmCommand(17.5)).schedule();
+  /* The arm is back on its hard stop: re-zero the arm encoder there */
+  public void homeArm() {
+    io.setArmEncoderPosition(Constants.ARM_HOME_POSITION);
+    inputs.armPosition = Constants.ARM_HOME_POSITION;
+    armHomed = true;
   }
 
-  /* Sets position of elevator Arm to Initial preset */
-  public void armInitial() {
-    // Calls CoralElevatorSetPositionArmCommand()
-    (new CoralElevatorSetPositionArmCommand(arm_min)).schedule();
+  /* True once both axes have been homed since power-on, so the limiters and preset positions mean something */
+  public boolean isHomed() {
+    return climbHomed && armHomed;
   }
 
   // Wheel Motor Methods ------------------------------------------------------------------------------
 
-  /* Sets speed of the elevator Wheel motor */
+  /* Sets speed of the elevator Wheel motor, positive intakes */
   public void setSpeedWheel(double speed) {
-    // Spark Max set() method
-    m_elevator_wheel.set(speed);
+    wheelOutput = speed;
+    io.setWheelDutyCycle(speed * outputScale);
   }
 
   /* Gets position of the elevator Wheel motor */
   public double getPositionWheel() {
-    // Spark Max getEncoder().getPosition() method
-    return m_elevator_wheel.getEncoder().getPosition();
+    // Sampled at the start of this loop
+    return inputs.wheelPosition;
   }
 
   /* Sets speed of wheel motor to 0 */
@@ -190,13 +246,67 @@ public class CoralElevatorSubsystem extends SubsystemBase {
     setSpeedWheel(0);
   }
 
+  /* What the game piece detector thinks is in the end effector, as of the start of this loop */
+  public GamePieceDetector.State getGamePieceState() {
+    return gamePiece.getState();
+  }
+
+  /* True while a coral is seated in the end effector */
+  public Trigger hasCoral() {
+    return hasCoral;
+  }
+
+  /* True while the wheel is jammed, until clearWheelJam() */
+  public Trigger wheelJammed() {
+    return wheelJammed;
+  }
+
+  /* Call once a jam has been backed out of the wheel */
+  public void clearWheelJam() {
+    gamePiece.clearJam();
+  }
+
   @Override
   public void periodic() {
-    gravityControl = Math.sin((getPositionArm() / 70 * 2 * Math.PI) + Math.PI/2)*Constants.ARM_GRAVITY_CONST;
+    periodicProfile.start();
+    io.updateInputs(inputs);
+    inputs.log();
+    gamePiece.update(wheelOutput, inputs.wheelCurrent, inputs.wheelVelocity, inputs.wheelPosition, TimedRobot.kDefaultPeriod);
+    gravityControl = Math.sin((getPositionArm() / Constants.ARM_GEAR_RATIO * 2 * Math.PI) + Math.PI/2)*Constants.ARM_GRAVITY_CONST;
 
     // Publish encoder values to SmartDashboard
-    SmartDashboard.putNumber("Elevator Climb 1 Position", getPositionClimbOne());
-    SmartDashboard.putNumber("Elevator Arm Position", getPositionArm());
-    SmartDashboard.putNumber("Elevator Wheel Position", getPositionWheel());
+    climbPositionSignal.set(getPositionClimbOne());
+    armPositionSignal.set(getPositionArm());
+    wheelPositionSignal.set(getPositionWheel());
+    homedSignal.set(isHomed());
+    gamePieceSignal.set(gamePiece.getState().ordinal());
+
+    // The arm ligament's angle is relative to the elevator, which points straight up
+    elevatorLigament.setLength(ELEVATOR_BASE_HEIGHT + getPositionClimbOne() * METERS_PER_CLIMB_ROTATION);
+    armLigament.setAngle(getPositionArm() / Constants.ARM_GEAR_RATIO * 360 - 90);
+    periodicProfile.stop();
+  }
+
+  /* Limits open-loop output to a fraction of full power (from PowerSubsystem's power budget).
+   * MAXMotion moves are limited by ELEVATOR_CURRENT_LIMIT instead. */
+  public void setOutputScale(double scale) {
+    outputScale = scale;
+  }
+
+  /* The readings sampled at the start of this loop */
+  public ElevatorInputs getInputs() {
+    return inputs;
+  }
+
+  // Simulation ---------------------------------------------------------------------------------------
+
+  @Override
+  public void simulationPeriodic() {
+    io.updateSimulation(TimedRobot.kDefaultPeriod);
+  }
+
+  /* Current the simulated climb and arm drew this loop, for the simulated battery */
+  public double getSimulatedCurrentDraw() {
+    return io.getSimulatedCurrentDraw();
   }
-}
\ No newline at end of file
+}
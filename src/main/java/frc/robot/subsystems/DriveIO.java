@@ -0,0 +1,60 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+/** Drivetrain IO **************************************************************
+ * Everything DriveSubsystem needs from the drivetrain hardware. DriveIOSparkMax
+ * talks to the real Spark MAXes and NavX, DriveIOSim adds a physics model on top
+ * of it for desktop simulation, and DriveIOReplay plays back the inputs a real
+ * robot logged (see ReplaySource). DriveSubsystem never touches hardware itself,
+ * so the same control code runs in all three.
+ *
+ * Wheels are numbered LEFT_FRONT, RIGHT_FRONT, LEFT_BACK, RIGHT_BACK. Readings
+ * and outputs are in each motor's own direction, after the Spark MAX's inversion
+ * (REVERSE_*_MOTOR), which is the direction MecanumDrive's outputs assume. Open
+ * loop and closed loop both use them as they are. */
+public interface DriveIO {
+	int LEFT_FRONT = 0;
+	int RIGHT_FRONT = 1;
+	int LEFT_BACK = 2;
+	int RIGHT_BACK = 3;
+
+	/** Samples every sensor into inputs: wheel positions and speeds after the gear ratio, the raw
+	 * (never zeroed) gyro angle, pitch, roll and turn rate, and the time of the sample. Yaw is left to DriveSubsystem. */
+	void updateInputs(DriveInputs inputs);
+
+	/** Samples what odometry needs into sample: raw motor rotations for each wheel, then the raw gyro
+	 * angle in degrees. Called from the odometry thread, so it must not touch anything updateInputs() writes. */
+	void readOdometry(double[] sample);
+
+	/** Open-loop output, -1 to 1 */
+	void setDutyCycle(int wheel, double dutyCycle);
+
+	/** Output in volts, compensated for the battery voltage */
+	void setVoltage(int wheel, double volts);
+
+	/** True when the inputs come from a log. There are no new readings between loops, so DriveSubsystem
+	 * updates odometry once per loop from the logged inputs instead of on the odometry thread. */
+	default boolean isReplay() {
+		return false;
+	}
+
+	/** Advance the simulated hardware by dt seconds */
+	default void updateSimulation(double dt) {}
+
+	/** Amps the simulated drive motors drew in the last update */
+	default double getSimulatedCurrentDraw() {
+		return 0;
+	}
+
+	/** Where the simulated robot actually is, as opposed to where odometry thinks it is */
+	default Pose2d getSimulatedPose() {
+		return Pose2d.kZero;
+	}
+
+	/** Puts the simulated robot somewhere on the field, at rest */
+	default void resetSimulatedPose(Pose2d pose) {}
+}
@@ -0,0 +1,75 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import frc.robot.Constants;
+import frc.robot.util.ReplaySource;
+import frc.robot.util.ReplaySource.Channel;
+
+import edu.wpi.first.wpilibj.Timer;
+
+/** Drivetrain IO (Replay) ****************************************************
+ * Plays back the drivetrain inputs a real robot logged (see DriveInputs.log()).
+ * Outputs go nowhere: the replayed robot's wheels are wherever the real robot's
+ * were, whatever the replayed code asks for. */
+public class DriveIOReplay implements DriveIO {
+	private final Channel leftFrontPosition, rightFrontPosition, leftBackPosition, rightBackPosition;
+	private final Channel leftFrontSpeed, rightFrontSpeed, leftBackSpeed, rightBackSpeed;
+	private final Channel gyroAngle, pitch, roll, gyroRate;
+	private final double[] odometrySample = new double[5]; // This loop's readings, in readOdometry() form
+
+	public DriveIOReplay(ReplaySource replay) {
+		leftFrontPosition = replay.channel(DriveInputs.LOG_PREFIX + "Left Front Position");
+		rightFrontPosition = replay.channel(DriveInputs.LOG_PREFIX + "Right Front Position");
+		leftBackPosition = replay.channel(DriveInputs.LOG_PREFIX + "Left Back Position");
+		rightBackPosition = replay.channel(DriveInputs.LOG_PREFIX + "Right Back Position");
+		leftFrontSpeed = replay.channel(DriveInputs.LOG_PREFIX + "Left Front Speed");
+		rightFrontSpeed = replay.channel(DriveInputs.LOG_PREFIX + "Right Front Speed");
+		leftBackSpeed = replay.channel(DriveInputs.LOG_PREFIX + "Left Back Speed");
+		rightBackSpeed = replay.channel(DriveInputs.LOG_PREFIX + "Right Back Speed");
+		gyroAngle = replay.channel(DriveInputs.LOG_PREFIX + "Gyro Angle");
+		pitch = replay.channel(DriveInputs.LOG_PREFIX + "Pitch");
+		roll = replay.channel(DriveInputs.LOG_PREFIX + "Roll");
+		gyroRate = replay.channel(DriveInputs.LOG_PREFIX + "Gyro Rate");
+	}
+
+	@Override
+	public void updateInputs(DriveInputs inputs) {
+		inputs.leftFrontPosition = leftFrontPosition.get();
+		inputs.rightFrontPosition = rightFrontPosition.get();
+		inputs.leftBackPosition = leftBackPosition.get();
+		inputs.rightBackPosition = rightBackPosition.get();
+		inputs.leftFrontSpeed = leftFrontSpeed.get();
+		inputs.rightFrontSpeed = rightFrontSpeed.get();
+		inputs.leftBackSpeed = leftBackSpeed.get();
+		inputs.rightBackSpeed = rightBackSpeed.get();
+		inputs.gyroAngle = gyroAngle.get();
+		inputs.pitch = pitch.get();
+		inputs.roll = roll.get();
+		inputs.gyroRate = gyroRate.get();
+		inputs.timestamp = Timer.getFPGATimestamp(); // The replay's own clock, which commands and the pose estimator also run on
+
+		odometrySample[LEFT_FRONT] = inputs.leftFrontPosition * Constants.DRIVE_GEAR_RATIO;
+		odometrySample[RIGHT_FRONT] = inputs.rightFrontPosition * Constants.DRIVE_GEAR_RATIO;
+		odometrySample[LEFT_BACK] = inputs.leftBackPosition * Constants.DRIVE_GEAR_RATIO;
+		odometrySample[RIGHT_BACK] = inputs.rightBackPosition * Constants.DRIVE_GEAR_RATIO;
+		odometrySample[4] = inputs.gyroAngle;
+	}
+
+	@Override
+	public void readOdometry(double[] sample) {
+		System.arraycopy(odometrySample, 0, sample, 0, odometrySample.length);
+	}
+
+	@Override
+	public void setDutyCycle(int wheel, double dutyCycle) {}
+
+	@Override
+	public void setVoltage(int wheel, double volts) {}
+
+	@Override
+	public boolean isReplay() {
+		return true;
+	}
+}
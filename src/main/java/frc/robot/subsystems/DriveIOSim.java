@@ -0,0 +1,135 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import frc.robot.Constants;
+
+import java.util.Arrays;
+
+import com.revrobotics.sim.SparkMaxSim;
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.simulation.RoboRioSim;
+
+/** Drivetrain IO (Simulation) ************************************************
+ * Physics model of the drivetrain for desktop simulation, wrapped around the
+ * same Spark MAX IO the robot uses. Each wheel is driven by the voltage its
+ * Spark MAX applies, through the same kS/kV/kA characterization DriveSubsystem
+ * uses for its feedforward:
+ *     acceleration = (volts - kS * sign(velocity) - kV * velocity) / kA
+ * The wheel speeds are fed back to the Spark MAX sims as encoder readings, and
+ * mecanum forward kinematics turns them into chassis motion, which moves the
+ * simulated robot and the simulated NavX heading.
+ *
+ * Signs follow the hardware: each wheel turns the way its Spark MAX's applied
+ * output (after the Spark MAX's own inversion) says, the same direction the
+ * open-loop MecanumDrive outputs, and the NavX reads clockwise-positive. */
+public class DriveIOSim extends DriveIOSparkMax {
+	private static final DCMotor kDriveMotor = DCMotor.getNEO(1);
+	private static final SimpleMotorFeedforward kFeedforward = DriveSubsystem.kFeedforward;
+	private static final double TRACK_WIDTH = Constants.TRACK_WIDTH;
+	private static final double WHEEL_BASE = Constants.WHEEL_BASE;
+
+	private final SparkMaxSim m_leftFrontSim, m_rightFrontSim, m_leftBackSim, m_rightBackSim;
+	private final double[] simWheelSpeeds = new double[4]; // Meters/second of each wheel in its motor's direction (LF, RF, LB, RB)
+	private double simX, simY, simHeading; // Where the simulated robot really is (meters, meters, radians)
+	private volatile double simGyroAngle, simGyroRate; // What the simulated NavX reads (degrees, degrees/second, clockwise-positive)
+	private double simCurrentDraw; // Amps drawn by all four drive motors
+
+	public DriveIOSim() {
+		this(Constants.LEFT_FRONT_DRIVE_MOTOR_ID, Constants.RIGHT_FRONT_DRIVE_MOTOR_ID, Constants.LEFT_REAR_DRIVE_MOTOR_ID, Constants.RIGHT_REAR_DRIVE_MOTOR_ID);
+	}
+
+	/** A simulated drivetrain at other CAN IDs, beside the robot's in tests */
+	DriveIOSim(int leftFrontId, int rightFrontId, int leftBackId, int rightBackId) {
+		super(leftFrontId, rightFrontId, leftBackId, rightBackId);
+		m_leftFrontSim = new SparkMaxSim(m_leftFrontMotor, kDriveMotor);
+		m_rightFrontSim = new SparkMaxSim(m_rightFrontMotor, kDriveMotor);
+		m_leftBackSim = new SparkMaxSim(m_leftBackMotor, kDriveMotor);
+		m_rightBackSim = new SparkMaxSim(m_rightBackMotor, kDriveMotor);
+	}
+
+	@Override
+	public void updateSimulation(double dt) {
+		double busVoltage = RoboRioSim.getVInVoltage();
+		simCurrentDraw = 0;
+		double leftFront = stepWheel(m_leftFrontSim, LEFT_FRONT, busVoltage, dt);
+		double rightFront = stepWheel(m_rightFrontSim, RIGHT_FRONT, busVoltage, dt);
+		double leftBack = stepWheel(m_leftBackSim, LEFT_BACK, busVoltage, dt);
+		double rightBack = stepWheel(m_rightBackSim, RIGHT_BACK, busVoltage, dt);
+
+		// Mecanum forward kinematics (see MecanumOdometry), robot-relative and counterclockwise-positive
+		double vx = (leftFront + rightFront + leftBack + rightBack) / 4;
+		double vy = (-leftFront + rightFront + leftBack - rightBack) / 4;
+		double omega = (-leftFront + rightFront - leftBack + rightBack) / (4 * (WHEEL_BASE / 2 + TRACK_WIDTH / 2));
+
+		double cos = Math.cos(simHeading);
+		double sin = Math.sin(simHeading);
+		simX += (vx * cos - vy * sin) * dt;
+		simY += (vx * sin + vy * cos) * dt;
+		simHeading += omega * dt;
+		simGyroAngle = -Math.toDegrees(simHeading); // The NavX reads clockwise-positive
+		simGyroRate = -Math.toDegrees(omega);
+	}
+
+	@Override
+	public double getSimulatedCurrentDraw() {
+		return simCurrentDraw;
+	}
+
+	@Override
+	public Pose2d getSimulatedPose() {
+		return new Pose2d(simX, simY, new Rotation2d(simHeading));
+	}
+
+	@Override
+	public void resetSimulatedPose(Pose2d pose) {
+		simX = pose.getX();
+		simY = pose.getY();
+		simHeading = pose.getRotation().getRadians();
+		simGyroAngle = -Math.toDegrees(simHeading);
+		simGyroRate = 0;
+		Arrays.fill(simWheelSpeeds, 0);
+	}
+
+	@Override
+	protected double readGyroAngle() {
+		return simGyroAngle;
+	}
+	@Override
+	protected double readGyroRate() {
+		return simGyroRate;
+	}
+
+	// Advance one wheel by dt and report its new speed (meters/second, motor direction) to the Spark MAX sim
+	private double stepWheel(SparkMaxSim sim, int wheel, double busVoltage, double dt) {
+		double volts = sim.getAppliedOutput() * busVoltage;
+		double speed = simWheelSpeeds[wheel];
+		double kS = kFeedforward.getKs();
+
+		if (speed == 0 && Math.abs(volts) <= kS) {
+			// Not enough voltage to overcome static friction
+		} else {
+			double frictionDirection = (speed != 0) ? Math.signum(speed) : Math.signum(volts);
+			double acceleration = (volts - kS * frictionDirection - kFeedforward.getKv() * speed) / kFeedforward.getKa();
+			double newSpeed = speed + acceleration * dt;
+			if (speed != 0 && Math.signum(newSpeed) != Math.signum(speed) && Math.abs(volts) <= kS) {
+				newSpeed = 0; // Friction stops the wheel, it doesn't push it backwards
+			}
+			speed = newSpeed;
+		}
+		simWheelSpeeds[wheel] = speed;
+
+		double motorRPM = speed / (Math.PI * Constants.WHEEL_DIAMETER) * 60 * Constants.DRIVE_GEAR_RATIO;
+		sim.iterate(motorRPM, busVoltage, dt);
+		// The Spark MAX's smart current limit keeps the draw from going past DRIVE_CURRENT_LIMIT
+		double current = Math.min(Constants.DRIVE_CURRENT_LIMIT, Math.abs(kDriveMotor.getCurrent(Units.rotationsPerMinuteToRadiansPerSecond(motorRPM), volts)));
+		sim.setMotorCurrent(current);
+		simCurrentDraw += current;
+		return speed;
+	}
+}
@@ -0,0 +1,138 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import frc.robot.Constants;
+
+import com.studica.frc.AHRS;
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.spark.SparkMax;
+import com.revrobotics.spark.config.SparkBaseConfig.IdleMode;
+import com.revrobotics.spark.config.SparkMaxConfig;
+import com.revrobotics.spark.SparkBase.PersistMode;
+import com.revrobotics.spark.SparkBase.ResetMode;
+import com.revrobotics.spark.SparkLowLevel.MotorType;
+import edu.wpi.first.wpilibj.Timer;
+
+/** Drivetrain IO (Spark MAX) *************************************************
+ * The real drivetrain: four NEOs on Spark MAXes and a NavX on the MXP port. */
+public class DriveIOSparkMax implements DriveIO {
+
+	// Drivetrain Motor Controllers
+	protected final SparkMax m_leftFrontMotor; // NEO motor
+	protected final SparkMax m_rightFrontMotor; // NEO motor
+	protected final SparkMax m_leftBackMotor; // NEO motor
+	protected final SparkMax m_rightBackMotor; // NEO motor
+
+	// Encoder handles, looked up once so the reads don't go through getEncoder() every call
+	private final RelativeEncoder m_leftFrontEncoder;
+	private final RelativeEncoder m_rightFrontEncoder;
+	private final RelativeEncoder m_leftBackEncoder;
+	private final RelativeEncoder m_rightBackEncoder;
+
+	private final AHRS navx = new AHRS(AHRS.NavXComType.kMXP_SPI, AHRS.NavXUpdateRate.k200Hz); // Instantiate a NavX Gyroscope connected to the roboRIO MXP port
+
+	private static final double DRIVE_GEAR_RATIO = Constants.DRIVE_GEAR_RATIO;
+
+	public DriveIOSparkMax() {
+		this(Constants.LEFT_FRONT_DRIVE_MOTOR_ID, Constants.RIGHT_FRONT_DRIVE_MOTOR_ID, Constants.LEFT_REAR_DRIVE_MOTOR_ID, Constants.RIGHT_REAR_DRIVE_MOTOR_ID);
+	}
+
+	/** Spark MAXes at other CAN IDs, for a second drivetrain beside the robot's in tests */
+	DriveIOSparkMax(int leftFrontId, int rightFrontId, int leftBackId, int rightBackId) {
+		// Instantiate the Drivetrain motor controllers
+		m_leftFrontMotor = new SparkMax(leftFrontId, MotorType.kBrushless);
+		m_rightFrontMotor = new SparkMax(rightFrontId, MotorType.kBrushless);
+		m_leftBackMotor = new SparkMax(leftBackId, MotorType.kBrushless);
+		m_rightBackMotor = new SparkMax(rightBackId, MotorType.kBrushless);
+		m_leftFrontEncoder = openEncoder(m_leftFrontMotor);
+		m_rightFrontEncoder = openEncoder(m_rightFrontMotor);
+		m_leftBackEncoder = openEncoder(m_leftBackMotor);
+		m_rightBackEncoder = openEncoder(m_rightBackMotor);
+
+		// Configure the Spark MAX motor controllers using the new 2025 method
+		configureSparkMAX(m_leftFrontMotor, Constants.REVERSE_LEFT_FRONT_MOTOR);
+		configureSparkMAX(m_leftBackMotor, Constants.REVERSE_LEFT_BACK_MOTOR);
+		configureSparkMAX(m_rightBackMotor, Constants.REVERSE_RIGHT_FRONT_MOTOR);
+		configureSparkMAX(m_rightFrontMotor, Constants.REVERSE_RIGHT_BACK_MOTOR);
+
+		System.out.println("NavX Connected: " + navx.isConnected());
+	}
+
+	private void configureSparkMAX(SparkMax max, boolean reverse) {
+		SparkMaxConfig config = new SparkMaxConfig();
+		config.inverted(reverse).idleMode(IdleMode.kBrake).smartCurrentLimit(Constants.DRIVE_CURRENT_LIMIT);
+		// Send encoder position as often as the odometry thread samples it (the default is every 20 ms)
+		config.signals.primaryEncoderPositionPeriodMs((int) (1000 / Constants.ODOMETRY_FREQUENCY));
+		// The default velocity filter (32 ms window, 8 sample average) lags by about 100 ms, which is too slow for the wheel velocity PID
+		config.encoder.uvwMeasurementPeriod(16).uvwAverageDepth(2);
+		max.configure(config, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters);
+	}
+
+	@Override
+	public void updateInputs(DriveInputs inputs) {
+		inputs.leftFrontPosition = m_leftFrontEncoder.getPosition() / DRIVE_GEAR_RATIO; // DRIVE_GEAR_RATIO : 1 is our drivetrain gear ratio
+		inputs.rightFrontPosition = m_rightFrontEncoder.getPosition() / DRIVE_GEAR_RATIO;
+		inputs.leftBackPosition = m_leftBackEncoder.getPosition() / DRIVE_GEAR_RATIO;
+		inputs.rightBackPosition = m_rightBackEncoder.getPosition() / DRIVE_GEAR_RATIO;
+		inputs.leftFrontSpeed = m_leftFrontEncoder.getVelocity() / DRIVE_GEAR_RATIO;
+		inputs.rightFrontSpeed = m_rightFrontEncoder.getVelocity() / DRIVE_GEAR_RATIO;
+		inputs.leftBackSpeed = m_leftBackEncoder.getVelocity() / DRIVE_GEAR_RATIO;
+		inputs.rightBackSpeed = m_rightBackEncoder.getVelocity() / DRIVE_GEAR_RATIO;
+		inputs.gyroAngle = readGyroAngle();
+		inputs.pitch = readPitch();
+		inputs.roll = readRoll();
+		inputs.gyroRate = readGyroRate();
+		inputs.timestamp = Timer.getFPGATimestamp();
+	}
+
+	@Override
+	public void readOdometry(double[] sample) {
+		sample[LEFT_FRONT] = m_leftFrontEncoder.getPosition();
+		sample[RIGHT_FRONT] = m_rightFrontEncoder.getPosition();
+		sample[LEFT_BACK] = m_leftBackEncoder.getPosition();
+		sample[RIGHT_BACK] = m_rightBackEncoder.getPosition();
+		sample[4] = readGyroAngle();
+	}
+
+	@Override
+	public void setDutyCycle(int wheel, double dutyCycle) {
+		motor(wheel).set(dutyCycle);
+	}
+
+	@Override
+	public void setVoltage(int wheel, double volts) {
+		motor(wheel).setVoltage(volts);
+	}
+
+	// The encoder handle every read of a motor goes through. Called from the constructor, before subclasses are set up.
+	protected RelativeEncoder openEncoder(SparkMax motor) {
+		return motor.getEncoder();
+	}
+
+	// NavX angle in degrees
+	protected double readGyroAngle() {
+		return navx.getAngle();
+	}
+	// NavX turn rate in degrees/second
+	protected double readGyroRate() {
+		return navx.getRate();
+	}
+	// NavX pitch and roll in degrees
+	protected double readPitch() {
+		return navx.getPitch();
+	}
+	protected double readRoll() {
+		return navx.getRoll();
+	}
+
+	private SparkMax motor(int wheel) {
+		return switch (wheel) {
+			case LEFT_FRONT -> m_leftFrontMotor;
+			case RIGHT_FRONT -> m_rightFrontMotor;
+			case LEFT_BACK -> m_leftBackMotor;
+			default -> m_rightBackMotor;
+		};
+	}
+}
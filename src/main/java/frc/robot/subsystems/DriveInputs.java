@@ -0,0 +1,76 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.NumberSignal;
+
+/** Drivetrain Inputs **********************************************************
+ * One cycle's worth of drivetrain sensor readings. DriveSubsystem has its DriveIO
+ * sample every encoder and the NavX exactly once at the start of periodic() and
+ * stores the results here, so odometry, commands and telemetry all see the same
+ * CAN frame for the whole loop. Only DriveSubsystem and the DriveIO layers write
+ * these fields; everyone else gets the read-only getters.
+ *
+ * The raw readings are logged every loop under "Drive/Inputs/", which is what
+ * DriveIOReplay plays back. */
+public final class DriveInputs {
+	// Wheel positions in revolutions (after the gear ratio, before zeroing)
+	double leftFrontPosition, rightFrontPosition, leftBackPosition, rightBackPosition;
+	// Wheel speeds in RPM (after the gear ratio)
+	double leftFrontSpeed, rightFrontSpeed, leftBackSpeed, rightBackSpeed;
+	// NavX readings in degrees and degrees/second
+	double gyroAngle, yaw, pitch, roll, gyroRate;
+	// FPGA time the sample was taken, in seconds
+	double timestamp;
+
+	static final String LOG_PREFIX = "Drive/Inputs/";
+	private final NumberSignal timestampLog = Telemetry.log(LOG_PREFIX + "Timestamp"); // Changes every loop, ReplaySource starts a new loop on it
+	private final NumberSignal leftFrontPositionLog = Telemetry.log(LOG_PREFIX + "Left Front Position");
+	private final NumberSignal rightFrontPositionLog = Telemetry.log(LOG_PREFIX + "Right Front Position");
+	private final NumberSignal leftBackPositionLog = Telemetry.log(LOG_PREFIX + "Left Back Position");
+	private final NumberSignal rightBackPositionLog = Telemetry.log(LOG_PREFIX + "Right Back Position");
+	private final NumberSignal leftFrontSpeedLog = Telemetry.log(LOG_PREFIX + "Left Front Speed");
+	private final NumberSignal rightFrontSpeedLog = Telemetry.log(LOG_PREFIX + "Right Front Speed");
+	private final NumberSignal leftBackSpeedLog = Telemetry.log(LOG_PREFIX + "Left Back Speed");
+	private final NumberSignal rightBackSpeedLog = Telemetry.log(LOG_PREFIX + "Right Back Speed");
+	private final NumberSignal gyroAngleLog = Telemetry.log(LOG_PREFIX + "Gyro Angle");
+	private final NumberSignal pitchLog = Telemetry.log(LOG_PREFIX + "Pitch");
+	private final NumberSignal rollLog = Telemetry.log(LOG_PREFIX + "Roll");
+	private final NumberSignal gyroRateLog = Telemetry.log(LOG_PREFIX + "Gyro Rate");
+
+	DriveInputs() {}
+
+	/** Records the readings exactly as the IO layer reported them, before DriveSubsystem zeroes the gyro */
+	void log() {
+		timestampLog.set(timestamp); // First, so everything logged after it belongs to this loop
+		leftFrontPositionLog.set(leftFrontPosition);
+		rightFrontPositionLog.set(rightFrontPosition);
+		leftBackPositionLog.set(leftBackPosition);
+		rightBackPositionLog.set(rightBackPosition);
+		leftFrontSpeedLog.set(leftFrontSpeed);
+		rightFrontSpeedLog.set(rightFrontSpeed);
+		leftBackSpeedLog.set(leftBackSpeed);
+		rightBackSpeedLog.set(rightBackSpeed);
+		gyroAngleLog.set(gyroAngle);
+		pitchLog.set(pitch);
+		rollLog.set(roll);
+		gyroRateLog.set(gyroRate);
+	}
+
+	public double getLeftFrontPosition() { return leftFrontPosition; }
+	public double getRightFrontPosition() { return rightFrontPosition; }
+	public double getLeftBackPosition() { return leftBackPosition; }
+	public double getRightBackPosition() { return rightBackPosition; }
+	public double getLeftFrontSpeed() { return leftFrontSpeed; }
+	public double getRightFrontSpeed() { return rightFrontSpeed; }
+	public double getLeftBackSpeed() { return leftBackSpeed; }
+	public double getRightBackSpeed() { return rightBackSpeed; }
+	public double getGyroAngle() { return gyroAngle; }
+	public double getYaw() { return yaw; }
+	public double getPitch() { return pitch; }
+	public double getRoll() { return roll; }
+	public double getGyroRate() { return gyroRate; }
+	public double getTimestamp() { return timestamp; }
+}
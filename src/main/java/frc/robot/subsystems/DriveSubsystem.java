@@ -1,55 +1,68 @@
 // Author: UMN Robotics Ri3D
-// Last Updated: January 2025
+// Last Updated: October 2026
 
 package frc.robot.subsystems;
 
 import frc.robot.Constants;
-
-import com.studica.frc.AHRS;
-import com.revrobotics.spark.SparkMax;
-import com.revrobotics.spark.config.SparkBaseConfig.IdleMode;
-import com.revrobotics.spark.config.SparkMaxConfig;
-import com.revrobotics.spark.SparkBase.PersistMode;
-import com.revrobotics.spark.SparkBase.ResetMode;
-import com.revrobotics.spark.SparkLowLevel.MotorType;
-import edu.wpi.first.math.filter.SlewRateLimiter;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.MecanumOdometry;
+import frc.robot.util.PoseHistory;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.NumberSignal;
+import frc.robot.util.Telemetry.StructSignal;
+
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.pathplanner.lib.auto.AutoBuilder;
+import com.pathplanner.lib.config.ModuleConfig;
+import com.pathplanner.lib.config.PIDConstants;
+import com.pathplanner.lib.config.RobotConfig;
+import com.pathplanner.lib.controllers.PPHolonomicDriveController;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.drive.MecanumDrive;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.math.system.plant.DCMotor;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.MecanumDriveKinematics;
-import edu.wpi.first.math.kinematics.MecanumDriveOdometry;
 import edu.wpi.first.math.kinematics.MecanumDriveWheelPositions;
 import edu.wpi.first.math.kinematics.MecanumDriveWheelSpeeds;
 import edu.wpi.first.math.trajectory.TrapezoidProfile;
 
 /** Drivetrain ****************************************************************
- * The mecanum drivetrain subsystem of the robot. */
+ * The mecanum drivetrain subsystem of the robot. The motors and NavX are behind
+ * a DriveIO (real, simulated or replayed from a log), see DriveIO. */
 public class DriveSubsystem extends SubsystemBase {
   
-	// Drivetrain Motor Controllers
-	private static SparkMax m_leftFrontMotor; // NEO motor
-	private static SparkMax m_rightFrontMotor; // NEO motor
-	private static SparkMax m_leftBackMotor; // NEO motor
-	private static SparkMax m_rightBackMotor; // NEO motor
+	// Drivetrain hardware
+	private final DriveIO io;
 
-	SlewRateLimiter rightFilter;
-	SlewRateLimiter leftFilter;
+	// Sensor readings for the current cycle, refreshed once at the start of periodic()
+	private final DriveInputs inputs = new DriveInputs();
 
 	private double DRIVE_GEAR_RATIO = Constants.DRIVE_GEAR_RATIO;
 
-	private AHRS navx = new AHRS(AHRS.NavXComType.kMXP_SPI); // Instantiate a NavX Gyroscope connected to a roboRIO USB port
-
 	double leftFrontPositionZero, rightFrontPositionZero, leftBackPositionZero, rightBackPositionZero = 0.0;
+	private double gyroZero = 0.0; // Raw NavX angle that zeroGyro() treats as 0 degrees
 
 	private static final double TRACK_WIDTH = Constants.TRACK_WIDTH;
 	private static final double WHEEL_BASE = Constants.WHEEL_BASE;
 
-	private static final SimpleMotorFeedforward kFeedforward = new SimpleMotorFeedforward(0.17472, 2.7572, 0.45109); // kS, kV, kA Characterization Constants
+	static final SimpleMotorFeedforward kFeedforward = new SimpleMotorFeedforward(0.17472, 2.7572, 0.45109); // kS, kV, kA Characterization Constants
 	private static final TrapezoidProfile.Constraints kThetaControllerConstraints = new TrapezoidProfile.Constraints(Constants.kMAX_ANGULAR_SPEED_RADIANS_PER_SECOND, Constants.kMAX_ANGULAR_ACCELERATION_RADIANS_PER_SECOND_SQUARED);
 	private final PIDController frontLeftPIDController = new PIDController(Constants.kP_FRONT_LEFT_VELOCITY, 0, 0);
   	private final PIDController frontRightPIDController = new PIDController(Constants.kP_FRONT_RIGHT_VELOCITY, 0, 0);
@@ -62,75 +75,184 @@ public class DriveSubsystem extends SubsystemBase {
 								   new Translation2d(-WHEEL_BASE / 2, TRACK_WIDTH / 2), 
 								   new Translation2d(-WHEEL_BASE / 2, -TRACK_WIDTH / 2));
 
-	private static MecanumDrive robotDrive;
-	private static MecanumDriveOdometry odometry;
+	private final MecanumDrive robotDrive;
+	// Spinning in place with every wheel at full speed, the same as a full zRotation input to driveCartesian
+	public static final double kMaxAngularSpeed = Constants.MAX_DRIVE_SPEED / (WHEEL_BASE / 2 + TRACK_WIDTH / 2);
+	private double outputScale = 1; // Power budget, see PowerSubsystem
+	private final LoopProfiler.Section periodicProfile = LoopProfiler.section("Drive");
+	private final NumberSignal trackingErrorSignal = Telemetry.number("Drive Tracking Error", 0.01, Constants.TELEMETRY_FAST_PERIOD);
+
+	private RobotConfig robotConfig; // PathPlanner's model of the robot
+	private final MecanumOdometry odometry;
+
+	// High-rate odometry: a Notifier thread integrates the pose from raw (never re-zeroed) encoder
+	// and gyro readings, so zeroGyro() and resetEncoders() don't disturb it. The main loop reads the
+	// latest pose with an optimistic read, which never waits on the odometry thread.
+	private final StampedLock odometryLock = new StampedLock();
+	private final PoseHistory poseHistory = new PoseHistory(Constants.POSE_HISTORY_SIZE);
+	private final Notifier odometryNotifier = new Notifier(this::updateOdometry);
+	private final double[] odometrySample = new double[5]; // Only used by whichever thread runs updateOdometry()
+
+	// Dashboard signals
+	// Log-only signals: the raw odometry inputs and outputs, enough for LogReplay to re-run odometry after a match
+	private final NumberSignal odometryGyroLog = Telemetry.log("Drive/Odometry Gyro");
+	private final StructSignal<MecanumDriveWheelPositions> odometryWheelPositionsLog = Telemetry.struct("Drive/Odometry Wheel Positions", MecanumDriveWheelPositions.struct);
+	private final StructSignal<MecanumDriveWheelSpeeds> wheelSpeedsLog = Telemetry.struct("Drive/Wheel Speeds", MecanumDriveWheelSpeeds.struct);
+	private final StructSignal<Pose2d> poseLog = Telemetry.struct("Drive/Pose", Pose2d.struct);
+	private final StructSignal<Pose2d> odometryResetLog = Telemetry.struct("Drive/Odometry Reset", Pose2d.struct);
+	private final NumberSignal gyroRateLog = Telemetry.log("Drive/Gyro Rate");
+	private final MecanumDriveWheelPositions loggedWheelPositions = new MecanumDriveWheelPositions(); // Reused every loop
+	private final MecanumDriveWheelSpeeds loggedWheelSpeeds = new MecanumDriveWheelSpeeds();
+	private final MecanumDriveWheelSpeeds wheelSpeedSetpoint = new MecanumDriveWheelSpeeds(); // Reused by driveRobotRelative() every loop
+
+	private final NumberSignal leftFrontPositionSignal = Telemetry.number("Left Front Position", Constants.TELEMETRY_POSITION_DEADBAND, Constants.TELEMETRY_FAST_PERIOD);
+	private final NumberSignal rightFrontPositionSignal = Telemetry.number("Right Front Position", Constants.TELEMETRY_POSITION_DEADBAND, Constants.TELEMETRY_FAST_PERIOD);
+	private final NumberSignal leftBackPositionSignal = Telemetry.number("Left Back Position", Constants.TELEMETRY_POSITION_DEADBAND, Constants.TELEMETRY_FAST_PERIOD);
+	private final NumberSignal rightBackPositionSignal = Telemetry.number("Right Back Position", Constants.TELEMETRY_POSITION_DEADBAND, Constants.TELEMETRY_FAST_PERIOD);
   
   /** Subsystem for controlling the Drivetrain and accessing the NavX Gyroscope */
-  public DriveSubsystem() {
-    // Instantiate the Drivetrain motor controllers
-    m_leftFrontMotor = new SparkMax(Constants.LEFT_FRONT_DRIVE_MOTOR_ID, MotorType.kBrushless);
-    m_rightFrontMotor = new SparkMax(Constants.RIGHT_FRONT_DRIVE_MOTOR_ID, MotorType.kBrushless);
-    m_leftBackMotor = new SparkMax(Constants.LEFT_REAR_DRIVE_MOTOR_ID, MotorType.kBrushless);
-    m_rightBackMotor = new SparkMax(Constants.RIGHT_REAR_DRIVE_MOTOR_ID, MotorType.kBrushless);
-
-	robotDrive = new MecanumDrive(m_leftFrontMotor, m_leftBackMotor, m_rightFrontMotor, m_rightBackMotor);
-	odometry = new MecanumDriveOdometry(kDriveKinematics, navx.getRotation2d(), getWheelPositions());	
-
-    // Configure the Spark MAX motor controllers using the new 2025 method
-    configureSparkMAX(m_leftFrontMotor, Constants.REVERSE_LEFT_FRONT_MOTOR);
-    configureSparkMAX(m_leftBackMotor, Constants.REVERSE_LEFT_BACK_MOTOR);
-    configureSparkMAX(m_rightBackMotor, Constants.REVERSE_RIGHT_FRONT_MOTOR);
-    configureSparkMAX(m_rightFrontMotor, Constants.REVERSE_RIGHT_BACK_MOTOR);
+  public DriveSubsystem(DriveIO io) {
+    this.io = io;
+    updateInputs(); // Take a first sample so odometry starts from real readings
+
+	robotDrive = new MecanumDrive(
+		output -> io.setDutyCycle(DriveIO.LEFT_FRONT, output),
+		output -> io.setDutyCycle(DriveIO.LEFT_BACK, output),
+		output -> io.setDutyCycle(DriveIO.RIGHT_FRONT, output),
+		output -> io.setDutyCycle(DriveIO.RIGHT_BACK, output));
+	io.readOdometry(odometrySample);
+	odometry = new MecanumOdometry(Math.toRadians(toCounterclockwise(odometrySample[4])), rawToMeters(odometrySample[DriveIO.LEFT_FRONT]), rawToMeters(odometrySample[DriveIO.RIGHT_FRONT]),
+			rawToMeters(odometrySample[DriveIO.LEFT_BACK]), rawToMeters(odometrySample[DriveIO.RIGHT_BACK]));
 
     resetEncoders(); // Zero the drive encoders
 
-    rightFilter = new SlewRateLimiter(5);
-    leftFilter = new SlewRateLimiter(5);
-
-    System.out.println("NavX Connected: " + navx.isConnected());
+    if (!io.isReplay()) { // In replay there are no readings between loops, periodic() updates odometry instead
+      odometryNotifier.setName("Odometry");
+      odometryNotifier.startPeriodic(1.0 / Constants.ODOMETRY_FREQUENCY);
+    }
   }
 
-	private void configureSparkMAX(SparkMax max, boolean reverse) {
-		SparkMaxConfig config = new SparkMaxConfig();
-		config.inverted(reverse).idleMode(IdleMode.kBrake);
-		max.configure(config, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters);
+	/** Limits drive output to a fraction of full power (from PowerSubsystem's power budget) */
+	public void setOutputScale(double scale) {
+		outputScale = scale;
+		robotDrive.setMaxOutput(scale);
 	}
 
 	public void stop() {
-		m_leftFrontMotor.set(0);
-		m_rightFrontMotor.set(0);
-		m_leftBackMotor.set(0);
-		m_rightBackMotor.set(0);
+		io.setDutyCycle(DriveIO.LEFT_FRONT, 0);
+		io.setDutyCycle(DriveIO.RIGHT_FRONT, 0);
+		io.setDutyCycle(DriveIO.LEFT_BACK, 0);
+		io.setDutyCycle(DriveIO.RIGHT_BACK, 0);
 	}
+	/** Sensor Sampling ********************************************************
+	 * Reads every drivetrain sensor exactly once, through the IO layer. Everything
+	 * else in this class (and every command using it) reads the stored values
+	 * instead of the hardware. */
+	private void updateInputs() {
+		io.updateInputs(inputs);
+		inputs.gyroAngle -= gyroZero;
+		inputs.yaw = MathUtil.inputModulus(inputs.gyroAngle, -180, 180);
+	}
+	/** The sensor readings sampled at the start of this cycle */
+	public DriveInputs getInputs() {
+		return inputs;
+	}
+
 	// NavX Gyroscope Methods //
+	// The NavX reads clockwise-positive. Every angle and rate this class hands out (and odometry) is
+	// counterclockwise-positive like the rest of WPILib, so toCounterclockwise() is the only place it's flipped.
+	public static double toCounterclockwise(double navxDegrees) {
+		return -navxDegrees;
+	}
 	public void zeroGyro() {
-		navx.reset();
+		// Zero in software rather than with navx.reset(): the reset takes effect asynchronously
+		// and would show up as a heading jump on the odometry thread
+		gyroZero += inputs.gyroAngle; // The raw angle sampled this loop
+		inputs.gyroAngle = 0;
+		inputs.yaw = 0;
 	}
 	public double getYaw() {
-		return navx.getYaw();
+		return toCounterclockwise(inputs.yaw);
 	}
 	public double getPitch() {
-		return navx.getPitch();
+		return inputs.pitch;
 	}
 	public double getRoll() {
-		return navx.getRoll();
+		return inputs.roll;
 	}
-	public double getGyroAngle() { // Returns the heading of the robot
-		return navx.getAngle();
+	public double getGyroAngle() { // Returns the heading of the robot (degrees, counterclockwise-positive)
+		return toCounterclockwise(inputs.gyroAngle);
 	}
-	public double getTurnRate() { // Returns the turn rate of the robot
-		return -navx.getRate();
+	public double getTurnRate() { // Returns the turn rate of the robot (degrees/second, counterclockwise-positive)
+		return toCounterclockwise(inputs.gyroRate);
 	}
 
 	/** Odometry Methods *******************************************************/
 	public Rotation2d getRotation2d() {
-		return Rotation2d.fromDegrees(navx.getAngle());
+		return Rotation2d.fromDegrees(getGyroAngle());
 	}
 	public void resetOdometry(Pose2d pose) {
-		odometry.resetPosition(this.getRotation2d(), getWheelPositions(), pose);
+		long stamp = odometryLock.writeLock();
+		try {
+			odometry.resetPose(pose.getX(), pose.getY(), pose.getRotation().getRadians());
+			poseHistory.clear(); // Poses from before the reset are no longer on the same field frame
+		} finally {
+			odometryLock.unlockWrite(stamp);
+		}
+		odometryResetLog.set(pose);
 	}
+	/** Latest pose from the odometry thread. Never blocks unless a reset is in progress. */
 	public Pose2d getPose() {
-		return odometry.getPoseMeters();
+		long stamp = odometryLock.tryOptimisticRead();
+		double x = odometry.getX();
+		double y = odometry.getY();
+		double heading = odometry.getHeadingRadians();
+		if (!odometryLock.validate(stamp)) { // The odometry thread wrote mid-read, so read again under the lock
+			stamp = odometryLock.readLock();
+			try {
+				x = odometry.getX();
+				y = odometry.getY();
+				heading = odometry.getHeadingRadians();
+			} finally {
+				odometryLock.unlockRead(stamp);
+			}
+		}
+		return new Pose2d(x, y, new Rotation2d(heading));
+	}
+	/** Pose at an earlier FPGA timestamp (seconds), interpolated from the odometry history, e.g. where the
+	 * robot was when a camera frame was captured. Empty if no odometry has been recorded since the last reset. */
+	public Optional<Pose2d> getPoseAt(double timestamp) {
+		long stamp = odometryLock.readLock();
+		try {
+			return poseHistory.getPoseAt(timestamp);
+		} finally {
+			odometryLock.unlockRead(stamp);
+		}
+	}
+
+	/** Odometry thread *******************************************************
+	 * Runs at ODOMETRY_FREQUENCY on the Notifier thread. Samples the encoders and
+	 * gyro outside the lock and only holds it for the integration itself. */
+	private void updateOdometry() {
+		io.readOdometry(odometrySample);
+		double leftFront = rawToMeters(odometrySample[DriveIO.LEFT_FRONT]);
+		double rightFront = rawToMeters(odometrySample[DriveIO.RIGHT_FRONT]);
+		double leftBack = rawToMeters(odometrySample[DriveIO.LEFT_BACK]);
+		double rightBack = rawToMeters(odometrySample[DriveIO.RIGHT_BACK]);
+		double gyro = Math.toRadians(toCounterclockwise(odometrySample[4]));
+		double timestamp = io.isReplay() ? inputs.timestamp : Timer.getFPGATimestamp();
+
+		long stamp = odometryLock.writeLock();
+		try {
+			odometry.update(gyro, leftFront, rightFront, leftBack, rightBack);
+			poseHistory.add(timestamp, odometry.getX(), odometry.getY(), odometry.getHeadingRadians());
+		} finally {
+			odometryLock.unlockWrite(stamp);
+		}
+	}
+	// Raw motor rotations to wheel meters
+	private double rawToMeters(double motorRotations) {
+		return positionToMeters(motorRotations / DRIVE_GEAR_RATIO);
 	}
 	public MecanumDriveKinematics getkDriveKinematics() {
 		return kDriveKinematics;	
@@ -141,13 +263,24 @@ public class DriveSubsystem extends SubsystemBase {
 
 	@Override
 	public void periodic() {
-		// Update the odometry in the periodic block
-		odometry.update(this.getRotation2d(), getWheelPositions());
-
-		SmartDashboard.putNumber("Left Front Position", getLeftFrontPosition());
-		SmartDashboard.putNumber("Right Front Position", getRightFrontPosition());
-		SmartDashboard.putNumber("Left Back Position", getLeftBackPosition());
-		SmartDashboard.putNumber("Right Back Position", getRightBackPosition());
+		periodicProfile.start();
+		updateInputs(); // Odometry is updated separately on the odometry thread
+		inputs.log();
+		if (io.isReplay()) {
+			updateOdometry();
+		}
+
+		leftFrontPositionSignal.set(getLeftFrontPosition());
+		rightFrontPositionSignal.set(getRightFrontPosition());
+		leftBackPositionSignal.set(getLeftBackPosition());
+		rightBackPositionSignal.set(getRightBackPosition());
+
+		odometryGyroLog.set(toCounterclockwise(inputs.gyroAngle + gyroZero));
+		odometryWheelPositionsLog.set(getOdometryWheelPositions(loggedWheelPositions));
+		wheelSpeedsLog.set(getWheelSpeeds(loggedWheelSpeeds));
+		gyroRateLog.set(inputs.gyroRate);
+		poseLog.set(getPose());
+		periodicProfile.stop();
 	}
 
 	//Not Field-Oriented (aka Robot-Oriented)
@@ -158,40 +291,58 @@ public class DriveSubsystem extends SubsystemBase {
 	public void driveCartesian(double ySpeed, double xSpeed, double zRotation, Rotation2d currentAngle) {
 		robotDrive.driveCartesian(ySpeed, xSpeed, zRotation, currentAngle);
 	}
+	/** Closed-loop version of driveCartesian. Takes the same -1 to 1 inputs, but treats them as a fraction of
+	 * full speed and has every wheel track its speed with feedforward + PID, so the robot accelerates and
+	 * drives the same way at any battery voltage. */
+	public void driveCartesianClosedLoop(double ySpeed, double xSpeed, double zRotation, Rotation2d currentAngle) {
+		driveFieldRelative(ySpeed * Constants.MAX_DRIVE_SPEED, xSpeed * Constants.MAX_DRIVE_SPEED, zRotation * kMaxAngularSpeed,
+			currentAngle.getCos(), currentAngle.getSin());
+	}
+	/** Same as above with the angle in degrees (e.g. getGyroAngle(), or 0 for robot-oriented), so teleop doesn't
+	 * make a new Rotation2d every loop */
+	public void driveCartesianClosedLoop(double ySpeed, double xSpeed, double zRotation, double currentAngleDegrees) {
+		double angle = Math.toRadians(currentAngleDegrees);
+		driveFieldRelative(ySpeed * Constants.MAX_DRIVE_SPEED, xSpeed * Constants.MAX_DRIVE_SPEED, zRotation * kMaxAngularSpeed,
+			Math.cos(angle), Math.sin(angle));
+	}
+	// Field-relative speeds rotated into the robot's frame, the same as ChassisSpeeds.fromFieldRelativeSpeeds()
+	private void driveFieldRelative(double vx, double vy, double omega, double cos, double sin) {
+		driveRobotRelative(vx * cos + vy * sin, -vx * sin + vy * cos, omega);
+	}
 	
 
 	/** Get the encoder positions or speeds **************************************/
 	public double getLeftFrontPosition() { // Position is returned in units of revolutions
-		return (m_leftFrontMotor.getEncoder().getPosition() / DRIVE_GEAR_RATIO - leftFrontPositionZero); // DRIVE_GEAR_RATIO : 1 is our drivetrain gear ratio
+		return (inputs.leftFrontPosition - leftFrontPositionZero);
 	}
 	public double getRightFrontPosition() { // Position is returned in units of revolutions
-		return -1 * (m_rightFrontMotor.getEncoder().getPosition() / DRIVE_GEAR_RATIO - rightFrontPositionZero); // DRIVE_GEAR_RATIO : 1 is our drivetrain gear ratio
+		return (inputs.rightFrontPosition - rightFrontPositionZero);
 	}
 	public double getLeftBackPosition() { // Position is returned in units of revolutions
-		return -1 * (m_leftBackMotor.getEncoder().getPosition() / DRIVE_GEAR_RATIO - leftBackPositionZero); // DRIVE_GEAR_RATIO : 1 is our drivetrain gear ratio
+		return (inputs.leftBackPosition - leftBackPositionZero);
 	}
 	public double getRightBackPosition() { // Position is returned in units of revolutions
-		return (m_rightBackMotor.getEncoder().getPosition() / DRIVE_GEAR_RATIO - rightBackPositionZero); // DRIVE_GEAR_RATIO : 1 is our drivetrain gear ratio
+		return (inputs.rightBackPosition - rightBackPositionZero);
 	}
 	public double getLeftFrontSpeed() { // Speed is returned in units of RPM (revolutions per minute)
-		return (m_leftFrontMotor.getEncoder().getVelocity() / DRIVE_GEAR_RATIO); // DRIVE_GEAR_RATIO : 1 is our drivetrain gear ratio
+		return inputs.leftFrontSpeed;
 	}
 	public double getRightFrontSpeed() { // Speed is returned in units of RPM (revolutions per minute)
-		return -1 * (m_rightFrontMotor.getEncoder().getVelocity() / DRIVE_GEAR_RATIO); // DRIVE_GEAR_RATIO : 1 is our drivetrain gear ratio
+		return inputs.rightFrontSpeed;
 	}
 	public double getLeftBackSpeed() { // Speed is returned in units of RPM (revolutions per minute)
-		return -1 * (m_leftBackMotor.getEncoder().getVelocity() / DRIVE_GEAR_RATIO); // DRIVE_GEAR_RATIO : 1 is our drivetrain gear ratio
+		return inputs.leftBackSpeed;
 	}
 	public double getRightBackSpeed() { // Speed is returned in units of RPM (revolutions per minute)
-		return (m_rightBackMotor.getEncoder().getVelocity() / DRIVE_GEAR_RATIO); // DRIVE_GEAR_RATIO : 1 is our drivetrain gear ratio
+		return inputs.rightBackSpeed;
 	}
 
 	// Zero the drivetrain encoders
 	public void resetEncoders() {
-		leftFrontPositionZero = m_leftFrontMotor.getEncoder().getPosition() / DRIVE_GEAR_RATIO; // DRIVE_GEAR_RATIO : 1 is our drivetrain gear ratio
-		leftBackPositionZero = m_leftBackMotor.getEncoder().getPosition() / DRIVE_GEAR_RATIO; // DRIVE_GEAR_RATIO : 1 is our drivetrain gear ratio
-		rightFrontPositionZero = m_rightFrontMotor.getEncoder().getPosition() / DRIVE_GEAR_RATIO; // DRIVE_GEAR_RATIO : 1 is our drivetrain gear ratio
-		rightBackPositionZero = m_rightBackMotor.getEncoder().getPosition() / DRIVE_GEAR_RATIO; // DRIVE_GEAR_RATIO : 1 is our drivetrain gear ratio
+		leftFrontPositionZero = inputs.leftFrontPosition;
+		leftBackPositionZero = inputs.leftBackPosition;
+		rightFrontPositionZero = inputs.rightFrontPosition;
+		rightBackPositionZero = inputs.rightBackPosition;
 	}
 
 	// Speed will be measured in meters/second
@@ -206,9 +357,9 @@ public class DriveSubsystem extends SubsystemBase {
 	}
 
 	public void setWheelSpeeds(MecanumDriveWheelSpeeds speeds) {
-		speeds.frontRightMetersPerSecond *= -1;
-		speeds.rearLeftMetersPerSecond *= -1;
-
+		// Wheel speeds use the open-loop convention: positive turns a wheel the way a positive MecanumDrive output does.
+		// The Spark MAXes' inversion (REVERSE_*_MOTOR) already applies to both their output and their encoder, so the
+		// voltages go out with the same signs as the setpoints and the speed getters, with no flips of our own
 		final double frontLeftFeedforward = kFeedforward.calculate(speeds.frontLeftMetersPerSecond);
 		final double frontRightFeedforward = kFeedforward.calculate(speeds.frontRightMetersPerSecond);
 		final double backLeftFeedforward = kFeedforward.calculate(speeds.rearLeftMetersPerSecond);
@@ -223,24 +374,129 @@ public class DriveSubsystem extends SubsystemBase {
 		final double backRightOutput =
 			backRightPIDController.calculate(speedToMeters(getRightBackSpeed()), speeds.rearRightMetersPerSecond);
 
-		m_leftFrontMotor.setVoltage(frontLeftOutput + frontLeftFeedforward);
-		m_rightFrontMotor.setVoltage(frontRightOutput + frontRightFeedforward);
-		m_leftBackMotor.setVoltage(backLeftOutput + backLeftFeedforward);
-		m_rightBackMotor.setVoltage(backRightOutput + backRightFeedforward);
+		// Keep every wheel under the power budget, scaling them together so the robot still drives in the same direction
+		double frontLeftVoltage = frontLeftOutput + frontLeftFeedforward;
+		double frontRightVoltage = frontRightOutput + frontRightFeedforward;
+		double backLeftVoltage = backLeftOutput + backLeftFeedforward;
+		double backRightVoltage = backRightOutput + backRightFeedforward;
+		double maxVoltage = outputScale * RobotController.getBatteryVoltage();
+		double highest = Math.max(Math.max(Math.abs(frontLeftVoltage), Math.abs(frontRightVoltage)), Math.max(Math.abs(backLeftVoltage), Math.abs(backRightVoltage)));
+		double budget = (highest > maxVoltage) ? maxVoltage / highest : 1;
+
+		io.setVoltage(DriveIO.LEFT_FRONT, frontLeftVoltage * budget);
+		io.setVoltage(DriveIO.RIGHT_FRONT, frontRightVoltage * budget);
+		io.setVoltage(DriveIO.LEFT_BACK, backLeftVoltage * budget);
+		io.setVoltage(DriveIO.RIGHT_BACK, backRightVoltage * budget);
+		robotDrive.feed(); // We bypassed MecanumDrive, so tell its motor safety watchdog the motors are still being updated
+
+		// Worst wheel's speed error this loop (m/s), to compare tuning on the robot and in simulation
+		trackingErrorSignal.set(Math.max(Math.max(Math.abs(frontLeftPIDController.getError()), Math.abs(frontRightPIDController.getError())),
+			Math.max(Math.abs(backLeftPIDController.getError()), Math.abs(backRightPIDController.getError()))));
+  }
+
+  /** Drive at robot-relative chassis speeds (m/s, m/s, rad/s) with the closed-loop wheel controllers */
+  public void driveRobotRelative(ChassisSpeeds speeds) {
+		driveRobotRelative(speeds.vxMetersPerSecond, speeds.vyMetersPerSecond, speeds.omegaRadiansPerSecond);
+  }
+  /** Same as above without a ChassisSpeeds. The inverse kinematics are written out (they're what kDriveKinematics
+   * works out for this wheel layout) and land in a reused object, because the matrix version allocates every loop. */
+  public void driveRobotRelative(double vx, double vy, double omega) {
+		double turn = omega * (WHEEL_BASE / 2 + TRACK_WIDTH / 2);
+		MecanumDriveWheelSpeeds wheelSpeeds = wheelSpeedSetpoint;
+		wheelSpeeds.frontLeftMetersPerSecond = vx - vy - turn;
+		wheelSpeeds.frontRightMetersPerSecond = vx + vy + turn;
+		wheelSpeeds.rearLeftMetersPerSecond = vx + vy - turn;
+		wheelSpeeds.rearRightMetersPerSecond = vx - vy + turn;
+		// Scale every wheel down together if any of them is asked to go faster than it can
+		double fastest = Math.max(Math.max(Math.abs(wheelSpeeds.frontLeftMetersPerSecond), Math.abs(wheelSpeeds.frontRightMetersPerSecond)),
+				Math.max(Math.abs(wheelSpeeds.rearLeftMetersPerSecond), Math.abs(wheelSpeeds.rearRightMetersPerSecond)));
+		if (fastest > Constants.MAX_DRIVE_SPEED) {
+			double scale = Constants.MAX_DRIVE_SPEED / fastest;
+			wheelSpeeds.frontLeftMetersPerSecond *= scale;
+			wheelSpeeds.frontRightMetersPerSecond *= scale;
+			wheelSpeeds.rearLeftMetersPerSecond *= scale;
+			wheelSpeeds.rearRightMetersPerSecond *= scale;
+		}
+		setWheelSpeeds(wheelSpeeds);
+  }
+  /** Measured robot-relative chassis speeds */
+  public ChassisSpeeds getRobotRelativeSpeeds() {
+		return kDriveKinematics.toChassisSpeeds(getWheelSpeeds());
+  }
+
+  /** PathPlanner's model of the robot, available once configureAutoBuilder() has run */
+  public RobotConfig getRobotConfig() {
+		return robotConfig;
+  }
+
+  /** Set up PathPlanner's AutoBuilder to follow paths with this drivetrain.
+   * @param poseSupplier where the robot currently is on the field
+   * @param resetPose moves the pose estimate to the start of a path */
+  public void configureAutoBuilder(Supplier<Pose2d> poseSupplier, Consumer<Pose2d> resetPose) {
+		robotConfig = new RobotConfig(Constants.ROBOT_MASS_KG, Constants.ROBOT_MOI,
+			new ModuleConfig(Constants.WHEEL_DIAMETER / 2, Constants.MAX_DRIVE_SPEED, Constants.WHEEL_COF,
+				DCMotor.getNEO(1).withReduction(DRIVE_GEAR_RATIO), Constants.DRIVE_CURRENT_LIMIT, 1),
+			new Translation2d(WHEEL_BASE / 2, TRACK_WIDTH / 2),
+			new Translation2d(WHEEL_BASE / 2, -TRACK_WIDTH / 2),
+			new Translation2d(-WHEEL_BASE / 2, TRACK_WIDTH / 2),
+			new Translation2d(-WHEEL_BASE / 2, -TRACK_WIDTH / 2));
+
+		AutoBuilder.configure(
+			poseSupplier,
+			resetPose,
+			this::getRobotRelativeSpeeds,
+			(speeds, feedforwards) -> driveRobotRelative(speeds),
+			new PPHolonomicDriveController(
+				new PIDConstants(Constants.kP_X_CONTROLLER, 0, 0), // Translation
+				new PIDConstants(Constants.kP_THETA_CONTROLLER, 0, 0)), // Rotation
+			robotConfig,
+			() -> DriverStation.getAlliance().orElse(Alliance.Blue) == Alliance.Red, // Paths are drawn for the blue side
+			this);
   }
 
   // Methods for getting the speeds and positions of the drivetrain wheels
   public MecanumDriveWheelPositions getWheelPositions() {
-		return new MecanumDriveWheelPositions(positionToMeters(getLeftFrontPosition()), 
-											  positionToMeters(getRightFrontPosition()), 
-											  positionToMeters(getLeftBackPosition()), 
-											  positionToMeters(getRightBackPosition()));
+		return getWheelPositions(new MecanumDriveWheelPositions());
   }
   public MecanumDriveWheelSpeeds getWheelSpeeds() {
-		return new MecanumDriveWheelSpeeds(speedToMeters(getLeftFrontSpeed()), 
-											speedToMeters(getRightFrontSpeed()), 
-											speedToMeters(getLeftBackSpeed()), 
-											speedToMeters(getRightBackSpeed()));
+		return getWheelSpeeds(new MecanumDriveWheelSpeeds());
+  }
+  // Fill a caller-owned object instead of allocating one, for code that runs every loop
+  public MecanumDriveWheelPositions getWheelPositions(MecanumDriveWheelPositions positions) {
+		positions.frontLeftMeters = getLeftFrontMeters();
+		positions.frontRightMeters = getRightFrontMeters();
+		positions.rearLeftMeters = getLeftBackMeters();
+		positions.rearRightMeters = getRightBackMeters();
+		return positions;
+  }
+  public MecanumDriveWheelSpeeds getWheelSpeeds(MecanumDriveWheelSpeeds speeds) {
+		speeds.frontLeftMetersPerSecond = speedToMeters(getLeftFrontSpeed());
+		speeds.frontRightMetersPerSecond = speedToMeters(getRightFrontSpeed());
+		speeds.rearLeftMetersPerSecond = speedToMeters(getLeftBackSpeed());
+		speeds.rearRightMetersPerSecond = speedToMeters(getRightBackSpeed());
+		return speeds;
+  }
+  // Wheel distances (meters) from the raw sensors. Unlike the getters above these are not affected by
+  // resetEncoders(), so LogReplay re-running odometry from the log sees a continuous signal.
+  private MecanumDriveWheelPositions getOdometryWheelPositions(MecanumDriveWheelPositions positions) {
+		positions.frontLeftMeters = positionToMeters(inputs.leftFrontPosition);
+		positions.frontRightMeters = positionToMeters(inputs.rightFrontPosition);
+		positions.rearLeftMeters = positionToMeters(inputs.leftBackPosition);
+		positions.rearRightMeters = positionToMeters(inputs.rightBackPosition);
+		return positions;
+  }
+  // Wheel distances in meters
+  private double getLeftFrontMeters() {
+		return positionToMeters(getLeftFrontPosition());
+  }
+  private double getRightFrontMeters() {
+		return positionToMeters(getRightFrontPosition());
+  }
+  private double getLeftBackMeters() {
+		return positionToMeters(getLeftBackPosition());
+  }
+  private double getRightBackMeters() {
+		return positionToMeters(getRightBackPosition());
   }
 
 	// Conversion Methods: Convert position & speed to Meters
@@ -250,4 +506,30 @@ public class DriveSubsystem extends SubsystemBase {
 	public double speedToMeters(double speed) {
 		return speed / 60 * Math.PI * Constants.WHEEL_DIAMETER;
 	}
-}
\ No newline at end of file
+
+	/** Simulation *************************************************************/
+	@Override
+	public void simulationPeriodic() {
+		io.updateSimulation(TimedRobot.kDefaultPeriod);
+	}
+
+	/** Current the simulated drive motors drew this loop, for the simulated battery */
+	public double getSimulatedCurrentDraw() {
+		return io.getSimulatedCurrentDraw();
+	}
+
+	/** Where the simulated robot actually is, as opposed to where odometry thinks it is */
+	public Pose2d getSimulatedPose() {
+		return io.getSimulatedPose();
+	}
+
+	/** Puts the simulated robot somewhere on the field, at rest. Odometry doesn't move with it. */
+	public void resetSimulatedPose(Pose2d pose) {
+		io.resetSimulatedPose(pose);
+	}
+
+	/** True when replaying a log (see ReplaySource) rather than running on hardware or the simulation */
+	public boolean isReplay() {
+		return io.isReplay();
+	}
+}
@@ -0,0 +1,38 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+/** Coral Elevator IO **********************************************************
+ * Everything CoralElevatorSubsystem needs from the elevator hardware, the same
+ * way DriveIO is for the drivetrain: ElevatorIOSparkMax for the robot,
+ * ElevatorIOSim for desktop simulation and ElevatorIOReplay for playing back a
+ * logged match. Positions are in motor rotations. */
+public interface ElevatorIO {
+  /** Samples every sensor into inputs */
+  void updateInputs(ElevatorInputs inputs);
+
+  /** Open-loop outputs, -1 to 1 */
+  void setClimbDutyCycle(double dutyCycle);
+  void setArmDutyCycle(double dutyCycle);
+  void setWheelDutyCycle(double dutyCycle);
+
+  /** Moves to a position along a MAXMotion profile on the Spark MAX, with a percent-output feedforward on top */
+  void setClimbPosition(double position, double feedforward);
+  void setArmPosition(double position, double feedforward);
+
+  /** Re-zeros an encoder so it reads the given position where the mechanism is now */
+  void setClimbEncoderPosition(double position);
+  void setArmEncoderPosition(double position);
+
+  /** Turns the climb and arm soft limits off while homing (they're in encoder positions, which can't be trusted yet) and back on */
+  void setSoftLimitsEnabled(boolean enabled);
+
+  /** Advance the simulated hardware by dt seconds */
+  default void updateSimulation(double dt) {}
+
+  /** Amps the simulated climb and arm drew in the last update */
+  default double getSimulatedCurrentDraw() {
+    return 0;
+  }
+}
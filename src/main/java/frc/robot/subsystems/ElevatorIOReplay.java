@@ -0,0 +1,65 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import frc.robot.util.ReplaySource;
+import frc.robot.util.ReplaySource.Channel;
+
+/** Coral Elevator IO (Replay) *************************************************
+ * Plays back the elevator inputs a real robot logged (see ElevatorInputs.log()).
+ * Outputs go nowhere. */
+public class ElevatorIOReplay implements ElevatorIO {
+  private final Channel climbPosition, climbVelocity, climbCurrent;
+  private final Channel armPosition, armVelocity, armCurrent;
+  private final Channel wheelPosition, wheelVelocity, wheelCurrent;
+
+  public ElevatorIOReplay(ReplaySource replay) {
+    climbPosition = replay.channel(ElevatorInputs.LOG_PREFIX + "Climb Position");
+    climbVelocity = replay.channel(ElevatorInputs.LOG_PREFIX + "Climb Velocity");
+    climbCurrent = replay.channel(ElevatorInputs.LOG_PREFIX + "Climb Current");
+    armPosition = replay.channel(ElevatorInputs.LOG_PREFIX + "Arm Position");
+    armVelocity = replay.channel(ElevatorInputs.LOG_PREFIX + "Arm Velocity");
+    armCurrent = replay.channel(ElevatorInputs.LOG_PREFIX + "Arm Current");
+    wheelPosition = replay.channel(ElevatorInputs.LOG_PREFIX + "Wheel Position");
+    wheelVelocity = replay.channel(ElevatorInputs.LOG_PREFIX + "Wheel Velocity");
+    wheelCurrent = replay.channel(ElevatorInputs.LOG_PREFIX + "Wheel Current");
+  }
+
+  @Override
+  public void updateInputs(ElevatorInputs inputs) {
+    inputs.climbPosition = climbPosition.get();
+    inputs.climbVelocity = climbVelocity.get();
+    inputs.climbCurrent = climbCurrent.get();
+    inputs.armPosition = armPosition.get();
+    inputs.armVelocity = armVelocity.get();
+    inputs.armCurrent = armCurrent.get();
+    inputs.wheelPosition = wheelPosition.get();
+    inputs.wheelVelocity = wheelVelocity.get();
+    inputs.wheelCurrent = wheelCurrent.get();
+  }
+
+  @Override
+  public void setClimbDutyCycle(double dutyCycle) {}
+
+  @Override
+  public void setArmDutyCycle(double dutyCycle) {}
+
+  @Override
+  public void setWheelDutyCycle(double dutyCycle) {}
+
+  @Override
+  public void setClimbPosition(double position, double feedforward) {}
+
+  @Override
+  public void setArmPosition(double position, double feedforward) {}
+
+  @Override
+  public void setClimbEncoderPosition(double position) {} // The logged positions were re-zeroed on the robot
+
+  @Override
+  public void setArmEncoderPosition(double position) {}
+
+  @Override
+  public void setSoftLimitsEnabled(boolean enabled) {}
+}
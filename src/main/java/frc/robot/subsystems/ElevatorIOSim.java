@@ -0,0 +1,137 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import frc.robot.Constants;
+
+import com.revrobotics.sim.SparkMaxSim;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.simulation.ElevatorSim;
+import edu.wpi.first.wpilibj.simulation.RoboRioSim;
+import edu.wpi.first.wpilibj.simulation.SingleJointedArmSim;
+
+/** Coral Elevator IO (Simulation) *********************************************
+ * Physics models for the climb and arm, sized from the same encoder conversions
+ * the real robot uses, wrapped around the Spark MAX IO so the MAXMotion closed
+ * loops run in the Spark MAX sims. The mechanism starts in the robot's starting
+ * configuration, on its hard stops (carriage down, arm stowed), and the encoders
+ * start at 0 like they do when the robot boots, so the arm reads wrong until
+ * CoralElevatorHomeCommand has homed it, the same as on the robot. A coral
+ * reaches the end effector wheel after it has been intaking for a moment, so
+ * the game piece detector sees it load, seat and leave. */
+public class ElevatorIOSim extends ElevatorIOSparkMax {
+  private static final double METERS_PER_CLIMB_ROTATION = CoralElevatorSubsystem.METERS_PER_CLIMB_ROTATION;
+  private static final DCMotor WHEEL_MOTOR = DCMotor.getNeo550(1); // The end effector wheel is a NEO 550
+  private static final double CORAL_ARRIVAL_TIME = 0.5; // Seconds of intaking before a coral reaches the wheel, as if a human player fed one
+  private static final double CORAL_SEAT_TRAVEL = 12; // Wheel motor rotations that pull a coral from the wheel to seated
+  private static final double CORAL_LOAD_TORQUE = 0.08; // Newton meters at the wheel motor moving a coral, about 8 amps
+
+  private final SparkMaxSim m_climbSim, m_armSim, m_wheelSim;
+  private final ElevatorSim elevatorSim;
+  private final SingleJointedArmSim armSim;
+  private double climbEncoderOffset, armEncoderOffset; // Encoder reading minus the modeled position, in motor rotations
+  private boolean coral; // A coral is in the end effector
+  private double coralTravel; // Wheel motor rotations the coral has been pulled in since it reached the wheel
+  private double intakeTime; // Seconds the wheel has been intaking with no coral
+
+  public ElevatorIOSim() {
+    this(Constants.ELEVATOR_STAGE_1_MOTOR_ID, Constants.END_EFFECTOR_ARM_MOTOR_ID, Constants.END_EFFECTOR_WHEEL_MOTOR_ID);
+  }
+
+  /** A simulated elevator at other CAN IDs, beside the robot's in tests */
+  ElevatorIOSim(int climbId, int armId, int wheelId) {
+    super(climbId, armId, wheelId);
+    DCMotor neo = DCMotor.getNEO(1);
+    m_climbSim = new SparkMaxSim(m_elevator_climb_1, neo);
+    m_armSim = new SparkMaxSim(m_elevator_arm, neo);
+    m_wheelSim = new SparkMaxSim(m_elevator_wheel, WHEEL_MOTOR);
+
+    // Motor rotations per drum rotation that gives ELEVATOR_ROTATIONS_PER_INCH with the modeled drum
+    double climbGearing = 2 * Math.PI * Constants.ELEVATOR_DRUM_RADIUS / METERS_PER_CLIMB_ROTATION;
+    elevatorSim = new ElevatorSim(neo, climbGearing, Constants.ELEVATOR_CARRIAGE_MASS_KG, Constants.ELEVATOR_DRUM_RADIUS,
+        Constants.ELEVATOR_CLIMB_HOME_POSITION * METERS_PER_CLIMB_ROTATION, Constants.ELEVATOR_CLIMB_MAX * METERS_PER_CLIMB_ROTATION,
+        true, Constants.ELEVATOR_CLIMB_HOME_POSITION * METERS_PER_CLIMB_ROTATION);
+    armSim = new SingleJointedArmSim(neo, Constants.ARM_GEAR_RATIO,
+        SingleJointedArmSim.estimateMOI(Constants.ARM_LENGTH, Constants.ARM_MASS_KG), Constants.ARM_LENGTH,
+        armRotationsToRadians(Constants.ARM_HOME_POSITION), armRotationsToRadians(Constants.ARM_MAX) + 0.1, true,
+        armRotationsToRadians(Constants.ARM_HOME_POSITION));
+    climbEncoderOffset = -climbRotations();
+    armEncoderOffset = -armRotations();
+  }
+
+  @Override
+  public void updateSimulation(double dt) {
+    double busVoltage = RoboRioSim.getVInVoltage();
+
+    elevatorSim.setInputVoltage(m_climbSim.getAppliedOutput() * busVoltage);
+    elevatorSim.update(dt);
+    double climbRPM = elevatorSim.getVelocityMetersPerSecond() / METERS_PER_CLIMB_ROTATION * 60;
+    m_climbSim.iterate(climbRPM, busVoltage, dt);
+    m_climbSim.setPosition(climbRotations() + climbEncoderOffset); // Hard stops included
+    m_climbSim.setMotorCurrent(elevatorSim.getCurrentDrawAmps());
+
+    armSim.setInputVoltage(m_armSim.getAppliedOutput() * busVoltage);
+    armSim.update(dt);
+    double armRPM = Units.radiansPerSecondToRotationsPerMinute(armSim.getVelocityRadPerSec()) * Constants.ARM_GEAR_RATIO;
+    m_armSim.iterate(armRPM, busVoltage, dt);
+    m_armSim.setPosition(armRotations() + armEncoderOffset);
+    m_armSim.setMotorCurrent(armSim.getCurrentDrawAmps());
+
+    // The wheel spins freely until a coral reaches it, pulls it in against the load torque, and stalls at the current
+    // limit once it's seated. Ejecting, it pushes against the load until the coral is back out past the wheel.
+    double wheelOutput = m_wheelSim.getAppliedOutput();
+    if (!coral) {
+      intakeTime = (wheelOutput > 0) ? intakeTime + dt : 0;
+      coral = (intakeTime >= CORAL_ARRIVAL_TIME);
+      coralTravel = 0;
+    }
+    double loadCurrent = (coral && wheelOutput != 0) ? CORAL_LOAD_TORQUE / WHEEL_MOTOR.KtNMPerAmp : 0;
+    double freeRPM = Units.radiansPerSecondToRotationsPerMinute(WHEEL_MOTOR.freeSpeedRadPerSec);
+    double droopRPM = loadCurrent * WHEEL_MOTOR.rOhms * Units.radiansPerSecondToRotationsPerMinute(WHEEL_MOTOR.KvRadPerSecPerVolt);
+    double wheelRPM = Math.signum(wheelOutput) * Math.max(Math.abs(wheelOutput) * freeRPM - droopRPM, 0);
+    double wheelCurrent = Math.abs(wheelOutput) * WHEEL_MOTOR.freeCurrentAmps + loadCurrent;
+    if (coral && wheelOutput > 0 && coralTravel >= CORAL_SEAT_TRAVEL) {
+      wheelRPM = 0; // Seated
+    }
+    if (wheelRPM == 0 && wheelOutput != 0) {
+      wheelCurrent = Math.min(Math.abs(wheelOutput * busVoltage) / WHEEL_MOTOR.rOhms, Constants.WHEEL_CURRENT_LIMIT);
+    }
+    m_wheelSim.iterate(wheelRPM, busVoltage, dt);
+    m_wheelSim.setMotorCurrent(wheelCurrent);
+    if (coral) {
+      coralTravel = Math.min(coralTravel + wheelRPM / 60 * dt, CORAL_SEAT_TRAVEL);
+      coral = (coralTravel >= 0); // Pushed back out past the wheel
+    }
+  }
+
+  @Override
+  public double getSimulatedCurrentDraw() {
+    return elevatorSim.getCurrentDrawAmps() + armSim.getCurrentDrawAmps();
+  }
+
+  @Override
+  public void setClimbEncoderPosition(double position) {
+    super.setClimbEncoderPosition(position);
+    climbEncoderOffset = position - climbRotations();
+  }
+
+  @Override
+  public void setArmEncoderPosition(double position) {
+    super.setArmEncoderPosition(position);
+    armEncoderOffset = position - armRotations();
+  }
+
+  private double climbRotations() {
+    return elevatorSim.getPositionMeters() / METERS_PER_CLIMB_ROTATION;
+  }
+
+  private double armRotations() {
+    return armSim.getAngleRads() / (2 * Math.PI) * Constants.ARM_GEAR_RATIO;
+  }
+
+  private double armRotationsToRadians(double rotations) {
+    return rotations / Constants.ARM_GEAR_RATIO * 2 * Math.PI;
+  }
+}
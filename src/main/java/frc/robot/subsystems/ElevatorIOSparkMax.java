@@ -0,0 +1,164 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import frc.robot.Constants;
+
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.spark.ClosedLoopSlot;
+import com.revrobotics.spark.SparkClosedLoopController;
+import com.revrobotics.spark.SparkClosedLoopController.ArbFFUnits;
+import com.revrobotics.spark.SparkMax;
+import com.revrobotics.spark.config.ClosedLoopConfig.FeedbackSensor;
+import com.revrobotics.spark.config.SparkBaseConfig.IdleMode;
+import com.revrobotics.spark.config.SparkMaxConfig;
+import com.revrobotics.spark.SparkBase.ControlType;
+import com.revrobotics.spark.SparkBase.PersistMode;
+import com.revrobotics.spark.SparkBase.ResetMode;
+import com.revrobotics.spark.SparkLowLevel.MotorType;
+
+/** Coral Elevator IO (Spark MAX) **********************************************
+ * The real coral elevator: NEOs on Spark MAXes for the climb, arm and end
+ * effector wheel. */
+public class ElevatorIOSparkMax implements ElevatorIO {
+
+  // Coral Elevator Motor Controllers
+  protected final SparkMax m_elevator_climb_1; // NEO motor
+  private SparkMax m_elevator_climb_2; // NEO motor
+  protected final SparkMax m_elevator_arm; // NEO motor
+  protected final SparkMax m_elevator_wheel; // NEO motor
+
+  private final RelativeEncoder m_climbEncoder, m_armEncoder, m_wheelEncoder;
+
+  // On-controller (1 kHz) closed loops for the climb and arm
+  private final SparkClosedLoopController m_climbController;
+  private final SparkClosedLoopController m_armController;
+
+  public ElevatorIOSparkMax() {
+    this(Constants.ELEVATOR_STAGE_1_MOTOR_ID, Constants.END_EFFECTOR_ARM_MOTOR_ID, Constants.END_EFFECTOR_WHEEL_MOTOR_ID);
+  }
+
+  /** Spark MAXes at other CAN IDs, for a second elevator beside the robot's in tests */
+  ElevatorIOSparkMax(int climbId, int armId, int wheelId) {
+    // Configure the Spark MAX motor controller using the new 2025 method
+    m_elevator_climb_1 = new SparkMax(climbId, MotorType.kBrushless);
+    //configureSparkMAX(m_elevator_climb_1, Constants.ELEVATOR_STAGE_1_INVERT);
+    //m_elevator_climb_2 = new SparkMax(Constants.ELEVATOR_STAGE_2_MOTOR_ID, MotorType.kBrushless);
+    //configureSparkMAX(m_elevator_climb_2, Constants.ELEVATOR_STAGE_2_INVERT);
+    m_elevator_arm = new SparkMax(armId, MotorType.kBrushless);
+    //configureSparkMAX(m_elevator_arm, Constants.ELEVATOR_ARM_INVERT);
+    m_elevator_wheel = new SparkMax(wheelId, MotorType.kBrushless);
+    //configureSparkMAX(m_elevator_wheel, Constants.ELEVATOR_WHEEL_INVERT);
+    configureMAXMotion(m_elevator_climb_1, Constants.ELEVATOR_kP, Constants.ELEVATOR_MAX_VELOCITY, Constants.ELEVATOR_MAX_ACCELERATION,
+        Constants.ELEVATOR_CLIMB_MIN, Constants.ELEVATOR_CLIMB_MAX);
+    configureMAXMotion(m_elevator_arm, Constants.ARM_kP, Constants.ARM_MAX_VELOCITY, Constants.ARM_MAX_ACCELERATION,
+        Constants.ARM_MIN, Constants.ARM_MAX);
+    configureWheel(m_elevator_wheel);
+    m_climbController = m_elevator_climb_1.getClosedLoopController();
+    m_armController = m_elevator_arm.getClosedLoopController();
+    m_climbEncoder = m_elevator_climb_1.getEncoder();
+    m_armEncoder = m_elevator_arm.getEncoder();
+    m_wheelEncoder = m_elevator_wheel.getEncoder();
+  }
+
+  private void configureSparkMAX(SparkMax max, boolean reverse) {
+    SparkMaxConfig config = new SparkMaxConfig();
+    config.inverted(reverse).idleMode(IdleMode.kBrake);
+    max.configure(config, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters);
+  }
+
+  /* Sets up MAXMotion (trapezoidal profile + PID on the Spark MAX) on the primary encoder.
+   * Only the closed loop and soft limits are changed, the rest of the controller's saved settings are kept.
+   * The soft limits enforce the same limiters as setSpeed, which the closed loop bypasses. */
+  private void configureMAXMotion(SparkMax max, double kP, double maxVelocity, double maxAcceleration, double min, double max_position) {
+    SparkMaxConfig config = new SparkMaxConfig();
+    config.smartCurrentLimit(Constants.ELEVATOR_CURRENT_LIMIT);
+    config.closedLoop
+        .feedbackSensor(FeedbackSensor.kPrimaryEncoder)
+        .p(kP)
+        .outputRange(-1, 1);
+    config.closedLoop.maxMotion
+        .maxVelocity(maxVelocity)
+        .maxAcceleration(maxAcceleration)
+        .allowedClosedLoopError(0.25);
+    config.softLimit
+        .forwardSoftLimit(max_position)
+        .forwardSoftLimitEnabled(true)
+        .reverseSoftLimit(min)
+        .reverseSoftLimitEnabled(true);
+    max.configure(config, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
+  }
+
+  /* The end effector wheel's NEO 550 overheats quickly when stalled, so its current is limited well below the NEOs'.
+   * Its speed and current are reported every 10 ms instead of every 20 ms, so the game piece detector's sample each loop is fresh. */
+  private void configureWheel(SparkMax max) {
+    SparkMaxConfig config = new SparkMaxConfig();
+    config.smartCurrentLimit(Constants.WHEEL_CURRENT_LIMIT);
+    config.signals
+        .primaryEncoderVelocityPeriodMs(10)
+        .outputCurrentPeriodMs(10);
+    max.configure(config, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
+  }
+
+  @Override
+  public void updateInputs(ElevatorInputs inputs) {
+    inputs.climbPosition = m_climbEncoder.getPosition();
+    inputs.climbVelocity = m_climbEncoder.getVelocity();
+    inputs.climbCurrent = m_elevator_climb_1.getOutputCurrent();
+    inputs.armPosition = m_armEncoder.getPosition();
+    inputs.armVelocity = m_armEncoder.getVelocity();
+    inputs.armCurrent = m_elevator_arm.getOutputCurrent();
+    inputs.wheelPosition = m_wheelEncoder.getPosition();
+    inputs.wheelVelocity = m_wheelEncoder.getVelocity();
+    inputs.wheelCurrent = m_elevator_wheel.getOutputCurrent();
+  }
+
+  @Override
+  public void setClimbDutyCycle(double dutyCycle) {
+    m_elevator_climb_1.set(dutyCycle);
+  }
+
+  @Override
+  public void setArmDutyCycle(double dutyCycle) {
+    m_elevator_arm.set(dutyCycle);
+  }
+
+  @Override
+  public void setWheelDutyCycle(double dutyCycle) {
+    m_elevator_wheel.set(dutyCycle);
+  }
+
+  @Override
+  public void setClimbPosition(double position, double feedforward) {
+    m_climbController.setReference(position, ControlType.kMAXMotionPositionControl, ClosedLoopSlot.kSlot0,
+        feedforward, ArbFFUnits.kPercentOut);
+  }
+
+  @Override
+  public void setArmPosition(double position, double feedforward) {
+    m_armController.setReference(position, ControlType.kMAXMotionPositionControl, ClosedLoopSlot.kSlot0,
+        feedforward, ArbFFUnits.kPercentOut);
+  }
+
+  @Override
+  public void setClimbEncoderPosition(double position) {
+    m_climbEncoder.setPosition(position);
+  }
+
+  @Override
+  public void setArmEncoderPosition(double position) {
+    m_armEncoder.setPosition(position);
+  }
+
+  @Override
+  public void setSoftLimitsEnabled(boolean enabled) {
+    SparkMaxConfig config = new SparkMaxConfig();
+    config.softLimit
+        .forwardSoftLimitEnabled(enabled)
+        .reverseSoftLimitEnabled(enabled);
+    // Sent in the background, so the robot loop doesn't wait on the CAN bus
+    m_elevator_climb_1.configureAsync(config, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
+    m_elevator_arm.configureAsync(config, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters);
+  }
+}
@@ -0,0 +1,53 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.NumberSignal;
+
+/** Coral Elevator Inputs ******************************************************
+ * One cycle's worth of coral elevator readings, sampled once at the start of
+ * CoralElevatorSubsystem.periodic() through its ElevatorIO. Positions are in
+ * motor rotations, velocities in motor RPM, currents in amps. Logged every loop
+ * under "Elevator/Inputs/", which is what ElevatorIOReplay plays back. */
+public final class ElevatorInputs {
+  double climbPosition, climbVelocity, climbCurrent;
+  double armPosition, armVelocity, armCurrent;
+  double wheelPosition, wheelVelocity, wheelCurrent;
+
+  static final String LOG_PREFIX = "Elevator/Inputs/";
+  private final NumberSignal climbPositionLog = Telemetry.log(LOG_PREFIX + "Climb Position");
+  private final NumberSignal climbVelocityLog = Telemetry.log(LOG_PREFIX + "Climb Velocity");
+  private final NumberSignal climbCurrentLog = Telemetry.log(LOG_PREFIX + "Climb Current");
+  private final NumberSignal armPositionLog = Telemetry.log(LOG_PREFIX + "Arm Position");
+  private final NumberSignal armVelocityLog = Telemetry.log(LOG_PREFIX + "Arm Velocity");
+  private final NumberSignal armCurrentLog = Telemetry.log(LOG_PREFIX + "Arm Current");
+  private final NumberSignal wheelPositionLog = Telemetry.log(LOG_PREFIX + "Wheel Position");
+  private final NumberSignal wheelVelocityLog = Telemetry.log(LOG_PREFIX + "Wheel Velocity");
+  private final NumberSignal wheelCurrentLog = Telemetry.log(LOG_PREFIX + "Wheel Current");
+
+  ElevatorInputs() {}
+
+  void log() {
+    climbPositionLog.set(climbPosition);
+    climbVelocityLog.set(climbVelocity);
+    climbCurrentLog.set(climbCurrent);
+    armPositionLog.set(armPosition);
+    armVelocityLog.set(armVelocity);
+    armCurrentLog.set(armCurrent);
+    wheelPositionLog.set(wheelPosition);
+    wheelVelocityLog.set(wheelVelocity);
+    wheelCurrentLog.set(wheelCurrent);
+  }
+
+  public double getClimbPosition() { return climbPosition; }
+  public double getClimbVelocity() { return climbVelocity; }
+  public double getClimbCurrent() { return climbCurrent; }
+  public double getArmPosition() { return armPosition; }
+  public double getArmVelocity() { return armVelocity; }
+  public double getArmCurrent() { return armCurrent; }
+  public double getWheelPosition() { return wheelPosition; }
+  public double getWheelVelocity() { return wheelVelocity; }
+  public double getWheelCurrent() { return wheelCurrent; }
+}
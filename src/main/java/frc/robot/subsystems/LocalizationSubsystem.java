@@ -0,0 +1,260 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import frc.robot.Constants;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.BooleanSignal;
+import frc.robot.util.Telemetry.NumberSignal;
+import frc.robot.util.Telemetry.StructSignal;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.photonvision.EstimatedRobotPose;
+import org.photonvision.PhotonCamera;
+import org.photonvision.PhotonPoseEstimator;
+import org.photonvision.PhotonPoseEstimator.PoseStrategy;
+import org.photonvision.simulation.PhotonCameraSim;
+import org.photonvision.simulation.SimCameraProperties;
+import org.photonvision.simulation.VisionSystemSim;
+import org.photonvision.targeting.PhotonPipelineResult;
+import org.photonvision.targeting.PhotonTrackedTarget;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.apriltag.AprilTagFields;
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.math.geometry.Twist2d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+
+/** Localization ***************************************************************
+ * Field-relative pose estimate that fuses drivetrain odometry with AprilTag
+ * poses from PhotonVision. There is one odometry: the drivetrain's high-rate
+ * odometry thread. This subsystem keeps a correction on top of it (where the
+ * odometry's origin really is on the field), and the fused pose is the
+ * odometry pose moved by that correction.
+ *
+ * Camera frames are turned into robot poses on a separate "Vision" Notifier
+ * thread. The main loop takes each finished vision pose, looks up where odometry
+ * had the robot when the frame was captured (the drivetrain's pose history,
+ * sampled at the odometry rate), and blends the corrected pose at that moment
+ * towards the camera's with the same Kalman gains as WPILib's
+ * MecanumDrivePoseEstimator. Looking back to the capture time compensates for
+ * the camera's processing and network latency. */
+public class LocalizationSubsystem extends SubsystemBase {
+
+	/** A robot pose measured by the camera, with the FPGA time the frame was captured */
+	private record VisionMeasurement(Pose2d pose, double timestamp, Matrix<N3, N1> stdDevs) {}
+
+	private final DriveSubsystem drivetrain;
+	// Field pose of the odometry's origin: the fused pose is the odometry pose turned by correctionHeading and
+	// then moved by (correctionX, correctionY). Only the main loop touches these.
+	private double correctionX, correctionY, correctionHeading; // Meters, meters, radians
+	// Variances of the odometry's x, y and heading, see fuse()
+	private static final double ODOMETRY_VARIANCE_XY = Constants.ODOMETRY_STD_DEV_XY * Constants.ODOMETRY_STD_DEV_XY;
+	private static final double ODOMETRY_VARIANCE_THETA = Constants.ODOMETRY_STD_DEV_THETA * Constants.ODOMETRY_STD_DEV_THETA;
+
+	private final AprilTagFieldLayout fieldLayout = AprilTagFieldLayout.loadField(AprilTagFields.kDefaultField);
+	private final Transform3d robotToCamera = new Transform3d(
+		new Translation3d(Constants.CAMERA_FORWARD_OFFSET, Constants.CAMERA_LEFT_OFFSET, Constants.CAMERA_UP_OFFSET),
+		new Rotation3d(0, Math.toRadians(Constants.CAMERA_PITCH_DEGREES), 0));
+	private final PhotonCamera camera = new PhotonCamera(Constants.VISION_CAMERA_NAME);
+	private final PhotonPoseEstimator photonEstimator;
+
+	// Filled by the vision thread, emptied by periodic()
+	private final ConcurrentLinkedQueue<VisionMeasurement> visionMeasurements = new ConcurrentLinkedQueue<>();
+	private final Notifier visionNotifier = new Notifier(this::processCameraFrames);
+	private volatile boolean hasTarget = false;
+
+	// Simulated camera (only created in simulation, and not when replaying a log: the replayed robot sees no tags)
+	private VisionSystemSim visionSim;
+
+	private final LoopProfiler.Section periodicProfile = LoopProfiler.section("Localization");
+
+	// Dashboard signals
+	private final NumberSignal poseXSignal = Telemetry.number("Pose X", 0.01, Constants.TELEMETRY_FAST_PERIOD);
+	private final NumberSignal poseYSignal = Telemetry.number("Pose Y", 0.01, Constants.TELEMETRY_FAST_PERIOD);
+	private final NumberSignal poseHeadingSignal = Telemetry.number("Pose Heading", Constants.TELEMETRY_GYRO_DEADBAND, Constants.TELEMETRY_FAST_PERIOD);
+	private final StructSignal<Pose2d> poseLog = Telemetry.struct("Localization/Pose", Pose2d.struct);
+	private final StructSignal<Pose2d> visionPoseLog = Telemetry.struct("Localization/Vision Pose", Pose2d.struct);
+	private final BooleanSignal hasTargetSignal = Telemetry.bool("Vision Has Target", Constants.TELEMETRY_SLOW_PERIOD);
+
+	/** Subsystem for estimating where the robot is on the field */
+	public LocalizationSubsystem(DriveSubsystem drivetrain) {
+		this.drivetrain = drivetrain;
+
+		photonEstimator = new PhotonPoseEstimator(fieldLayout, PoseStrategy.MULTI_TAG_PNP_ON_COPROCESSOR, robotToCamera);
+		photonEstimator.setMultiTagFallbackStrategy(PoseStrategy.LOWEST_AMBIGUITY);
+
+		if (RobotBase.isSimulation() && !drivetrain.isReplay()) {
+			visionSim = new VisionSystemSim("main");
+			visionSim.addAprilTags(fieldLayout);
+			SimCameraProperties cameraProperties = new SimCameraProperties();
+			cameraProperties.setCalibration(960, 720, Rotation2d.fromDegrees(90));
+			cameraProperties.setCalibError(0.35, 0.10);
+			cameraProperties.setFPS(30);
+			cameraProperties.setAvgLatencyMs(35);
+			cameraProperties.setLatencyStdDevMs(5);
+			visionSim.addCamera(new PhotonCameraSim(camera, cameraProperties), robotToCamera);
+		}
+
+		visionNotifier.setName("Vision");
+		visionNotifier.startPeriodic(1.0 / Constants.VISION_FREQUENCY);
+	}
+
+	/** Fused pose estimate: the latest odometry pose with the vision correction applied */
+	public Pose2d getPose() {
+		return correct(drivetrain.getPose());
+	}
+
+	/** Moves the pose estimate to a known pose. The drivetrain's odometry moves there and the correction is cleared. */
+	public void resetPose(Pose2d pose) {
+		drivetrain.resetOdometry(pose);
+		correctionX = 0;
+		correctionY = 0;
+		correctionHeading = 0;
+	}
+
+	/** Queues a robot pose measured at an earlier FPGA timestamp (seconds), trusted per x, y and heading by the given
+	 * standard deviations, to be fused on the next periodic(). Safe to call from any thread. */
+	public void addVisionMeasurement(Pose2d pose, double timestamp, Matrix<N3, N1> stdDevs) {
+		visionMeasurements.add(new VisionMeasurement(pose, timestamp, stdDevs));
+	}
+
+	public boolean hasTarget() {
+		return hasTarget;
+	}
+
+	@Override
+	public void periodic() {
+		periodicProfile.start();
+		VisionMeasurement measurement;
+		while ((measurement = visionMeasurements.poll()) != null) {
+			fuse(measurement);
+			visionPoseLog.set(measurement.pose());
+		}
+
+		Pose2d pose = getPose();
+		poseXSignal.set(pose.getX());
+		poseYSignal.set(pose.getY());
+		poseHeadingSignal.set(pose.getRotation().getDegrees());
+		poseLog.set(pose);
+		hasTargetSignal.set(hasTarget);
+		periodicProfile.stop();
+	}
+
+	@Override
+	public void simulationPeriodic() {
+		if (visionSim != null) {
+			visionSim.update(drivetrain.getSimulatedPose()); // The camera sees the field from where the robot really is
+		}
+	}
+
+	/** Vision fusion **********************************************************
+	 * Blends the fused pose at the frame's capture time towards the camera's
+	 * pose, the same way MecanumDrivePoseEstimator.addVisionMeasurement() does:
+	 * per axis, gain = q / (q + sqrt(q * r)) with q the odometry's variance and r
+	 * the camera's, applied to the twist between the two poses. The correction is
+	 * then changed so the odometry pose at that time lands on the blended pose,
+	 * which carries the fix through to now. */
+	private void fuse(VisionMeasurement measurement) {
+		Optional<Pose2d> odometryThen = drivetrain.getPoseAt(measurement.timestamp());
+		if (odometryThen.isEmpty()) {
+			return; // No odometry since the last reset
+		}
+		Pose2d estimateThen = correct(odometryThen.get());
+		Matrix<N3, N1> stdDevs = measurement.stdDevs();
+		Twist2d twist = estimateThen.log(measurement.pose());
+		Pose2d blended = estimateThen.exp(new Twist2d(
+				twist.dx * gain(ODOMETRY_VARIANCE_XY, stdDevs.get(0, 0)),
+				twist.dy * gain(ODOMETRY_VARIANCE_XY, stdDevs.get(1, 0)),
+				twist.dtheta * gain(ODOMETRY_VARIANCE_THETA, stdDevs.get(2, 0))));
+
+		Pose2d odometry = odometryThen.get();
+		correctionHeading = blended.getRotation().getRadians() - odometry.getRotation().getRadians();
+		double cos = Math.cos(correctionHeading);
+		double sin = Math.sin(correctionHeading);
+		correctionX = blended.getX() - (odometry.getX() * cos - odometry.getY() * sin);
+		correctionY = blended.getY() - (odometry.getX() * sin + odometry.getY() * cos);
+	}
+
+	// Kalman gain for one axis, from the odometry's variance and the camera's standard deviation
+	private static double gain(double odometryVariance, double visionStdDev) {
+		if (odometryVariance == 0) {
+			return 0;
+		}
+		return odometryVariance / (odometryVariance + Math.sqrt(odometryVariance * visionStdDev * visionStdDev));
+	}
+
+	// An odometry pose moved onto the field by the correction
+	private Pose2d correct(Pose2d odometry) {
+		double cos = Math.cos(correctionHeading);
+		double sin = Math.sin(correctionHeading);
+		return new Pose2d(correctionX + odometry.getX() * cos - odometry.getY() * sin,
+				correctionY + odometry.getX() * sin + odometry.getY() * cos,
+				new Rotation2d(odometry.getRotation().getRadians() + correctionHeading));
+	}
+
+	/** Vision thread *********************************************************
+	 * Turns every camera frame received since the last call into a pose
+	 * measurement. Runs on the Notifier thread so the solve never lands in the
+	 * 20 ms main loop. */
+	private void processCameraFrames() {
+		for (PhotonPipelineResult result : camera.getAllUnreadResults()) {
+			hasTarget = result.hasTargets();
+			Optional<EstimatedRobotPose> estimate = photonEstimator.update(result);
+			if (estimate.isEmpty()) {
+				continue;
+			}
+			Matrix<N3, N1> stdDevs = getStdDevs(estimate.get());
+			if (stdDevs != null) {
+				addVisionMeasurement(estimate.get().estimatedPose.toPose2d(), estimate.get().timestampSeconds, stdDevs);
+			}
+		}
+	}
+
+	// Trust the camera less the farther away and the fewer tags it sees. Returns null to reject the estimate.
+	private Matrix<N3, N1> getStdDevs(EstimatedRobotPose estimate) {
+		int tagCount = 0;
+		double totalDistance = 0;
+		for (PhotonTrackedTarget target : estimate.targetsUsed) {
+			Optional<Pose3d> tagPose = fieldLayout.getTagPose(target.getFiducialId());
+			if (tagPose.isEmpty()) {
+				continue;
+			}
+			tagCount++;
+			totalDistance += tagPose.get().toPose2d().getTranslation().getDistance(estimate.estimatedPose.toPose2d().getTranslation());
+		}
+		if (tagCount == 0) {
+			return null;
+		}
+		double averageDistance = totalDistance / tagCount;
+		if (averageDistance > Constants.VISION_MAX_DISTANCE) {
+			return null;
+		}
+		if (tagCount == 1 && estimate.targetsUsed.get(0).getPoseAmbiguity() > Constants.VISION_MAX_AMBIGUITY) {
+			return null;
+		}
+
+		double scale = 1 + averageDistance * averageDistance / 30;
+		if (tagCount > 1) {
+			return VecBuilder.fill(Constants.VISION_MULTI_TAG_STD_DEV_XY * scale, Constants.VISION_MULTI_TAG_STD_DEV_XY * scale,
+					Constants.VISION_MULTI_TAG_STD_DEV_THETA * scale);
+		}
+		return VecBuilder.fill(Constants.VISION_SINGLE_TAG_STD_DEV_XY * scale, Constants.VISION_SINGLE_TAG_STD_DEV_XY * scale,
+				Constants.VISION_SINGLE_TAG_STD_DEV_THETA * scale);
+	}
+}
@@ -1,65 +1,151 @@
 // Author: UMN Robotics Ri3D
-// Last Updated: January 2025
+// Last Updated: October 2026
 
 package frc.robot.subsystems;
 
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.filter.LinearFilter;
+import edu.wpi.first.math.filter.SlewRateLimiter;
+import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.PowerDistribution;
 import edu.wpi.first.wpilibj.PowerDistribution.ModuleType;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.NumberSignal;
 
+/** Power ***********************************************************************
+ * Reads the REV PDH on a background "PDH" Notifier at PDH_SAMPLE_FREQUENCY,
+ * using the bulk all-channel current read, instead of making two dozen HAL calls
+ * from the main loop every 20 ms. Each sample is published as an immutable
+ * snapshot through a volatile field, so the main loop just picks up the latest
+ * one without locking or waiting on CAN.
+ *
+ * Also runs the power budget: the battery voltage trend is extrapolated a short
+ * time ahead, and as that prediction (or the total current) heads toward the
+ * brownout threshold, getOutputScale() drops below 1. Robot hands the scale to
+ * the drivetrain and elevator, which scale their outputs by it, so the robot
+ * gives up a little power in a pushing fight instead of browning out. */
 public class PowerSubsystem extends SubsystemBase {
 
+  /** One PDH reading. Never modified once published; don't write to currents. */
+  public record PowerSnapshot(double timestamp, double voltage, double totalCurrent, double totalPower, double[] currents) {}
+
   private PowerDistribution m_revPDH;
 
-  private double voltage, /*temperatureCelsius,*/ totalCurrent, totalPower/*, totalEnergy*/;
-  private double currentsArray[]; 
+  private volatile PowerSnapshot snapshot = new PowerSnapshot(0, 0, 0, 0, new double[24]);
+  private final Notifier sampler = new Notifier(this::sample);
   private boolean switchedChannelState;
 
+  // Power budget
+  private double previousVoltage = 12;
+  private final LinearFilter voltageSlopeFilter = LinearFilter.singlePoleIIR(0.1, TimedRobot.kDefaultPeriod);
+  private final SlewRateLimiter outputScaleRecovery = new SlewRateLimiter(Constants.POWER_BUDGET_RECOVERY_RATE, Double.NEGATIVE_INFINITY, 1);
+  private double outputScale = 1;
+  private final NumberSignal outputScaleSignal = Telemetry.number("Power Budget Scale", 0.01, Constants.TELEMETRY_FAST_PERIOD);
+  private final NumberSignal predictedVoltageSignal = Telemetry.number("Predicted Voltage", Constants.TELEMETRY_VOLTAGE_DEADBAND, Constants.TELEMETRY_FAST_PERIOD);
+
+  private final LoopProfiler.Section periodicProfile = LoopProfiler.section("Power");
+
+  // Dashboard signals
+  private final NumberSignal voltageSignal = Telemetry.number("Voltage", Constants.TELEMETRY_VOLTAGE_DEADBAND, Constants.TELEMETRY_SLOW_PERIOD);
+  private final NumberSignal totalCurrentSignal = Telemetry.number("Total Current", Constants.TELEMETRY_CURRENT_DEADBAND, Constants.TELEMETRY_SLOW_PERIOD);
+  private final NumberSignal totalPowerSignal = Telemetry.number("Total Power", Constants.TELEMETRY_POWER_DEADBAND, Constants.TELEMETRY_SLOW_PERIOD);
+  private final NumberSignal leftFrontCurrentSignal = channelSignal("Left Front Drive Motor Current");
+  private final NumberSignal rightFrontCurrentSignal = channelSignal("Right Front Drive Motor Current");
+  private final NumberSignal leftBackCurrentSignal = channelSignal("Left Back Drive Motor Current");
+  private final NumberSignal rightBackCurrentSignal = channelSignal("Right Back Drive Motor Current");
+  private final NumberSignal intakeBarCurrentSignal = channelSignal("Intake Bar Motor Current");
+  private final NumberSignal intakeDeployCurrentSignal = channelSignal("Intake Deploy Motor Current");
+  private final NumberSignal elevatorStage1CurrentSignal = channelSignal("Elevator Stage 1 Motor Current");
+  private final NumberSignal elevatorStage2CurrentSignal = channelSignal("Elevator Stage 2 Motor Current");
+  private final NumberSignal elevatorArmCurrentSignal = channelSignal("Elevator Arm Motor Current");
+  private final NumberSignal elevatorWheelCurrentSignal = channelSignal("Elevator Wheel Motor Current");
+
   /** Subsystem for controlling the power of the robot */
   public PowerSubsystem() {
     m_revPDH = new PowerDistribution(1, ModuleType.kRev);
 
-    currentsArray = new double[20];
     switchedChannelState = true;
+
+    sampler.setName("PDH");
+    sampler.startPeriodic(1.0 / Constants.PDH_SAMPLE_FREQUENCY);
+  }
+
+  /* Runs on the sampler thread */
+  private void sample() {
+    double voltage = m_revPDH.getVoltage();
+    double totalCurrent = m_revPDH.getTotalCurrent(); // Get the total current of all channels.
+    // Get the current going through all channels, in Amperes, in a single read.
+    // The PDH returns the current in increments of 0.125A.
+    // At low currents the current readings tend to be less accurate.
+    double[] currents = m_revPDH.getAllCurrents();
+    // temperatureCelsius = m_revPDH.getTemperature(); // Retrieves the temperature of the PDP, in degrees Celsius.
+    // totalEnergy = m_revPDH.getTotalEnergy(); // Get the total energy of all channels with units Joules.
+
+    // Total power is the bus voltage multiplied by the total current, no need to ask the PDH for it separately
+    snapshot = new PowerSnapshot(Timer.getFPGATimestamp(), voltage, totalCurrent, voltage * totalCurrent, currents);
+  }
+
+  /** The most recent PDH reading (at most 1 / PDH_SAMPLE_FREQUENCY seconds old) */
+  public PowerSnapshot getSnapshot() {
+    return snapshot;
   }
 
   public void setPower(double power) {} // Set the power of the robot
 
+  /** Fraction (POWER_BUDGET_MIN_SCALE to 1) of their normal output the motors should be limited to right now */
+  public double getOutputScale() {
+    return outputScale;
+  }
+
+  // The roboRIO's input voltage is read every loop since it reacts faster than the PDH sample (and is what browns out)
+  private void updatePowerBudget(double totalCurrent) {
+    double voltage = RobotController.getBatteryVoltage();
+    double slope = voltageSlopeFilter.calculate((voltage - previousVoltage) / TimedRobot.kDefaultPeriod);
+    previousVoltage = voltage;
+    double predictedVoltage = voltage + Math.min(0, slope) * Constants.POWER_BUDGET_LOOKAHEAD; // Only a falling voltage matters
+
+    double voltageScale = MathUtil.interpolate(Constants.POWER_BUDGET_MIN_SCALE, 1,
+        MathUtil.inverseInterpolate(Constants.POWER_BUDGET_FLOOR_VOLTAGE, Constants.POWER_BUDGET_START_VOLTAGE, predictedVoltage));
+    double currentScale = (totalCurrent > Constants.POWER_BUDGET_MAX_CURRENT) ? Constants.POWER_BUDGET_MAX_CURRENT / totalCurrent : 1;
+    double target = Math.max(Constants.POWER_BUDGET_MIN_SCALE, Math.min(voltageScale, currentScale));
+    outputScale = outputScaleRecovery.calculate(target); // Drops immediately, recovers gradually
+
+    outputScaleSignal.set(outputScale);
+    predictedVoltageSignal.set(predictedVoltage);
+  }
+
   @Override
     public void periodic() {
-        voltage = m_revPDH.getVoltage();
-        totalCurrent = m_revPDH.getTotalCurrent(); // Get the total current of all channels.
-        totalPower = m_revPDH.getTotalPower(); // Get the total power of all channels, the bus voltage multiplied by the current with the units Watts.
-        // temperatureCelsius = m_revPDH.getTemperature(); // Retrieves the temperature of the PDP, in degrees Celsius.
-        // totalEnergy = m_revPDH.getTotalEnergy(); // Get the total energy of all channels with units Joules.
-
-        SmartDashboard.putNumber("Voltage", voltage);
-        SmartDashboard.putNumber("Total Current", totalCurrent);
-        SmartDashboard.putNumber("Total Power", totalPower);
+        periodicProfile.start();
+        PowerSnapshot latest = snapshot;
+        double[] currents = latest.currents();
+        updatePowerBudget(latest.totalCurrent());
+
+        voltageSignal.set(latest.voltage());
+        totalCurrentSignal.set(latest.totalCurrent());
+        totalPowerSignal.set(latest.totalPower());
         // SmartDashboard.putNumber("Total Energy", totalEnergy);
         // SmartDashboard.putNumber("PDH Temperature", temperatureCelsius);
-        
-        // Get the current going through all channels, in Amperes.
-        // The PDP returns the current in increments of 0.125A.
-        // At low currents the current readings tend to be less accurate.
-        for(int i = 0; i < currentsArray.length; i++) {
-            currentsArray[i] = m_revPDH.getCurrent(i);
-        }
-        // SmartDashboard.putNumberArray("Currents", currentsArray);
+        // SmartDashboard.putNumberArray("Currents", currents);
         // SmartDashboard.putNumber("Num Channels", m_revPDH.getNumChannels());
 
-        SmartDashboard.putNumber("Left Front Drive Motor Current", currentsArray[Constants.LEFT_FRONT_DRIVE_MOTOR_PDH_CHANNEL]);
-        SmartDashboard.putNumber("Right Front Drive Motor Current", currentsArray[Constants.RIGHT_FRONT_DRIVE_MOTOR_PDH_CHANNEL]);
-        SmartDashboard.putNumber("Left Back Drive Motor Current", currentsArray[Constants.LEFT_BACK_DRIVE_MOTOR_PDH_CHANNEL]);
-        SmartDashboard.putNumber("Right Back Drive Motor Current", currentsArray[Constants.RIGHT_BACK_DRIVE_MOTOR_PDH_CHANNEL]);
-        SmartDashboard.putNumber("Intake Bar Motor Current", currentsArray[Constants.INTAKE_BAR_MOTOR_PDH_CHANNEL]);
-        SmartDashboard.putNumber("Intake Deploy Motor Current", currentsArray[Constants.INTAKE_DEPLOY_MOTOR_PDH_CHANNEL]);
-        SmartDashboard.putNumber("Elevator Stage 1 Motor Current", currentsArray[Constants.ELEVATOR_STAGE_1_MOTOR_PDH_CHANNEL]);
-        SmartDashboard.putNumber("Elevator Stage 2 Motor Current", currentsArray[Constants.ELEVATOR_STAGE_2_MOTOR_PDH_CHANNEL]);
-        SmartDashboard.putNumber("Elevator Arm Motor Current", currentsArray[Constants.ELEVATOR_ARM_MOTOR_PDH_CHANNEL]);
-        SmartDashboard.putNumber("Elevator Wheel Motor Current", currentsArray[Constants.ELEVATOR_WHEEL_MOTOR_PDH_CHANNEL]);
+        leftFrontCurrentSignal.set(currents[Constants.LEFT_FRONT_DRIVE_MOTOR_PDH_CHANNEL]);
+        rightFrontCurrentSignal.set(currents[Constants.RIGHT_FRONT_DRIVE_MOTOR_PDH_CHANNEL]);
+        leftBackCurrentSignal.set(currents[Constants.LEFT_BACK_DRIVE_MOTOR_PDH_CHANNEL]);
+        rightBackCurrentSignal.set(currents[Constants.RIGHT_BACK_DRIVE_MOTOR_PDH_CHANNEL]);
+        intakeBarCurrentSignal.set(currents[Constants.INTAKE_BAR_MOTOR_PDH_CHANNEL]);
+        intakeDeployCurrentSignal.set(currents[Constants.INTAKE_DEPLOY_MOTOR_PDH_CHANNEL]);
+        elevatorStage1CurrentSignal.set(currents[Constants.ELEVATOR_STAGE_1_MOTOR_PDH_CHANNEL]);
+        elevatorStage2CurrentSignal.set(currents[Constants.ELEVATOR_STAGE_2_MOTOR_PDH_CHANNEL]);
+        elevatorArmCurrentSignal.set(currents[Constants.ELEVATOR_ARM_MOTOR_PDH_CHANNEL]);
+        elevatorWheelCurrentSignal.set(currents[Constants.ELEVATOR_WHEEL_MOTOR_PDH_CHANNEL]);
+        periodicProfile.stop();
 
         // SmartDashboard.putBoolean("Switched Channel State", switchedChannelState);
         // SmartDashboard.putBoolean("Reported Switched Channel State", getSwitchedChannelState());
@@ -78,4 +164,8 @@ public class PowerSubsystem extends SubsystemBase {
     public boolean getSwitchedChannelState() {
         return m_revPDH.getSwitchableChannel();
     }
+
+    private static NumberSignal channelSignal(String key) {
+        return Telemetry.number(key, Constants.TELEMETRY_CURRENT_DEADBAND, Constants.TELEMETRY_SLOW_PERIOD);
+    }
 }
\ No newline at end of file
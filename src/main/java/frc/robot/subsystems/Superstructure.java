@@ -0,0 +1,200 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+
+import frc.robot.Constants;
+import frc.robot.Robot;
+import frc.robot.commands.elevator.CoralElevatorSetPositionBoth;
+import frc.robot.util.Telemetry;
+import frc.robot.util.Telemetry.NumberSignal;
+
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.InstantCommand;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+
+/** Superstructure *************************************************************
+ * The coral elevator's scoring presets as a state machine. Each State is a named
+ * climb and arm position, and only some states lead straight to each other (the
+ * arm has to come out of its stowed position before the elevator goes anywhere,
+ * for example). The route between any two states is worked out once, when the
+ * class loads: a request for a state that isn't directly reachable goes through
+ * the states in between.
+ *
+ * Requests are queued, so the operator can ask for the next state while the
+ * elevator is still on its way to the current one (e.g. score high, then back to
+ * intake) and it carries straight on when it gets there. There is one move
+ * command, retargeted at each state in turn, and the command that requests each
+ * state is made once, up front, so button presses don't make new commands, and
+ * planning each move doesn't allocate either (see ElevatorMotionPlanner).
+ *
+ * This doesn't drive any hardware itself: it schedules the moves, which require
+ * CoralElevatorSubsystem. Anything else taking over the elevator (manual control)
+ * interrupts the move, and then the queue is dropped and the superstructure no
+ * longer assumes it knows which state it's in. Requests wait in the queue until
+ * the elevator has been homed, since until then the positions mean nothing. */
+public class Superstructure extends SubsystemBase {
+
+  /** Named climb and arm positions, in motor rotations */
+  public enum State {
+    STOWED(Constants.ELEVATOR_CLIMB_NEUTRAL, Constants.ARM_MIN), // Starting configuration
+    INTAKE(Constants.ELEVATOR_CLIMB_NEUTRAL, Constants.ARM_PLAYER_INTAKE),
+    SCORE_LOW(Constants.ELEVATOR_CLIMB_LOW_GOAL, Constants.ARM_DROP),
+    SCORE_MID(Constants.ELEVATOR_CLIMB_MID_GOAL, Constants.ARM_DROP),
+    SCORE_HIGH(Constants.ELEVATOR_CLIMB_MAX, Constants.ARM_VERTICAL);
+
+    public final double climb, arm;
+
+    State(double climb, double arm) {
+      this.climb = climb;
+      this.arm = arm;
+    }
+  }
+
+  private static final int QUEUE_DEPTH = 3; // Requests waiting behind the current move
+
+  // Which states lead straight to each other (both ways)
+  private static final State[][] TRANSITIONS = {
+    {State.STOWED, State.INTAKE},
+    {State.INTAKE, State.SCORE_LOW},
+    {State.INTAKE, State.SCORE_MID},
+    {State.INTAKE, State.SCORE_HIGH},
+    {State.SCORE_LOW, State.SCORE_MID},
+    {State.SCORE_MID, State.SCORE_HIGH},
+  };
+
+  // NEXT[from][to] is the first state to move to on the way from one state to another
+  private static final State[][] NEXT = routes();
+
+  private final CoralElevatorSetPositionBoth move = new CoralElevatorSetPositionBoth(State.STOWED.arm, State.STOWED.climb);
+  private final EnumMap<State, Command> requests = new EnumMap<>(State.class);
+  private final ArrayDeque<State> queue = new ArrayDeque<>(QUEUE_DEPTH);
+  private State current = null; // Last state reached, null if unknown
+  private State moving = null; // State the elevator is moving to
+
+  // Dashboard signals (state ordinals, -1 for none)
+  private final NumberSignal stateSignal = Telemetry.number("Superstructure State");
+  private final NumberSignal movingSignal = Telemetry.number("Superstructure Moving To");
+  private final NumberSignal queueSignal = Telemetry.number("Superstructure Queued");
+
+  /** Superstructure for the coral elevator. Create after the elevator subsystem. */
+  public Superstructure() {
+    for (State state : State.values()) {
+      requests.put(state, new InstantCommand(() -> request(state)));
+    }
+  }
+
+  /** Queues a state to move to after the ones already requested. If the queue is full, the last request is replaced. */
+  public void request(State state) {
+    State last = queue.isEmpty() ? moving : queue.peekLast();
+    if (state == last) {
+      return; // Already on its way there
+    }
+    if (queue.size() == QUEUE_DEPTH) {
+      queue.pollLast();
+    }
+    queue.addLast(state);
+  }
+
+  /** Command that queues a state, for button bindings. The same instance is returned every time. */
+  public Command requestCommand(State state) {
+    return requests.get(state);
+  }
+
+  /** Drops every queued request. The move in progress carries on. */
+  public void clearQueue() {
+    queue.clear();
+  }
+
+  /** The last state the elevator reached, or null if it has moved since (or hasn't reached one yet) */
+  public State getState() {
+    return current;
+  }
+
+  /** The state the elevator is moving to now (the next one on the route to the first request), or null if it isn't moving */
+  public State getMovingTo() {
+    return moving;
+  }
+
+  /** True when the elevator is in the given state, with nothing moving or queued */
+  public boolean isAt(State state) {
+    return current == state && moving == null && queue.isEmpty();
+  }
+
+  @Override
+  public void periodic() {
+    if (moving != null && !move.isScheduled()) {
+      if (move.hasArrived()) {
+        current = moving;
+      } else {
+        current = null; // Interrupted (or couldn't plan), so the elevator is somewhere in between
+        queue.clear();
+      }
+      moving = null;
+    }
+
+    if (!Robot.m_CoralElevatorSubsystem.isHomed()) {
+      current = null; // Homing moves the elevator, and until it's done the positions mean nothing
+    }
+
+    if (moving == null && Robot.m_CoralElevatorSubsystem.isHomed()) {
+      while (!queue.isEmpty() && queue.peekFirst() == current) {
+        queue.pollFirst(); // Already there
+      }
+      if (!queue.isEmpty()) {
+        State target = queue.peekFirst();
+        // From an unknown state, the move is planned from wherever the elevator actually is
+        moving = (current == null) ? target : NEXT[current.ordinal()][target.ordinal()];
+        if (moving == target) {
+          queue.pollFirst();
+        }
+        current = null;
+        move.setTarget(moving.arm, moving.climb);
+        move.schedule();
+        if (!move.isScheduled()) { // Commands don't run while the robot is disabled
+          moving = null;
+          queue.clear();
+        }
+      }
+    }
+
+    stateSignal.set(current == null ? -1 : current.ordinal());
+    movingSignal.set(moving == null ? -1 : moving.ordinal());
+    queueSignal.set(queue.size());
+  }
+
+  // Breadth-first search from every state over TRANSITIONS, recording the first step of each shortest route
+  private static State[][] routes() {
+    State[] states = State.values();
+    boolean[][] adjacent = new boolean[states.length][states.length];
+    for (State[] transition : TRANSITIONS) {
+      adjacent[transition[0].ordinal()][transition[1].ordinal()] = true;
+      adjacent[transition[1].ordinal()][transition[0].ordinal()] = true;
+    }
+    State[][] next = new State[states.length][states.length];
+    for (State from : states) {
+      State[] first = next[from.ordinal()];
+      first[from.ordinal()] = from;
+      ArrayDeque<State> frontier = new ArrayDeque<>();
+      frontier.add(from);
+      while (!frontier.isEmpty()) {
+        State state = frontier.poll();
+        for (State neighbour : states) {
+          if (adjacent[state.ordinal()][neighbour.ordinal()] && first[neighbour.ordinal()] == null) {
+            first[neighbour.ordinal()] = (state == from) ? neighbour : first[state.ordinal()];
+            frontier.add(neighbour);
+          }
+        }
+      }
+      for (State to : states) {
+        if (first[to.ordinal()] == null) {
+          throw new IllegalStateException("Superstructure can't get from " + from + " to " + to);
+        }
+      }
+    }
+    return next;
+  }
+}
@@ -0,0 +1,395 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+/** Elevator Motion Planner ****************************************************
+ * Plans moves of the coral elevator's climb and arm together, so both axes move
+ * at the same time without the arm hitting anything. Positions are in motor
+ * rotations, the same as the Spark MAX encoders.
+ *
+ * Each axis moves along the same rest-to-rest trapezoidal profile MAXMotion
+ * runs on its Spark MAX, so a plan only has to say when to send each axis which
+ * goal, and it can predict where both axes will be at any time. The fastest move
+ * sends both goals at once (the slower axis sets the time), and when that's
+ * collision-free it's the plan. If it would take the arm through a keep-out
+ * zone, the planner tries:
+ *   1. holding one axis back until the other has cleared the zone, for as short
+ *      a time as works, and
+ *   2. going around the zone: one axis moves just outside the zone and waits
+ *      there while the other one passes, then carries on to its goal,
+ * and keeps whichever collision-free plan finishes first. Plans are checked by
+ * sampling the predicted motion every PLAN_STEP seconds.
+ *
+ * A zone the mechanism starts inside doesn't count, so it can always move out
+ * of one. A goal inside a zone can't be planned.
+ *
+ * Planning runs on the main thread when a move starts, so it doesn't allocate:
+ * the caller keeps a Plan and the planner fills it in, working in buffers of its
+ * own. One planner plans one move at a time. */
+public final class ElevatorMotionPlanner {
+  private static final double PLAN_STEP = 0.01; // Seconds between collision checks along a plan
+  private static final double DELAY_STEP = 0.02; // Seconds, one robot loop: goals can only be sent once a loop
+
+  /** A box in (climb, arm) space the mechanism must stay out of, in motor rotations */
+  public record KeepOutZone(double climbMin, double climbMax, double armMin, double armMax) {
+    public boolean contains(double climb, double arm) {
+      return climb > climbMin && climb < climbMax && arm > armMin && arm < armMax;
+    }
+  }
+
+  // What a wait being searched for holds back, see fill()
+  private enum Wait {
+    CLIMB, // The climb, going straight to its goal
+    ARM, // The arm, going straight to its goal
+    PASS, // The passing axis, going around a zone
+    LEAVE, // The parked axis leaving its via point, going around a zone
+  }
+
+  private final Axis.Limits climbLimits, armLimits;
+  private final double margin;
+  private final KeepOutZone[] zones;
+  private final boolean[] checked; // Zones plans are checked against: the ones the mechanism didn't start in
+
+  // The move being planned
+  private double climbStart, armStart, climbGoal, armGoal;
+  // The way around a zone being tried: which axis parks where, when it gets there, and when the passing axis goes
+  private boolean parkClimb;
+  private double via, arrive, passTime, passDelay;
+  private final Plan candidate = new Plan(), best = new Plan();
+
+  /** @param climbMaxVelocity, climbMaxAcceleration the climb's MAXMotion constraints, in RPM and RPM per second
+   * @param armMaxVelocity, armMaxAcceleration the arm's MAXMotion constraints
+   * @param climbMin, climbMax, armMin, armMax the range each axis can reach
+   * @param margin clearance (motor rotations) to leave when going around a zone
+   * @param zones the keep-out zones, none for no limits on how the axes move together */
+  public ElevatorMotionPlanner(double climbMaxVelocity, double climbMaxAcceleration, double armMaxVelocity, double armMaxAcceleration,
+      double climbMin, double climbMax, double armMin, double armMax, double margin, KeepOutZone... zones) {
+    climbLimits = new Axis.Limits(climbMaxVelocity / 60, climbMaxAcceleration / 60, climbMin, climbMax);
+    armLimits = new Axis.Limits(armMaxVelocity / 60, armMaxAcceleration / 60, armMin, armMax);
+    this.margin = margin;
+    this.zones = zones.clone();
+    checked = new boolean[zones.length];
+  }
+
+  /** Fills in the fastest collision-free way from the start to the goal.
+   * @return false if there isn't one, and then the plan is left as it was */
+  public boolean plan(double climbStart, double armStart, double climbGoal, double armGoal, Plan plan) {
+    for (KeepOutZone zone : zones) {
+      if (zone.contains(climbGoal, armGoal)) {
+        return false;
+      }
+    }
+    this.climbStart = climbStart;
+    this.armStart = armStart;
+    this.climbGoal = climbGoal;
+    this.armGoal = armGoal;
+    for (int i = 0; i < zones.length; i++) {
+      checked[i] = !zones[i].contains(climbStart, armStart);
+    }
+
+    // Straight there with both goals sent at once, as fast as a move can be
+    fill(best, Wait.CLIMB, 0);
+    if (zones.length == 0 || isClear(best)) {
+      plan.set(best);
+      return true;
+    }
+    best.clear();
+
+    // Straight there, holding one axis back as briefly as works
+    double climbDelay = earliest(Wait.CLIMB, 0, armLimits.moveTime(armGoal - armStart));
+    if (!Double.isNaN(climbDelay)) {
+      keepIfFaster(Wait.CLIMB, climbDelay);
+    }
+    double armDelay = earliest(Wait.ARM, 0, climbLimits.moveTime(climbGoal - climbStart));
+    if (!Double.isNaN(armDelay)) {
+      keepIfFaster(Wait.ARM, armDelay);
+    }
+
+    // Around a zone: one axis waits just outside it while the other passes
+    for (KeepOutZone zone : zones) {
+      around(true, zone.climbMin() - margin);
+      around(true, zone.climbMax() + margin);
+      around(false, zone.armMin() - margin);
+      around(false, zone.armMax() + margin);
+    }
+    if (best.isEmpty()) {
+      return false;
+    }
+    plan.set(best);
+    return true;
+  }
+
+  // The parked axis moves to its via point and waits there, the passing axis makes its whole move once the
+  // parked one is out of the way, and the parked axis carries on to its goal once the passing one is clear
+  private void around(boolean parkClimb, double via) {
+    Axis.Limits parked = parkClimb ? climbLimits : armLimits;
+    Axis.Limits passing = parkClimb ? armLimits : climbLimits;
+    if (!parked.reaches(via)) {
+      return;
+    }
+    this.parkClimb = parkClimb;
+    this.via = via;
+    arrive = parked.moveTime(via - (parkClimb ? climbStart : armStart));
+    passTime = passing.moveTime(parkClimb ? armGoal - armStart : climbGoal - climbStart);
+
+    // First how long the passing axis has to wait, with the parked one staying put until it's done
+    passDelay = earliest(Wait.PASS, 0, arrive);
+    if (Double.isNaN(passDelay)) {
+      return;
+    }
+    // Then how soon the parked axis can leave
+    double leave = earliest(Wait.LEAVE, arrive, passDelay + passTime);
+    if (!Double.isNaN(leave)) {
+      keepIfFaster(Wait.LEAVE, leave);
+    }
+  }
+
+  // Fills in the plan that holds back what the wait is for by a time (for LEAVE, the time the parked axis leaves)
+  private void fill(Plan plan, Wait wait, double delay) {
+    switch (wait) {
+      case CLIMB -> {
+        plan.climb.straight(climbLimits, climbStart, delay, climbGoal);
+        plan.arm.straight(armLimits, armStart, 0, armGoal);
+      }
+      case ARM -> {
+        plan.climb.straight(climbLimits, climbStart, 0, climbGoal);
+        plan.arm.straight(armLimits, armStart, delay, armGoal);
+      }
+      case PASS -> fillAround(plan, Math.max(arrive, delay + passTime), delay);
+      case LEAVE -> fillAround(plan, delay, passDelay);
+    }
+    plan.update();
+  }
+
+  private void fillAround(Plan plan, double leave, double passDelay) {
+    if (parkClimb) {
+      plan.climb.around(climbLimits, climbStart, via, leave, climbGoal);
+      plan.arm.straight(armLimits, armStart, passDelay, armGoal);
+    } else {
+      plan.climb.straight(climbLimits, climbStart, passDelay, climbGoal);
+      plan.arm.around(armLimits, armStart, via, leave, armGoal);
+    }
+  }
+
+  private void keepIfFaster(Wait wait, double delay) {
+    fill(candidate, wait, delay);
+    if (candidate.duration < best.duration) {
+      best.set(candidate);
+    }
+  }
+
+  // The shortest wait from min to max (in whole loops past min) that gives a collision-free plan, or NaN if even
+  // max doesn't. Waiting longer only keeps the axes further apart, so this is a binary search.
+  private double earliest(Wait wait, double min, double max) {
+    int steps = (int) Math.ceil(Math.max(max - min, 0) / DELAY_STEP);
+    fill(candidate, wait, min + steps * DELAY_STEP);
+    if (!isClear(candidate)) {
+      return Double.NaN;
+    }
+    int notClear = -1, clear = steps;
+    while (clear - notClear > 1) {
+      int middle = (notClear + clear) >>> 1;
+      fill(candidate, wait, min + middle * DELAY_STEP);
+      if (isClear(candidate)) {
+        clear = middle;
+      } else {
+        notClear = middle;
+      }
+    }
+    return min + clear * DELAY_STEP;
+  }
+
+  // Checks the predicted motion against every zone the mechanism didn't start in
+  private boolean isClear(Plan plan) {
+    for (double time = 0; ; time += PLAN_STEP) {
+      double t = Math.min(time, plan.duration);
+      double climb = plan.climb.positionAt(t);
+      double arm = plan.arm.positionAt(t);
+      for (int i = 0; i < zones.length; i++) {
+        if (checked[i] && zones[i].contains(climb, arm)) {
+          return false;
+        }
+      }
+      if (t >= plan.duration) {
+        return true;
+      }
+    }
+  }
+
+  /** A planned move. Read the goals to send each axis every loop, from the time since the move started. */
+  public static final class Plan {
+    private final Axis climb = new Axis(), arm = new Axis();
+    private double duration = Double.POSITIVE_INFINITY;
+
+    /** An empty plan for a planner to fill in. Keep one per command and reuse it for every move. */
+    public Plan() {}
+
+    /** The climb goal to send at this time into the move (its start position until it's due to move) */
+    public double getClimbGoal(double time) {
+      return climb.goalAt(time);
+    }
+
+    /** The arm goal to send at this time into the move */
+    public double getArmGoal(double time) {
+      return arm.goalAt(time);
+    }
+
+    /** Predicted climb position at this time into the move */
+    public double getClimbPosition(double time) {
+      return climb.positionAt(time);
+    }
+
+    /** Predicted arm position at this time into the move */
+    public double getArmPosition(double time) {
+      return arm.positionAt(time);
+    }
+
+    /** Where the climb ends up */
+    public double getClimbTarget() {
+      return climb.target();
+    }
+
+    /** Where the arm ends up */
+    public double getArmTarget() {
+      return arm.target();
+    }
+
+    /** Seconds into the move when the last goal is sent. The mechanism can pass through its final
+     * position on the way (e.g. an axis that moves out of the way and back), so it isn't done before this. */
+    public double getLastGoalTime() {
+      return Math.max(climb.lastSendTime(), arm.lastSendTime());
+    }
+
+    /** Seconds until both axes are predicted to arrive */
+    public double getDuration() {
+      return duration;
+    }
+
+    private boolean isEmpty() {
+      return duration == Double.POSITIVE_INFINITY;
+    }
+
+    private void clear() {
+      duration = Double.POSITIVE_INFINITY;
+    }
+
+    // After changing either axis
+    private void update() {
+      duration = Math.max(climb.endTime(), arm.endTime());
+    }
+
+    private void set(Plan plan) {
+      climb.set(plan.climb);
+      arm.set(plan.arm);
+      duration = plan.duration;
+    }
+  }
+
+  // One axis of a plan: up to two rest-to-rest moves, each sent at a set time
+  private static final class Axis {
+    private record Limits(double maxVelocity, double maxAcceleration, double min, double max) {
+      boolean reaches(double position) {
+        return position >= min && position <= max;
+      }
+
+      // Seconds a rest-to-rest trapezoidal move of this distance takes
+      double moveTime(double distance) {
+        distance = Math.abs(distance);
+        if (distance < maxVelocity * maxVelocity / maxAcceleration) { // Never reaches cruise speed
+          return 2 * Math.sqrt(distance / maxAcceleration);
+        }
+        return maxVelocity / maxAcceleration + distance / maxVelocity;
+      }
+
+      // Position t seconds into a rest-to-rest trapezoidal move
+      double position(double from, double to, double t) {
+        double distance = Math.abs(to - from);
+        double total = moveTime(distance);
+        if (t <= 0) {
+          return from;
+        }
+        if (t >= total) {
+          return to;
+        }
+        double peak = Math.min(maxVelocity, Math.sqrt(distance * maxAcceleration));
+        double accelTime = peak / maxAcceleration;
+        double travelled;
+        if (t < accelTime) {
+          travelled = 0.5 * maxAcceleration * t * t;
+        } else if (t < total - accelTime) {
+          travelled = 0.5 * peak * accelTime + peak * (t - accelTime);
+        } else {
+          double remaining = total - t;
+          travelled = distance - 0.5 * maxAcceleration * remaining * remaining;
+        }
+        return from + Math.copySign(travelled, to - from);
+      }
+    }
+
+    private Limits limits;
+    private double start;
+    private int moves; // 1 or 2 (0 until the axis is first filled in)
+    private final double[] sendTimes = new double[2];
+    private final double[] goals = new double[2];
+
+    // Straight to the goal, sent after a delay
+    void straight(Limits limits, double start, double delay, double goal) {
+      this.limits = limits;
+      this.start = start;
+      moves = 1;
+      sendTimes[0] = delay;
+      goals[0] = goal;
+    }
+
+    // To a via point straight away, then on to the goal at a set time (once it's arrived)
+    void around(Limits limits, double start, double via, double handover, double goal) {
+      this.limits = limits;
+      this.start = start;
+      moves = 2;
+      sendTimes[0] = 0;
+      goals[0] = via;
+      sendTimes[1] = handover;
+      goals[1] = goal;
+    }
+
+    void set(Axis axis) {
+      limits = axis.limits;
+      start = axis.start;
+      moves = axis.moves;
+      System.arraycopy(axis.sendTimes, 0, sendTimes, 0, moves);
+      System.arraycopy(axis.goals, 0, goals, 0, moves);
+    }
+
+    double target() {
+      return (moves == 0) ? start : goals[moves - 1];
+    }
+
+    double lastSendTime() {
+      return (moves == 0) ? 0 : sendTimes[moves - 1];
+    }
+
+    double goalAt(double time) {
+      double goal = start;
+      for (int i = 0; i < moves && time >= sendTimes[i]; i++) {
+        goal = goals[i];
+      }
+      return goal;
+    }
+
+    double positionAt(double time) {
+      double position = start;
+      for (int i = 0; i < moves && time >= sendTimes[i]; i++) {
+        double from = (i == 0) ? start : goals[i - 1];
+        position = limits.position(from, goals[i], time - sendTimes[i]);
+      }
+      return position;
+    }
+
+    double endTime() {
+      int last = moves - 1;
+      double from = (last == 0) ? start : goals[last - 1];
+      return sendTimes[last] + limits.moveTime(goals[last] - from);
+    }
+  }
+}
@@ -0,0 +1,135 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+/** Game Piece Detector ********************************************************
+ * Works out whether the end effector has a coral from the wheel motor alone:
+ * its output current, velocity and position, one sample per loop, along with
+ * the duty cycle it was told to run at (positive intakes).
+ *
+ * Intaking, the wheel spins freely until a coral reaches it, then draws more
+ * current while it pulls the coral in, and stalls once the coral is seated. A
+ * stall after the wheel has pulled for at least the seating travel is a coral
+ * held; a stall before that (the coral caught on its way in, or something in
+ * the wheel from the start) is a jam. Ejecting, the wheel draws current until
+ * the coral leaves and then spins freely again; stalling while ejecting is a
+ * jam too. The current spike of the wheel starting up is ignored.
+ *
+ * A jam stays until clearJam() is called, after whatever backs it out. Pure
+ * logic with no hardware, so it can be fed recorded or made-up samples. */
+public final class GamePieceDetector {
+  /** What's in the end effector */
+  public enum State {
+    EMPTY,
+    INTAKING, // Running inwards, no coral seated yet
+    HOLDING,
+    EJECTING, // Running outwards
+    JAMMED,
+  }
+
+  private final double loadCurrent;
+  private final double seatTravel;
+  private final double ejectTravel;
+  private final double startupTime;
+  private final double debounceTime;
+  private final StallDetector stall;
+
+  private State state = State.EMPTY;
+  private double lastDirection = 0; // Sign of the last output, runs start when it changes
+  private boolean holdingWhenEjected; // Whether a coral was held when ejecting started
+  private boolean loaded; // The wheel has drawn loadCurrent since it started this run
+  private double startPosition, loadPosition; // Wheel rotations where this run started, and where the coral first loaded it
+  private double runTime, unloadedTime; // Seconds since this run started, and since the wheel was last loaded
+
+  /** @param loadCurrent current (amps) above which something is in the wheel
+   * @param stallCurrent current (amps) above which, with the wheel barely turning, it's stalled
+   * @param stallVelocity speed (RPM) below which the wheel counts as barely turning
+   * @param seatTravel wheel rotations between a coral loading the wheel and being seated
+   * @param ejectTravel wheel rotations it takes for a coral to leave
+   * @param startupTime seconds of start-up current to ignore each time the wheel starts
+   * @param debounceTime seconds a stall or an unloaded wheel has to last */
+  public GamePieceDetector(double loadCurrent, double stallCurrent, double stallVelocity, double seatTravel, double ejectTravel,
+      double startupTime, double debounceTime) {
+    this.loadCurrent = loadCurrent;
+    this.seatTravel = seatTravel;
+    this.ejectTravel = ejectTravel;
+    this.startupTime = startupTime;
+    this.debounceTime = debounceTime;
+    stall = new StallDetector(stallCurrent, stallVelocity, debounceTime);
+  }
+
+  /** Feeds one sample, dt seconds after the last, and returns the new state.
+   * @param output duty cycle the wheel was told to run at, positive intakes
+   * @param current output current (amps)
+   * @param velocity speed (RPM)
+   * @param position wheel rotations */
+  public State update(double output, double current, double velocity, double position, double dt) {
+    boolean changed = Math.signum(output) != lastDirection; // Holding the button after the run is over doesn't start another
+    lastDirection = Math.signum(output);
+    switch (state) {
+      case EMPTY, HOLDING -> {
+        if (changed && output > 0 && state == State.EMPTY) {
+          start(State.INTAKING, position);
+        } else if (changed && output < 0) {
+          holdingWhenEjected = (state == State.HOLDING);
+          start(State.EJECTING, position);
+        }
+      }
+      case INTAKING -> {
+        if (output < 0) {
+          holdingWhenEjected = loaded;
+          start(State.EJECTING, position);
+        } else if (output == 0) {
+          state = loaded ? State.HOLDING : State.EMPTY; // Stopped part way, a coral that loaded the wheel is still in it
+        } else if (sample(current, velocity, dt)) {
+          state = (loaded && Math.abs(position - loadPosition) >= seatTravel) ? State.HOLDING : State.JAMMED;
+        } else if (!loaded && runTime >= startupTime && Math.abs(current) >= loadCurrent) {
+          loaded = true;
+          loadPosition = position;
+        }
+      }
+      case EJECTING -> {
+        if (output > 0) {
+          start(State.INTAKING, position);
+        } else if (output == 0) {
+          state = holdingWhenEjected ? State.HOLDING : State.EMPTY; // Stopped before the coral was seen leaving
+        } else if (sample(current, velocity, dt)) {
+          state = State.JAMMED;
+        } else {
+          unloadedTime = (runTime >= startupTime && Math.abs(current) < loadCurrent) ? unloadedTime + dt : 0;
+          if (Math.abs(position - startPosition) >= ejectTravel && unloadedTime >= debounceTime) {
+            state = State.EMPTY;
+          }
+        }
+      }
+      case JAMMED -> {} // Until clearJam()
+    }
+    return state;
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  /** After a jam has been backed out: the end effector is taken to be empty */
+  public void clearJam() {
+    state = State.EMPTY;
+  }
+
+  // Starts a run of the wheel in one direction
+  private void start(State state, double position) {
+    this.state = state;
+    startPosition = position;
+    loaded = false;
+    runTime = 0;
+    unloadedTime = 0;
+    stall.reset();
+  }
+
+  // One sample of the current run, true once the wheel has stalled
+  private boolean sample(double current, double velocity, double dt) {
+    runTime += dt;
+    return stall.update(current, velocity, dt);
+  }
+}
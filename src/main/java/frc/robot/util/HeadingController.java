@@ -0,0 +1,75 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.ProfiledPIDController;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import frc.robot.Constants;
+
+/** Heading Controller *********************************************************
+ * Heading hold for teleop. While the driver turns, the rotation command passes
+ * straight through. When the rotation stick goes idle, the controller picks the
+ * heading the robot would coast to a stop at (so it doesn't snap back to where
+ * the stick was released) and holds it with a profiled PID, which cancels the
+ * yaw mecanum wheels pick up while strafing.
+ *
+ * Angles are in degrees and rates in degrees/second, counterclockwise-positive
+ * like DriveSubsystem's getGyroAngle() and getTurnRate(). The output is a
+ * rotation command from -1 to 1, counterclockwise-positive like the rotation
+ * stick, so more command turns the heading up. */
+public final class HeadingController {
+  private static final double STICK_THRESHOLD = 0.01; // Rotation commands smaller than this count as an idle stick
+
+  private final double maxAngularSpeed; // Degrees/second of a full rotation command
+  private final ProfiledPIDController controller = new ProfiledPIDController(Constants.kP_HEADING_HOLD, 0, Constants.kD_HEADING_HOLD,
+      new TrapezoidProfile.Constraints(Constants.HEADING_HOLD_MAX_VELOCITY, Constants.HEADING_HOLD_MAX_ACCELERATION));
+  private boolean holding = false;
+
+  /** @param maxAngularSpeed how fast the robot turns at a full rotation command, in radians/second */
+  public HeadingController(double maxAngularSpeed) {
+    this.maxAngularSpeed = Math.toDegrees(maxAngularSpeed);
+    controller.enableContinuousInput(-180, 180);
+  }
+
+  /** The rotation command to drive with this loop.
+   * @param rotationCommand the driver's (shaped) rotation stick
+   * @param heading the robot's heading, counterclockwise-positive
+   * @param rate the robot's turn rate, counterclockwise-positive */
+  public double calculate(double rotationCommand, double heading, double rate) {
+    if (Math.abs(rotationCommand) > STICK_THRESHOLD) {
+      holding = false;
+      return rotationCommand;
+    }
+    if (!holding) {
+      // The stick was just released: the robot keeps turning while the profile slows it down, so hold where it stops
+      double stoppingDistance = rate * Math.abs(rate) / (2 * Constants.HEADING_HOLD_MAX_ACCELERATION);
+      hold(heading + stoppingDistance, heading, rate);
+    }
+    double feedback = controller.calculate(heading);
+    double feedforward = controller.getSetpoint().velocity / maxAngularSpeed;
+    return MathUtil.clamp(feedback + feedforward, -1, 1);
+  }
+
+  /** Holds a heading from now on, starting the profile from the robot's current heading and rate */
+  public void hold(double goal, double heading, double rate) {
+    controller.reset(heading, rate);
+    controller.setGoal(goal);
+    holding = true;
+  }
+
+  /** Lets go of the heading. The next idle stick holds wherever the robot is then. */
+  public void release() {
+    holding = false;
+  }
+
+  /** The heading being held (only meaningful while holding) */
+  public double getGoal() {
+    return controller.getGoal().position;
+  }
+
+  public boolean isHolding() {
+    return holding;
+  }
+}
@@ -0,0 +1,128 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.MecanumDriveWheelPositions;
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+
+/** Log Replay *****************************************************************
+ * Post-match analysis for the .wpilog files Telemetry records (copy them off the
+ * roboRIO from /home/lvuser/logs, or a USB drive if one was plugged in). Reads the
+ * drivetrain's logged raw inputs (wheel distances and gyro angle), runs them back
+ * through MecanumOdometry, and compares the result to the pose the robot logged.
+ * A large difference means the robot's odometry saw something the 50 Hz log
+ * didn't, such as a skipped update or a reset the log missed.
+ *
+ * Run on a laptop with the robot's runtime classpath:
+ *     java -cp <classpath> frc.robot.util.LogReplay FRC_20261017_123456.wpilog
+ * and it prints a summary. Pass a second argument to also write the replayed and
+ * logged poses to a CSV file for plotting. */
+public final class LogReplay {
+  private static final String GYRO = "Robot/Drive/Odometry Gyro";
+  private static final String WHEEL_POSITIONS = "Robot/Drive/Odometry Wheel Positions";
+  private static final String POSE = "Robot/Drive/Pose";
+  private static final String RESET = "Robot/Drive/Odometry Reset";
+
+  private LogReplay() {}
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.err.println("Usage: LogReplay <log.wpilog> [output.csv]");
+      return;
+    }
+    DataLogReader reader = new DataLogReader(args[0]);
+    if (!reader.isValid()) {
+      System.err.println(args[0] + " is not a valid .wpilog file");
+      return;
+    }
+    StringBuilder csv = (args.length > 1) ? new StringBuilder("time,replayed_x,replayed_y,replayed_heading,logged_x,logged_y,logged_heading\n") : null;
+
+    Map<Integer, String> entries = new HashMap<>();
+    MecanumOdometry odometry = null;
+    double gyroDegrees = 0;
+    Pose2d loggedPose = null;
+    int samples = 0;
+    double firstTime = Double.NaN, lastTime = 0, maxError = 0, maxErrorTime = 0;
+
+    for (DataLogRecord record : reader) {
+      if (record.isStart()) {
+        DataLogRecord.StartRecordData start = record.getStartData();
+        entries.put(start.entry, start.name);
+        continue;
+      }
+      String name = entries.get(record.getEntry());
+      if (name == null) {
+        continue; // Control records and entries we don't care about
+      }
+      double time = record.getTimestamp() / 1e6;
+
+      switch (name) {
+        case GYRO -> gyroDegrees = record.getDouble();
+        case POSE -> loggedPose = Pose2d.struct.unpack(buffer(record));
+        case RESET -> {
+          if (odometry != null) {
+            Pose2d pose = Pose2d.struct.unpack(buffer(record));
+            odometry.resetPose(pose.getX(), pose.getY(), pose.getRotation().getRadians());
+          }
+        }
+        case WHEEL_POSITIONS -> {
+          // Logged in the same loop as the gyro (which is only written when it changes), so the latest gyro goes with it
+          MecanumDriveWheelPositions wheels = MecanumDriveWheelPositions.struct.unpack(buffer(record));
+          double gyro = Math.toRadians(gyroDegrees);
+          if (odometry == null) {
+            odometry = new MecanumOdometry(gyro, wheels.frontLeftMeters, wheels.frontRightMeters, wheels.rearLeftMeters, wheels.rearRightMeters);
+            if (loggedPose != null) { // Start from wherever the robot thought it was
+              odometry.resetPose(loggedPose.getX(), loggedPose.getY(), loggedPose.getRotation().getRadians());
+            }
+            firstTime = time;
+          } else {
+            odometry.update(gyro, wheels.frontLeftMeters, wheels.frontRightMeters, wheels.rearLeftMeters, wheels.rearRightMeters);
+          }
+          samples++;
+          lastTime = time;
+          if (loggedPose != null) {
+            double error = Math.hypot(odometry.getX() - loggedPose.getX(), odometry.getY() - loggedPose.getY());
+            if (error > maxError) {
+              maxError = error;
+              maxErrorTime = time;
+            }
+            if (csv != null) {
+              csv.append(time).append(',').append(odometry.getX()).append(',').append(odometry.getY()).append(',')
+                  .append(Math.toDegrees(odometry.getHeadingRadians())).append(',').append(loggedPose.getX()).append(',')
+                  .append(loggedPose.getY()).append(',').append(loggedPose.getRotation().getDegrees()).append('\n');
+            }
+          }
+        }
+        default -> {}
+      }
+    }
+
+    if (odometry == null) {
+      System.out.println("No drivetrain odometry inputs in " + args[0]);
+      return;
+    }
+    System.out.printf("Replayed %d samples over %.1f s%n", samples, lastTime - firstTime);
+    System.out.printf("Replayed final pose: %s%n", odometry.getPose());
+    System.out.printf("Logged final pose:   %s%n", loggedPose);
+    System.out.printf("Largest difference:  %.3f m at t = %.2f s%n", maxError, maxErrorTime);
+    if (csv != null) {
+      Files.writeString(Path.of(args[1]), csv);
+      System.out.println("Wrote " + args[1]);
+    }
+  }
+
+  private static ByteBuffer buffer(DataLogRecord record) {
+    return ByteBuffer.wrap(record.getRaw()).order(ByteOrder.LITTLE_ENDIAN);
+  }
+}
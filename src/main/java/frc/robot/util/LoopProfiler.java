@@ -0,0 +1,240 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Constants;
+import frc.robot.util.Telemetry.NumberSignal;
+
+/** Loop Profiler **************************************************************
+ * Measures where the 20 ms robot loop goes. Each timed section (the whole loop,
+ * the scheduler, each subsystem's periodic(), each command's execute(), the
+ * dashboard flush) keeps a fixed histogram of its times, so recording a sample
+ * is a System.nanoTime() call and an array increment. About once a second the
+ * p50, p99 and max of every section are published under "Loop Time/".
+ *
+ * When a loop runs over its period, the sections that ran in that loop are
+ * logged with their times, in the order they ran, so the overrun can be pinned
+ * on something. Reports are rate limited to one per second. Only the main
+ * robot thread may use this class.
+ *
+ * It also counts the bytes the robot thread allocates each loop (the JVM keeps a
+ * per-thread counter, so this costs one call a loop), published as the average
+ * and the most in one loop under "Loop Allocation/". Garbage made every loop is
+ * what makes the garbage collector pause the robot, so the steady state should
+ * stay close to 0. */
+public final class LoopProfiler {
+  private static final double BUCKET_MS = 0.1;
+  private static final int BUCKETS = 500; // 0 to 50 ms, anything longer lands in the last bucket
+  private static final long REPORT_THRESHOLD_NANOS = 1_000_000; // Sections faster than 1 ms are left out of overrun reports
+  private static final int PUBLISH_LOOPS = 50;
+  private static final long LOOP_BUDGET_NANOS = (long) (TimedRobot.kDefaultPeriod * 1e9);
+
+  private static final ArrayList<Section> sections = new ArrayList<>();
+  private static final HashMap<String, Section> commandSections = new HashMap<>();
+  private static final Section loop = section("Loop");
+  private static final StringBuilder overrunReport = new StringBuilder(512);
+
+  private static long loopCount = 0;
+  private static long loopStartNanos;
+  private static long lastReportLoop = -PUBLISH_LOOPS;
+  private static long commandMarkNanos;
+
+  // Allocation counter for the robot thread, null if the JVM doesn't keep one
+  private static final com.sun.management.ThreadMXBean threads = allocationCounter();
+  private static long loopStartBytes;
+  private static long allocatedBytes, allocatedLoops, maxAllocatedBytes;
+  private static final NumberSignal allocationAverageSignal = Telemetry.number("Loop Allocation/average", 1, Constants.TELEMETRY_SLOW_PERIOD);
+  private static final NumberSignal allocationMaxSignal = Telemetry.number("Loop Allocation/max", 1, Constants.TELEMETRY_SLOW_PERIOD);
+
+  private LoopProfiler() {}
+
+  /** Creates a timed section. Create sections once (as fields), never inside the loop. */
+  public static Section section(String name) {
+    Section section = new Section(name);
+    sections.add(section);
+    return section;
+  }
+
+  /** Times every command's execute() through the scheduler's callbacks. Call once, after the button bindings
+   * are set up: the start mark is taken by the last binding the button loop polls, right before commands run.
+   * Each command is charged from the previous mark to the end of its execute(), which includes the previous
+   * command's isFinished() and end(). */
+  public static void profileCommands(CommandScheduler scheduler) {
+    scheduler.getDefaultButtonLoop().bind(() -> commandMarkNanos = System.nanoTime());
+    scheduler.onCommandExecute(LoopProfiler::recordCommand);
+  }
+
+  /** Call first thing in the robot loop */
+  public static void startLoop() {
+    loopCount++;
+    loopStartNanos = System.nanoTime();
+    if (threads != null) {
+      loopStartBytes = threads.getCurrentThreadAllocatedBytes();
+    }
+  }
+
+  /** Call last thing in the robot loop */
+  public static void endLoop() {
+    long elapsed = System.nanoTime() - loopStartNanos;
+    loop.record(elapsed);
+    if (threads != null) {
+      long bytes = threads.getCurrentThreadAllocatedBytes() - loopStartBytes;
+      allocatedBytes += bytes;
+      allocatedLoops++;
+      maxAllocatedBytes = Math.max(maxAllocatedBytes, bytes);
+    }
+    if (elapsed > LOOP_BUDGET_NANOS && loopCount - lastReportLoop >= PUBLISH_LOOPS) {
+      lastReportLoop = loopCount;
+      reportOverrun();
+    }
+    if (loopCount % PUBLISH_LOOPS == 0) {
+      for (int i = 0; i < sections.size(); i++) {
+        sections.get(i).publish();
+      }
+      if (allocatedLoops > 0) {
+        allocationAverageSignal.set(getAverageAllocatedBytes());
+        allocationMaxSignal.set(maxAllocatedBytes);
+      }
+    }
+  }
+
+  /** Forgets every recorded time, e.g. so each match period gets its own statistics */
+  public static void reset() {
+    for (int i = 0; i < sections.size(); i++) {
+      sections.get(i).reset();
+    }
+    allocatedBytes = 0;
+    allocatedLoops = 0;
+    maxAllocatedBytes = 0;
+  }
+
+  /** Bytes the robot thread allocated per loop on average since the last reset(), or NaN if the JVM can't tell */
+  public static double getAverageAllocatedBytes() {
+    return (allocatedLoops > 0) ? (double) allocatedBytes / allocatedLoops : Double.NaN;
+  }
+
+  /** Most bytes the robot thread allocated in one loop since the last reset() */
+  public static long getMaxAllocatedBytes() {
+    return maxAllocatedBytes;
+  }
+
+  private static com.sun.management.ThreadMXBean allocationCounter() {
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported()) {
+      bean.setThreadAllocatedMemoryEnabled(true);
+      return bean;
+    }
+    return null;
+  }
+
+  private static void recordCommand(Command command) {
+    long now = System.nanoTime();
+    Section section = commandSections.get(command.getName());
+    if (section == null) { // First time this command has run, the only time this allocates
+      section = section(command.getName());
+      commandSections.put(command.getName(), section);
+    }
+    section.record(now - commandMarkNanos);
+    commandMarkNanos = now;
+  }
+
+  private static void reportOverrun() {
+    overrunReport.setLength(0);
+    overrunReport.append("Loop overrun: ");
+    appendMillis(loop.lastNanos);
+    overrunReport.append(" ms total;");
+    for (int i = 0; i < sections.size(); i++) {
+      Section section = sections.get(i);
+      if (section != loop && section.lastLoop == loopCount && section.lastNanos >= REPORT_THRESHOLD_NANOS) {
+        overrunReport.append(' ').append(section.name).append(' ');
+        appendMillis(section.lastNanos);
+        overrunReport.append(" ms,");
+      }
+    }
+    overrunReport.setLength(overrunReport.length() - 1);
+    DriverStation.reportWarning(overrunReport.toString(), false);
+  }
+
+  // Appends nanoseconds as milliseconds with one decimal place, without going through a double
+  private static void appendMillis(long nanos) {
+    long tenths = nanos / 100_000;
+    overrunReport.append(tenths / 10).append('.').append(tenths % 10);
+  }
+
+  /** One timed piece of the loop */
+  public static final class Section {
+    private final String name;
+    private final long[] counts = new long[BUCKETS];
+    private long sampleCount;
+    private long maxNanos;
+    private long startNanos;
+    private long lastNanos; // Time spent in this section during loop lastLoop
+    private long lastLoop = -1;
+
+    private final NumberSignal p50Signal, p99Signal, maxSignal;
+
+    private Section(String name) {
+      this.name = name;
+      p50Signal = Telemetry.number("Loop Time/" + name + "/p50", BUCKET_MS, Constants.TELEMETRY_SLOW_PERIOD);
+      p99Signal = Telemetry.number("Loop Time/" + name + "/p99", BUCKET_MS, Constants.TELEMETRY_SLOW_PERIOD);
+      maxSignal = Telemetry.number("Loop Time/" + name + "/max", BUCKET_MS, Constants.TELEMETRY_SLOW_PERIOD);
+    }
+
+    public void start() {
+      startNanos = System.nanoTime();
+    }
+
+    public void stop() {
+      record(System.nanoTime() - startNanos);
+    }
+
+    private void record(long nanos) {
+      int bucket = (int) Math.min(BUCKETS - 1, nanos / (long) (BUCKET_MS * 1_000_000));
+      counts[bucket]++;
+      sampleCount++;
+      if (nanos > maxNanos) {
+        maxNanos = nanos;
+      }
+      // A section can run more than once a loop (two instances of the same command)
+      lastNanos = (lastLoop == loopCount) ? lastNanos + nanos : nanos;
+      lastLoop = loopCount;
+    }
+
+    private void publish() {
+      if (sampleCount == 0) {
+        return;
+      }
+      p50Signal.set(percentileMillis(0.50));
+      p99Signal.set(percentileMillis(0.99));
+      maxSignal.set(maxNanos / 1e6);
+    }
+
+    // Upper edge of the bucket holding the given fraction of samples
+    private double percentileMillis(double fraction) {
+      long target = (long) Math.ceil(fraction * sampleCount);
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        seen += counts[i];
+        if (seen >= target) {
+          return (i + 1) * BUCKET_MS;
+        }
+      }
+      return BUCKETS * BUCKET_MS;
+    }
+
+    private void reset() {
+      Arrays.fill(counts, 0);
+      sampleCount = 0;
+      maxNanos = 0;
+    }
+  }
+}
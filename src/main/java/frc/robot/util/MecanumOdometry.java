@@ -0,0 +1,108 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/** Mecanum Odometry ***********************************************************
+ * Allocation-free replacement for WPILib's MecanumDriveOdometry. WPILib's version
+ * builds a MecanumDriveWheelPositions, a Rotation2d, a Twist2d and a new Pose2d
+ * every update; this one keeps the pose and the previous wheel readings in
+ * primitive fields so update() creates no garbage on the roboRIO.
+ *
+ * The math matches MecanumDriveKinematics for a rectangular wheel layout (wheels
+ * at +-WHEEL_BASE/2, +-TRACK_WIDTH/2) followed by Pose2d.exp(): the chassis
+ * motion over the interval is solved from the four wheel deltas, the heading
+ * change comes from the gyro, and the motion is integrated along a constant
+ * curvature arc. Only getPose() allocates, and only when a caller asks for it. */
+public final class MecanumOdometry {
+	private double x, y, heading; // Meters, meters, radians
+	private double gyroOffset; // Radians added to the gyro to get the field heading
+
+	private double prevGyro;
+	private double prevLeftFront, prevRightFront, prevLeftBack, prevRightBack;
+
+	/** Creates odometry starting at the field origin.
+	 * @param gyroRadians current gyro heading (radians)
+	 * @param leftFront wheel distance traveled (meters), likewise for the others */
+	public MecanumOdometry(double gyroRadians, double leftFront, double rightFront, double leftBack, double rightBack) {
+		reset(gyroRadians, leftFront, rightFront, leftBack, rightBack, 0, 0, 0);
+	}
+
+	/** Moves the robot to a known pose. Wheel and gyro readings are taken as the new reference. */
+	public void reset(double gyroRadians, double leftFront, double rightFront, double leftBack, double rightBack,
+			double xMeters, double yMeters, double headingRadians) {
+		x = xMeters;
+		y = yMeters;
+		heading = headingRadians;
+		gyroOffset = headingRadians - gyroRadians;
+		prevGyro = gyroRadians;
+		prevLeftFront = leftFront;
+		prevRightFront = rightFront;
+		prevLeftBack = leftBack;
+		prevRightBack = rightBack;
+	}
+
+	/** Moves the robot to a known pose, keeping the wheel and gyro readings from the last update as the reference */
+	public void resetPose(double xMeters, double yMeters, double headingRadians) {
+		x = xMeters;
+		y = yMeters;
+		heading = headingRadians;
+		gyroOffset = headingRadians - prevGyro;
+	}
+
+	/** Integrates the motion since the previous update. Positions are wheel distances in meters. */
+	public void update(double gyroRadians, double leftFront, double rightFront, double leftBack, double rightBack) {
+		double dLeftFront = leftFront - prevLeftFront;
+		double dRightFront = rightFront - prevRightFront;
+		double dLeftBack = leftBack - prevLeftBack;
+		double dRightBack = rightBack - prevRightBack;
+
+		// Forward kinematics (pseudo-inverse of the mecanum inverse kinematics matrix).
+		// The translation terms don't depend on the wheel layout, only the rotation term does.
+		double dx = (dLeftFront + dRightFront + dLeftBack + dRightBack) / 4;
+		double dy = (-dLeftFront + dRightFront + dLeftBack - dRightBack) / 4;
+		double dTheta = gyroRadians - prevGyro; // Trust the gyro over the wheels for rotation
+
+		// Pose2d.exp(): integrate along an arc of constant curvature
+		double s, c;
+		if (Math.abs(dTheta) < 1E-9) {
+			s = 1.0 - dTheta * dTheta / 6.0;
+			c = 0.5 * dTheta;
+		} else {
+			s = Math.sin(dTheta) / dTheta;
+			c = (1 - Math.cos(dTheta)) / dTheta;
+		}
+		double localX = dx * s - dy * c;
+		double localY = dx * c + dy * s;
+
+		double cos = Math.cos(heading);
+		double sin = Math.sin(heading);
+		x += localX * cos - localY * sin;
+		y += localX * sin + localY * cos;
+		heading = gyroRadians + gyroOffset;
+
+		prevGyro = gyroRadians;
+		prevLeftFront = leftFront;
+		prevRightFront = rightFront;
+		prevLeftBack = leftBack;
+		prevRightBack = rightBack;
+	}
+
+	public double getX() {
+		return x;
+	}
+	public double getY() {
+		return y;
+	}
+	public double getHeadingRadians() {
+		return heading;
+	}
+
+	/** Builds a Pose2d from the current estimate. This is the only method that allocates. */
+	public Pose2d getPose() {
+		return new Pose2d(x, y, new Rotation2d(heading));
+	}
+}
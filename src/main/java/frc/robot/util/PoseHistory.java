@@ -0,0 +1,91 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+import java.util.Optional;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/** Pose History ***************************************************************
+ * Fixed-size ring buffer of timestamped poses, stored in primitive arrays so
+ * adding a sample never allocates. Once full, the oldest sample is overwritten.
+ * Used to look up where the robot was when a delayed measurement (like a camera
+ * frame) was taken. Not thread-safe; the owner is responsible for locking. */
+public final class PoseHistory {
+	private final double[] timestamps, xs, ys, headings;
+	private int newest = -1; // Index of the most recent sample
+	private int size = 0;
+
+	/** @param capacity number of samples kept */
+	public PoseHistory(int capacity) {
+		timestamps = new double[capacity];
+		xs = new double[capacity];
+		ys = new double[capacity];
+		headings = new double[capacity];
+	}
+
+	/** Records a pose. Timestamps are expected to increase from sample to sample. */
+	public void add(double timestamp, double x, double y, double heading) {
+		newest = (newest + 1) % timestamps.length;
+		timestamps[newest] = timestamp;
+		xs[newest] = x;
+		ys[newest] = y;
+		headings[newest] = heading;
+		if (size < timestamps.length) {
+			size++;
+		}
+	}
+
+	/** Forgets every sample */
+	public void clear() {
+		newest = -1;
+		size = 0;
+	}
+
+	/** Pose at the given timestamp, linearly interpolated between the two samples around it.
+	 * Timestamps outside the recorded range return the oldest or newest sample. */
+	public Optional<Pose2d> getPoseAt(double timestamp) {
+		if (size == 0) {
+			return Optional.empty();
+		}
+		if (timestamp >= timestamps[newest]) {
+			return Optional.of(poseAt(newest));
+		}
+		int oldest = index(size - 1);
+		if (timestamp <= timestamps[oldest]) {
+			return Optional.of(poseAt(oldest));
+		}
+
+		// Binary search by age (0 = newest) for the first sample at or before the timestamp
+		int low = 0;
+		int high = size - 1;
+		while (low < high) {
+			int mid = (low + high) / 2;
+			if (timestamps[index(mid)] <= timestamp) {
+				high = mid;
+			} else {
+				low = mid + 1;
+			}
+		}
+		int before = index(low);
+		int after = index(low - 1);
+		double t = (timestamp - timestamps[before]) / (timestamps[after] - timestamps[before]);
+		double heading = headings[before] + t * MathUtil.angleModulus(headings[after] - headings[before]);
+		return Optional.of(new Pose2d(
+				MathUtil.interpolate(xs[before], xs[after], t),
+				MathUtil.interpolate(ys[before], ys[after], t),
+				new Rotation2d(heading)));
+	}
+
+	// Array index of the sample that is `age` samples older than the newest
+	private int index(int age) {
+		return Math.floorMod(newest - age, timestamps.length);
+	}
+
+	private Pose2d poseAt(int i) {
+		return new Pose2d(xs[i], ys[i], new Rotation2d(headings[i]));
+	}
+}
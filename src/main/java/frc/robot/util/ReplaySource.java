@@ -0,0 +1,233 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+
+/** Replay Source **************************************************************
+ * Plays a .wpilog recorded on the robot back through the robot code. Every loop
+ * the subsystems log the raw readings their IO layer gave them (the
+ * "Robot/<subsystem>/Inputs/" entries); in replay the subsystems are built with
+ * replay IO layers that read those entries back instead of talking to hardware,
+ * and the driver station state and joysticks are fed to the simulated driver
+ * station. The same subsystem and command code then makes the same decisions it
+ * made in the match, and everything it computes is recorded to a new .wpilog to
+ * compare against the original.
+ *
+ * The whole log is loaded up front. Each logged drivetrain sample marks one
+ * robot loop, and Robot steps the simulated clock one loop at a time instead of
+ * waiting for it, so a match replays as fast as the code runs. Only the main
+ * robot thread may use this class. */
+public final class ReplaySource {
+  private static final String CYCLE_ENTRY = "Robot/Drive/Inputs/Timestamp"; // Logged once at the start of every loop
+  private static final String[] JOYSTICK_PREFIXES = new String[DriverStation.kJoystickPorts];
+
+  static {
+    for (int i = 0; i < JOYSTICK_PREFIXES.length; i++) {
+      JOYSTICK_PREFIXES[i] = "DS:joystick" + i + "/";
+    }
+  }
+
+  private final String path;
+  private final HashMap<String, Entry> entries = new HashMap<>();
+  private final long[] cycles; // Log timestamp (microseconds) of the start of each recorded loop
+  private int cycle = -1;
+  private long cycleStart, cycleEnd; // Current loop's window of the log
+
+  // Driver station entries, looked up once
+  private final Entry enabled, autonomous, test, estop;
+  private final Entry[] axes = new Entry[DriverStation.kJoystickPorts];
+  private final Entry[] buttons = new Entry[DriverStation.kJoystickPorts];
+  private final Entry[] povs = new Entry[DriverStation.kJoystickPorts];
+
+  /** Loads the log to replay, or returns null for normal operation: on the robot, when no path is
+   * given, or when the log can't be read (after reporting why). */
+  public static ReplaySource open(String path) {
+    if (path.isEmpty() || RobotBase.isReal()) {
+      return null;
+    }
+    try {
+      ReplaySource source = new ReplaySource(path);
+      if (source.cycles.length == 0) {
+        DriverStation.reportError("Replay log " + path + " has no drivetrain inputs, running the normal simulation", false);
+        return null;
+      }
+      source.advance(); // The subsystems take their first sample when they're constructed, from the first loop
+      return source;
+    } catch (IOException e) {
+      DriverStation.reportError("Could not read replay log " + path + ": " + e.getMessage(), e.getStackTrace());
+      return null;
+    }
+  }
+
+  private ReplaySource(String path) throws IOException {
+    this.path = path;
+    DataLogReader reader = new DataLogReader(path);
+    if (!reader.isValid()) {
+      throw new IOException("not a valid .wpilog file");
+    }
+    HashMap<Integer, Entry> byId = new HashMap<>();
+    for (DataLogRecord record : reader) {
+      if (record.isStart()) {
+        DataLogRecord.StartRecordData start = record.getStartData();
+        Entry entry = entries.computeIfAbsent(start.name, name -> new Entry(start.type));
+        byId.put(start.entry, entry);
+        continue;
+      }
+      Entry entry = byId.get(record.getEntry());
+      if (entry == null) {
+        continue; // Control records
+      }
+      Object value = switch (entry.type) {
+        case "double" -> record.getDouble();
+        case "boolean" -> record.getBoolean();
+        case "int64" -> record.getInteger();
+        case "float[]" -> record.getFloatArray();
+        case "boolean[]" -> record.getBooleanArray();
+        case "int64[]" -> record.getIntegerArray();
+        default -> null; // Strings and structs aren't inputs
+      };
+      if (value != null) {
+        entry.add(record.getTimestamp(), value);
+      }
+    }
+
+    Entry cycleEntry = entries.get(CYCLE_ENTRY);
+    cycles = (cycleEntry != null) ? Arrays.copyOf(cycleEntry.times, cycleEntry.size) : new long[0];
+
+    enabled = entry("DS:enabled");
+    autonomous = entry("DS:autonomous");
+    test = entry("DS:test");
+    estop = entry("DS:estop");
+    for (int i = 0; i < DriverStation.kJoystickPorts; i++) {
+      axes[i] = entry(JOYSTICK_PREFIXES[i] + "axes");
+      buttons[i] = entry(JOYSTICK_PREFIXES[i] + "buttons");
+      povs[i] = entry(JOYSTICK_PREFIXES[i] + "povs");
+    }
+  }
+
+  /** The log being replayed */
+  public String getPath() {
+    return path;
+  }
+
+  /** Number of robot loops in the log */
+  public int getCycleCount() {
+    return cycles.length;
+  }
+
+  /** A logged Telemetry signal (the key passed to Telemetry, without the "Robot/" prefix). Look channels
+   * up once when a replay IO layer is created; reading one every loop doesn't allocate. */
+  public Channel channel(String key) {
+    return new Channel(entry("Robot/" + key));
+  }
+
+  /** Moves on to the next recorded loop; call at the end of each robot loop. Returns false once the log runs out. */
+  public boolean advance() {
+    cycle++;
+    if (cycle >= cycles.length) {
+      return false;
+    }
+    cycleStart = cycles[cycle];
+    cycleEnd = (cycle + 1 < cycles.length) ? cycles[cycle + 1] : Long.MAX_VALUE;
+    return true;
+  }
+
+  /** Sets the simulated driver station to what the real one reported at the start of the current loop */
+  public void applyDriverStation() {
+    long time = cycleStart + 1; // The DS state the loop saw arrived before its first input was logged
+    DriverStationSim.setDsAttached(true);
+    DriverStationSim.setEnabled(enabled.getBoolean(time));
+    DriverStationSim.setAutonomous(autonomous.getBoolean(time));
+    DriverStationSim.setTest(test.getBoolean(time));
+    DriverStationSim.setEStop(estop.getBoolean(time));
+    for (int stick = 0; stick < DriverStation.kJoystickPorts; stick++) {
+      if (axes[stick].latest(time) instanceof float[] values) {
+        DriverStationSim.setJoystickAxisCount(stick, values.length);
+        for (int i = 0; i < values.length; i++) {
+          DriverStationSim.setJoystickAxis(stick, i, values[i]);
+        }
+      }
+      if (buttons[stick].latest(time) instanceof boolean[] values) {
+        DriverStationSim.setJoystickButtonCount(stick, values.length);
+        for (int i = 0; i < values.length; i++) {
+          DriverStationSim.setJoystickButton(stick, i + 1, values[i]); // Buttons are numbered from 1
+        }
+      }
+      if (povs[stick].latest(time) instanceof long[] values) {
+        DriverStationSim.setJoystickPOVCount(stick, values.length);
+        for (int i = 0; i < values.length; i++) {
+          DriverStationSim.setJoystickPOV(stick, i, (int) values[i]);
+        }
+      }
+    }
+    DriverStationSim.notifyNewData();
+  }
+
+  private Entry entry(String name) {
+    return entries.computeIfAbsent(name, n -> new Entry("")); // Missing from the log: always reads the default
+  }
+
+  /** One logged Telemetry signal */
+  public final class Channel {
+    private final Entry entry;
+
+    private Channel(Entry entry) {
+      this.entry = entry;
+    }
+
+    /** The value logged during the current loop. Signals are only logged when they change, so this is
+     * the latest value logged before the next loop started, or the default if it was never logged. */
+    public double get(double defaultValue) {
+      return (entry.latest(cycleEnd) instanceof Double value) ? value : defaultValue;
+    }
+
+    public double get() {
+      return get(0);
+    }
+  }
+
+  // Every record of one log entry, in timestamp order
+  private static final class Entry {
+    private final String type;
+    private long[] times = new long[64];
+    private Object[] values = new Object[64];
+    private int size;
+    private int cursor; // Reads only move forward in time, so each lookup picks up where the last one left off
+
+    private Entry(String type) {
+      this.type = type;
+    }
+
+    private void add(long time, Object value) {
+      if (size == times.length) {
+        times = Arrays.copyOf(times, size * 2);
+        values = Arrays.copyOf(values, size * 2);
+      }
+      times[size] = time;
+      values[size] = value;
+      size++;
+    }
+
+    // Latest value logged strictly before the given time, or null if there isn't one
+    private Object latest(long before) {
+      while (cursor + 1 < size && times[cursor + 1] < before) {
+        cursor++;
+      }
+      return (cursor < size && times[cursor] < before) ? values[cursor] : null;
+    }
+
+    private boolean getBoolean(long before) {
+      return latest(before) instanceof Boolean value && value;
+    }
+  }
+}
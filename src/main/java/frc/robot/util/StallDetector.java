@@ -0,0 +1,46 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+/** Stall Detector *************************************************************
+ * Decides a motor is stalled (against a hard stop, or jammed) from its output
+ * current and velocity: drawing at least a current while turning slower than a
+ * speed, sample after sample, for a debounce time. Both have to hold, because a
+ * motor starting from rest draws a lot of current for a moment before it gets
+ * going, and a motor that's simply stopped draws none. Feed it one sample per
+ * loop. Units are whatever the caller uses (amps, RPM, seconds). */
+public final class StallDetector {
+  private final double currentThreshold;
+  private final double velocityThreshold;
+  private final double debounceTime;
+  private double stalledTime = 0; // How long every sample has looked stalled
+
+  /** @param currentThreshold least current (either direction) that counts as stalled
+   * @param velocityThreshold fastest speed (either direction) that counts as stalled
+   * @param debounceTime how long it has to look stalled */
+  public StallDetector(double currentThreshold, double velocityThreshold, double debounceTime) {
+    this.currentThreshold = currentThreshold;
+    this.velocityThreshold = velocityThreshold;
+    this.debounceTime = debounceTime;
+  }
+
+  /** Feeds one sample, dt seconds after the last. Returns true once the motor has looked stalled for the whole debounce time. */
+  public boolean update(double current, double velocity, double dt) {
+    if (Math.abs(current) >= currentThreshold && Math.abs(velocity) <= velocityThreshold) {
+      stalledTime += dt;
+    } else {
+      stalledTime = 0;
+    }
+    return isStalled();
+  }
+
+  public boolean isStalled() {
+    return stalledTime >= debounceTime;
+  }
+
+  /** Forgets the samples so far, e.g. when the motor is started again */
+  public void reset() {
+    stalledTime = 0;
+  }
+}
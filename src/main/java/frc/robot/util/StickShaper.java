@@ -0,0 +1,92 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.Timer;
+
+/** Stick Shaper ***************************************************************
+ * Turns a raw joystick reading into a drive command. The stick is treated as a
+ * vector, so diagonals get the same treatment as straight pushes:
+ *   1. Radial deadband: inside the deadband circle the output is 0, and outside
+ *      it the magnitude is rescaled so it still starts at 0 and reaches 1 at the
+ *      edge of the stick. No stick travel is wasted.
+ *   2. Response curve: magnitude^exponent. 1 is linear, 2 or 3 give finer control
+ *      at low speed and still reach full output at full stick.
+ *   3. Magnitude limit: the whole curve is scaled down to the current speed
+ *      limit, instead of clipping each axis (which bends diagonals and leaves
+ *      the end of the stick dead).
+ *   4. Slew limit: the output vector moves towards the shaped command at no more
+ *      than slewRate (output units per second), in a straight line.
+ * For a single axis (rotation), pass 0 for y.
+ *
+ * update() stores the result in fields instead of returning an object, so it
+ * doesn't allocate; read it back with getX() and getY(). */
+public final class StickShaper {
+  private final double deadband;
+  private final double exponent;
+  private final double slewRate;
+
+  private double outputX, outputY;
+  private double lastTime;
+
+  /** @param deadband stick magnitude (0 to 1) that reads as 0
+   * @param exponent response curve exponent, 1 for linear
+   * @param slewRate fastest the output can change, per second (Double.POSITIVE_INFINITY for no limit) */
+  public StickShaper(double deadband, double exponent, double slewRate) {
+    this.deadband = deadband;
+    this.exponent = exponent;
+    this.slewRate = slewRate;
+    lastTime = Timer.getFPGATimestamp();
+  }
+
+  /** Shapes one stick reading, with the output magnitude limited to maxMagnitude */
+  public void update(double x, double y, double maxMagnitude) {
+    double now = Timer.getFPGATimestamp();
+    double dt = now - lastTime;
+    lastTime = now;
+
+    double magnitude = Math.hypot(x, y);
+    double shaped = shapeMagnitude(magnitude, deadband, exponent) * maxMagnitude;
+    double targetX = 0, targetY = 0;
+    if (shaped > 0) { // Same direction as the stick, new length
+      targetX = x / magnitude * shaped;
+      targetY = y / magnitude * shaped;
+    }
+
+    double dx = targetX - outputX;
+    double dy = targetY - outputY;
+    double step = Math.hypot(dx, dy);
+    double maxStep = slewRate * dt;
+    if (step > maxStep) {
+      dx *= maxStep / step;
+      dy *= maxStep / step;
+    }
+    outputX += dx;
+    outputY += dy;
+  }
+
+  public double getX() {
+    return outputX;
+  }
+
+  public double getY() {
+    return outputY;
+  }
+
+  /** Drops the output to 0 straight away, e.g. when teleop starts */
+  public void reset() {
+    outputX = 0;
+    outputY = 0;
+    lastTime = Timer.getFPGATimestamp();
+  }
+
+  /** Steps 1 and 2: a stick magnitude (anything past 1 counts as 1) to a shaped magnitude from 0 to 1 */
+  public static double shapeMagnitude(double magnitude, double deadband, double exponent) {
+    if (magnitude <= deadband) {
+      return 0;
+    }
+    double rescaled = (Math.min(magnitude, 1) - deadband) / (1 - deadband);
+    return Math.pow(rescaled, exponent);
+  }
+}
@@ -0,0 +1,237 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+import java.util.ArrayList;
+
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.util.datalog.BooleanLogEntry;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.StructLogEntry;
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.wpilibj.TimedRobot;
+
+/** Telemetry *****************************************************************
+ * Batched dashboard publisher. Each signal resolves its NetworkTables topic once
+ * when it is created, so the 20 ms loop only stores a double into a field. All
+ * pending values are sent together by {@link #flush()}, which Robot calls once at
+ * the end of robotPeriodic. A value is only written to NetworkTables when it has
+ * moved by more than the signal's deadband and the signal's period has elapsed.
+ *
+ * Signals are published under the "SmartDashboard" table so the existing
+ * dashboard layouts keep working with the same keys.
+ *
+ * Once Robot has started logging ({@link #startLogging}, in robotInit), every
+ * signal is also recorded to the log under "Robot/<key>", at full rate and
+ * without the dashboard deadband, so nothing is lost after the match. A log
+ * entry is only written when the value changes. DataLog buffers the records and
+ * a background thread writes them to the .wpilog file, so the loop only pays for
+ * copying the value into the buffer. Struct signals (poses, wheel states) are
+ * recorded in the log only. Until logging starts (and in unit tests, which never
+ * start it), signals don't touch the log at all. */
+public final class Telemetry {
+  private static final NetworkTable table = NetworkTableInstance.getDefault().getTable("SmartDashboard");
+  private static final ArrayList<Signal> signals = new ArrayList<>();
+  private static final ArrayList<Logged> logged = new ArrayList<>(); // Every signal, dashboard or log-only
+  private static DataLog log = null; // Null until logging starts
+  private static long loopCount = 0;
+
+  private Telemetry() {}
+
+  /** Starts recording every signal, existing and created from now on, to the given log. Calling it again moves
+   * every signal over to the new log (the replay test records a run into a file of its own this way). */
+  public static void startLogging(DataLog dataLog) {
+    log = dataLog;
+    for (int i = 0; i < logged.size(); i++) {
+      logged.get(i).startLog(log);
+    }
+  }
+
+  /** Creates a signal that is sent every loop whenever it changes */
+  public static NumberSignal number(String key) {
+    return number(key, 0.0, TimedRobot.kDefaultPeriod);
+  }
+
+  /** Creates a signal that is sent at most once per periodSeconds, and only when
+   * it has moved by more than deadband since the last value sent */
+  public static NumberSignal number(String key, double deadband, double periodSeconds) {
+    NumberSignal signal = new NumberSignal(key, table.getDoubleTopic(key).publish(), deadband, toLoops(periodSeconds), signals.size());
+    signals.add(signal);
+    return logged(signal);
+  }
+
+  /** Creates a signal that is only recorded in the log, never sent to the dashboard */
+  public static NumberSignal log(String key) {
+    return logged(new NumberSignal(key, null, 0, 1, 0));
+  }
+
+  /** Creates a struct signal (Pose2d.struct, MecanumDriveWheelPositions.struct, ...) that is only recorded in the log */
+  public static <T> StructSignal<T> struct(String key, Struct<T> struct) {
+    return logged(new StructSignal<>(key, struct));
+  }
+
+  /** Creates a boolean signal that is sent whenever it changes */
+  public static BooleanSignal bool(String key) {
+    return bool(key, TimedRobot.kDefaultPeriod);
+  }
+
+  /** Creates a boolean signal that is sent at most once per periodSeconds, and only when it changes */
+  public static BooleanSignal bool(String key, double periodSeconds) {
+    BooleanSignal signal = new BooleanSignal(key, table.getBooleanTopic(key).publish(), toLoops(periodSeconds), signals.size());
+    signals.add(signal);
+    return logged(signal);
+  }
+
+  /** Sends every signal that is due this loop. Call exactly once per robot loop. */
+  public static void flush() {
+    loopCount++;
+    for (int i = 0; i < signals.size(); i++) {
+      Signal signal = signals.get(i);
+      // Signals sharing a period are spread across loops by their registration order
+      if ((loopCount + signal.phase) % signal.periodLoops == 0) {
+        signal.send();
+      }
+    }
+  }
+
+  // Registers a new signal to be logged, starting now if logging already has
+  private static <T extends Logged> T logged(T signal) {
+    logged.add(signal);
+    if (log != null) {
+      signal.startLog(log);
+    }
+    return signal;
+  }
+
+  private static int toLoops(double periodSeconds) {
+    return Math.max(1, (int) Math.round(periodSeconds / TimedRobot.kDefaultPeriod));
+  }
+
+  private abstract static class Logged {
+    final String logName;
+
+    Logged(String key) {
+      this.logName = "Robot/" + key;
+    }
+
+    // Creates the signal's log entry
+    abstract void startLog(DataLog log);
+  }
+
+  private abstract static class Signal extends Logged {
+    final int periodLoops;
+    final int phase;
+
+    Signal(String key, int periodLoops, int index) {
+      super(key);
+      this.periodLoops = periodLoops;
+      this.phase = index % periodLoops;
+    }
+
+    abstract void send();
+  }
+
+  /** A double value on the dashboard */
+  public static final class NumberSignal extends Signal {
+    private final DoublePublisher publisher; // Null for log-only signals
+    private DoubleLogEntry logEntry; // Null until logging starts
+    private final double deadband;
+    private double value;
+    private double lastSent;
+    private boolean sentOnce = false;
+
+    private NumberSignal(String key, DoublePublisher publisher, double deadband, int periodLoops, int index) {
+      super(key, periodLoops, index);
+      this.publisher = publisher;
+      this.deadband = deadband;
+    }
+
+    /** Records the value in the log if it changed, and stores it to be sent on the next due flush */
+    public void set(double value) {
+      this.value = value;
+      if (logEntry != null) {
+        logEntry.update(value);
+      }
+    }
+
+    @Override
+    void startLog(DataLog log) {
+      logEntry = new DoubleLogEntry(log, logName);
+    }
+
+    @Override
+    void send() {
+      if (sentOnce && Math.abs(value - lastSent) <= deadband) {
+        return;
+      }
+      publisher.set(value);
+      lastSent = value;
+      sentOnce = true;
+    }
+  }
+
+  /** A boolean value on the dashboard */
+  public static final class BooleanSignal extends Signal {
+    private final BooleanPublisher publisher;
+    private BooleanLogEntry logEntry; // Null until logging starts
+    private boolean value;
+    private boolean lastSent;
+    private boolean sentOnce = false;
+
+    private BooleanSignal(String key, BooleanPublisher publisher, int periodLoops, int index) {
+      super(key, periodLoops, index);
+      this.publisher = publisher;
+    }
+
+    /** Records the value in the log if it changed, and stores it to be sent on the next due flush */
+    public void set(boolean value) {
+      this.value = value;
+      if (logEntry != null) {
+        logEntry.update(value);
+      }
+    }
+
+    @Override
+    void startLog(DataLog log) {
+      logEntry = new BooleanLogEntry(log, logName);
+    }
+
+    @Override
+    void send() {
+      if (sentOnce && value == lastSent) {
+        return;
+      }
+      publisher.set(value);
+      lastSent = value;
+      sentOnce = true;
+    }
+  }
+
+  /** A struct value recorded in the log */
+  public static final class StructSignal<T> extends Logged {
+    private final Struct<T> struct;
+    private StructLogEntry<T> logEntry; // Null until logging starts
+
+    private StructSignal(String key, Struct<T> struct) {
+      super(key);
+      this.struct = struct;
+    }
+
+    /** Records the value in the log. The value is serialized right away, so a reused object can be passed. */
+    public void set(T value) {
+      if (logEntry != null) {
+        logEntry.append(value);
+      }
+    }
+
+    @Override
+    void startLog(DataLog log) {
+      logEntry = StructLogEntry.create(log, logName, struct);
+    }
+  }
+}
@@ -0,0 +1,204 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.commands.elevator.CoralElevatorSetPositionBoth;
+import frc.robot.subsystems.Superstructure;
+
+/** Garbage the robot loop makes: the preset moves on their own, and whole robot loops through a scripted teleop
+ * session on the simulation, with the driver station played from the test */
+class TeleopAllocationTest {
+  // A teleop loop may allocate this many bytes more than a disabled one. WPILib's command scheduler names a watchdog
+  // epoch after each command it runs, a new String every loop, and that should be all the difference.
+  private static final long LOOP_SLACK = 512;
+  // A loop around a button press may allocate this many bytes more than a disabled one, for the scheduler's own
+  // bookkeeping as commands start, finish and interrupt each other. Planning a preset move used to take ~3 KB.
+  private static final long PRESS_SLACK = 1024;
+  private static final double PRESS_WINDOW = 0.5; // Seconds from a press that count as part of it
+  private static final int TRANSITION_LOOPS = 5; // Loops after enabling or disabling, which run the mode's init (and print)
+  private static final int ROUNDS = 20; // Times each preset is planned and run in presetMovesDontAllocate
+  private static final int NONE = -1; // No button or POV
+
+  // Stick positions (-1 to 1, as the controller reports them) and a held button and POV, for some number of seconds
+  private record Step(double seconds, boolean enabled, double leftX, double leftY, double rightX, int button, int pov) {
+    boolean isPress() {
+      return button != NONE || pov != NONE;
+    }
+  }
+
+  private static final Step[] SESSION = {
+    disabled(1.0),
+    drive(1.5, 0, 0, 0), // Settle, and home the elevator the first time
+    drive(2.0, 0, -0.8, 0), // Forward
+    drive(1.5, 0.6, 0, 0), // Strafe
+    drive(1.0, 0, 0, 0.7), // Turn
+    press(NONE, 90), // Score high
+    drive(3.0, -0.5, -0.5, 0), // Diagonal while the elevator moves
+    press(Constants.RIGHT_STICK_BUTTON, NONE), // Back to intake
+    drive(3.0, 0, 0.8, -0.3), // Back and turn
+    press(Constants.LEFT_STICK_BUTTON, NONE), // Robot-oriented
+    drive(2.0, -0.6, 0, 0),
+    press(Constants.LEFT_STICK_BUTTON, NONE), // Field-oriented again
+    press(Constants.LEFT_BUMPER, NONE), // Score mid
+    press(NONE, 270), // Then score low, queued
+    drive(3.0, 0, 0, 0),
+    press(Constants.RIGHT_BUMPER, NONE), // Manual elevator control
+    drive(1.0, 0.3, -0.3, 0),
+  };
+
+  private static final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  @BeforeAll
+  static void setup() {
+    assertTrue(HAL.initialize(500, 0));
+    SimHooks.pauseTiming();
+  }
+
+  @AfterAll
+  static void disable() {
+    CommandScheduler.getInstance().cancelAll();
+    DriverStationSim.setEnabled(false);
+    DriverStationSim.notifyNewData();
+  }
+
+  @Test
+  void presetMovesDontAllocate() {
+    CoralElevatorSetPositionBoth move = new CoralElevatorSetPositionBoth(Superstructure.State.STOWED.arm, Superstructure.State.STOWED.climb);
+    runPresets(move); // Warm up
+    long before = threads.getCurrentThreadAllocatedBytes();
+    runPresets(move);
+    long bytes = threads.getCurrentThreadAllocatedBytes() - before;
+    assertTrue(bytes == 0, "planning and running " + ROUNDS + " rounds of presets allocated " + bytes + " bytes");
+  }
+
+  @Test
+  void teleopLoopsStayWithinTheirBounds() {
+    Step[] timeline = timeline();
+    long[] bytes = new long[timeline.length];
+    boolean[] counted = new boolean[timeline.length];
+    try (Robot robot = new Robot()) {
+      robot.robotInit();
+      runSession(robot, timeline, null, null); // Warm up: classes load, the JIT compiles, the elevator homes
+      runSession(robot, timeline, bytes, counted);
+    }
+
+    // Loops after the session starts, the robot enables or disables, or a button is pressed
+    int[] sinceTransition = new int[timeline.length];
+    double[] sincePress = new double[timeline.length];
+    for (int loop = 0; loop < timeline.length; loop++) {
+      boolean transition = (loop == 0 || timeline[loop].enabled != timeline[loop - 1].enabled);
+      sinceTransition[loop] = transition ? 0 : sinceTransition[loop - 1] + 1;
+      boolean press = timeline[loop].isPress() && (loop == 0 || timeline[loop - 1] != timeline[loop]);
+      sincePress[loop] = press ? 0 : (loop == 0) ? Double.POSITIVE_INFINITY : sincePress[loop - 1] + TimedRobot.kDefaultPeriod;
+    }
+
+    long baseline = 0; // Most a settled disabled loop allocated
+    for (int loop = 0; loop < timeline.length; loop++) {
+      if (!timeline[loop].enabled && counted[loop] && sinceTransition[loop] >= TRANSITION_LOOPS) {
+        baseline = Math.max(baseline, bytes[loop]);
+      }
+    }
+    for (int loop = 0; loop < timeline.length; loop++) {
+      if (!timeline[loop].enabled || !counted[loop] || sinceTransition[loop] < TRANSITION_LOOPS) {
+        continue;
+      }
+      boolean nearPress = sincePress[loop] < PRESS_WINDOW;
+      long bound = baseline + (nearPress ? PRESS_SLACK : LOOP_SLACK);
+      assertTrue(bytes[loop] <= bound, "loop " + loop + (nearPress ? " (after a press)" : "") + " allocated " + bytes[loop]
+          + " bytes, a disabled loop " + baseline);
+    }
+  }
+
+  // Requests every preset and runs its move for a few loops, the way the superstructure does
+  private static void runPresets(CoralElevatorSetPositionBoth move) {
+    for (int round = 0; round < ROUNDS; round++) {
+      for (Superstructure.State state : Superstructure.State.values()) {
+        Robot.m_superstructure.request(state);
+        Robot.m_superstructure.clearQueue();
+        move.setTarget(state.arm, state.climb);
+        move.initialize();
+        for (int i = 0; i < 3; i++) {
+          move.execute();
+          move.isFinished();
+        }
+        move.end(true);
+      }
+    }
+  }
+
+  // Plays the session through the robot loop, recording the bytes each loop allocated if bytes isn't null
+  private static void runSession(Robot robot, Step[] timeline, long[] bytes, boolean[] counted) {
+    for (int loop = 0; loop < timeline.length; loop++) {
+      applyDriverStation(timeline[loop]);
+      long startBytes = threads.getCurrentThreadAllocatedBytes();
+      long startNanos = System.nanoTime();
+      robot.loopFunc();
+      long elapsed = System.nanoTime() - startNanos;
+      if (bytes != null) {
+        bytes[loop] = threads.getCurrentThreadAllocatedBytes() - startBytes;
+        // A loop that overruns gets an overrun report from the watchdog and LoopProfiler, which allocates
+        counted[loop] = elapsed < TimedRobot.kDefaultPeriod * 1e9;
+      }
+      SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+    }
+  }
+
+  // Sets the simulated driver station to a step of the session
+  private static void applyDriverStation(Step step) {
+    int stick = Constants.CONTROLLER_USB_PORT_ID;
+    DriverStationSim.setDsAttached(true);
+    DriverStationSim.setEnabled(step.enabled);
+    DriverStationSim.setAutonomous(false);
+    DriverStationSim.setTest(false);
+    DriverStationSim.setJoystickAxisCount(stick, 6);
+    DriverStationSim.setJoystickAxis(stick, Constants.LEFT_HORIZONTAL_JOYSTICK_AXIS, step.leftX);
+    DriverStationSim.setJoystickAxis(stick, Constants.LEFT_VERTICAL_JOYSTICK_AXIS, step.leftY);
+    DriverStationSim.setJoystickAxis(stick, Constants.RIGHT_HORIZONTAL_JOYSTICK_AXIS, step.rightX);
+    DriverStationSim.setJoystickButtonCount(stick, Constants.RIGHT_STICK_BUTTON);
+    for (int button = 1; button <= Constants.RIGHT_STICK_BUTTON; button++) { // Buttons are numbered from 1
+      DriverStationSim.setJoystickButton(stick, button, button == step.button);
+    }
+    DriverStationSim.setJoystickPOVCount(stick, 1);
+    DriverStationSim.setJoystickPOV(stick, 0, step.pov);
+    DriverStationSim.notifyNewData();
+  }
+
+  // The step of every loop of the session, in order
+  private static Step[] timeline() {
+    ArrayList<Step> timeline = new ArrayList<>();
+    for (Step step : SESSION) {
+      for (long i = 0; i < Math.round(step.seconds / TimedRobot.kDefaultPeriod); i++) {
+        timeline.add(step);
+      }
+    }
+    return timeline.toArray(new Step[0]);
+  }
+
+  private static Step disabled(double seconds) {
+    return new Step(seconds, false, 0, 0, 0, NONE, NONE);
+  }
+
+  private static Step drive(double seconds, double leftX, double leftY, double rightX) {
+    return new Step(seconds, true, leftX, leftY, rightX, NONE, NONE);
+  }
+
+  // Held for a few loops then released, so a Trigger sees one press
+  private static Step press(int button, int pov) {
+    return new Step(0.1, true, 0, 0, 0, button, pov);
+  }
+}
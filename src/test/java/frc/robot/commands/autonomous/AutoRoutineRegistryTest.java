@@ -0,0 +1,68 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.commands.autonomous;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.pathplanner.lib.auto.AutoBuilder;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Robot;
+import frc.robot.commands.autonomous.path_planner_auto.PathPlannerSquareAuto;
+import frc.robot.subsystems.DriveSubsystem;
+
+/** Trajectories generated on the preload thread while disabled (a cache hit), or on the spot when the routine is
+ * selected before they were (a miss) */
+class AutoRoutineRegistryTest {
+  private static final String SQUARE = "PathPlanner Square";
+  private static final long PRELOAD_TIMEOUT_MS = 5000;
+
+  private AutoRoutineRegistry registry;
+  private Command square;
+
+  @BeforeAll
+  static void setup() {
+    assertTrue(HAL.initialize(500, 0));
+    DriveSubsystem drive = Robot.m_driveSubsystem;
+    if (!AutoBuilder.isConfigured()) { // As robotInit does, the autos follow their paths through AutoBuilder
+      drive.configureAutoBuilder(Robot.m_localizationSubsystem::getPose, Robot.m_localizationSubsystem::resetPose);
+    }
+  }
+
+  @BeforeEach
+  void register() {
+    registry = new AutoRoutineRegistry(Robot.m_driveSubsystem.getRobotConfig());
+    square = new PathPlannerSquareAuto();
+    registry.setDefaultOption(SQUARE, square);
+  }
+
+  @Test
+  void aPreloadedRoutineIsACacheHit() throws InterruptedException {
+    registry.preloadAll();
+    long start = System.currentTimeMillis();
+    while (!registry.isReady(SQUARE)) {
+      assertTrue(System.currentTimeMillis() - start < PRELOAD_TIMEOUT_MS, "the preload thread never finished");
+      Thread.sleep(10);
+    }
+    assertSame(square, registry.getSelected());
+    assertEquals(1, registry.getCacheHits());
+    assertEquals(0, registry.getCacheMisses());
+    assertTrue(registry.getLoadTimeMs(SQUARE) > 0, "generating the trajectories took no time");
+  }
+
+  @Test
+  void selectingBeforePreloadingIsACacheMiss() {
+    assertSame(square, registry.getSelected());
+    assertEquals(0, registry.getCacheHits());
+    assertEquals(1, registry.getCacheMisses());
+    assertTrue(registry.isReady(SQUARE), "still not generated after being selected");
+  }
+}
@@ -0,0 +1,128 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.commands.autonomous.basic_path_planning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.Constants;
+import frc.robot.Robot;
+import frc.robot.subsystems.DriveSubsystem;
+
+/** Benchmark of Drivetrain_GyroTurn on the drivetrain simulation: how long turns take, and where they end up */
+class Drivetrain_GyroTurnTest {
+	private static final double TIMEOUT = 5; // Seconds before a turn counts as never finishing
+	private static final double SETTLE_TIME = 0.5; // Seconds after a turn to check it stayed where it finished
+	private static final double SLACK = 0.6; // Seconds a turn may take beyond its motion profile
+
+	private static DriveSubsystem drive;
+
+	@BeforeAll
+	static void setup() {
+		assertTrue(HAL.initialize(500, 0));
+		SimHooks.pauseTiming();
+		drive = Robot.m_driveSubsystem;
+	}
+
+	@BeforeEach
+	void stopRobot() {
+		step(1.0);
+	}
+
+	@Test
+	void turnsFinishWithinTheirProfile() {
+		for (double angle : new double[] {90, -90, 180, 30, -45}) {
+			double time = turn(angle);
+			assertTrue(time < profileTime(angle) + SLACK, angle + " degree turn took " + time + " s");
+		}
+	}
+
+	@Test
+	void turnsAreRepeatable() {
+		double lowest = Double.POSITIVE_INFINITY, highest = Double.NEGATIVE_INFINITY;
+		double shortest = Double.POSITIVE_INFINITY, longest = 0;
+		for (int i = 0; i < 5; i++) {
+			double start = heading();
+			double time = turn(90);
+			double error = Math.IEEEremainder(heading() - start - 90, 360);
+			lowest = Math.min(lowest, error);
+			highest = Math.max(highest, error);
+			shortest = Math.min(shortest, time);
+			longest = Math.max(longest, time);
+		}
+		assertTrue(highest - lowest < 1, "final heading varied by " + (highest - lowest) + " degrees");
+		assertTrue(longest - shortest < 0.1, "turn time varied by " + (longest - shortest) + " s");
+	}
+
+	@Test
+	void turnsTheShortWayAround() {
+		double start = heading();
+		double time = turn(270);
+		assertEquals(-90, Math.IEEEremainder(heading() - start, 360), Constants.TURNING_THRESHOLD_DEGREES);
+		assertTrue(time < profileTime(90) + SLACK, "took " + time + " s");
+	}
+
+	// Runs a turn to completion, checks it ends (and stays) within the threshold, and returns how long it took
+	private static double turn(double angle) {
+		double start = heading();
+		Drivetrain_GyroTurn command = new Drivetrain_GyroTurn(angle);
+		drive.periodic();
+		command.initialize();
+		int loops = 0;
+		while (true) {
+			drive.periodic();
+			if (command.isFinished()) {
+				break;
+			}
+			command.execute();
+			drive.simulationPeriodic();
+			SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+			assertTrue(++loops * TimedRobot.kDefaultPeriod < TIMEOUT, angle + " degree turn never finished");
+		}
+		command.end(false);
+		double time = loops * TimedRobot.kDefaultPeriod;
+
+		for (int i = 0; i < Math.round(SETTLE_TIME / TimedRobot.kDefaultPeriod); i++) { // Keep the wheels held at zero speed
+			drive.periodic();
+			command.end(false);
+			drive.simulationPeriodic();
+			SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+		}
+		double error = Math.IEEEremainder(heading() - start - angle, 360);
+		assertEquals(0, error, Constants.TURNING_THRESHOLD_DEGREES, angle + " degree turn ended " + error + " degrees off");
+		return time;
+	}
+
+	// Seconds the drivetrain's theta constraints need for a turn (trapezoidal, or triangular if it never reaches full speed)
+	private static double profileTime(double degrees) {
+		double distance = Math.toRadians(Math.abs(Math.IEEEremainder(degrees, 360)));
+		double velocity = Constants.kMAX_ANGULAR_SPEED_RADIANS_PER_SECOND;
+		double acceleration = Constants.kMAX_ANGULAR_ACCELERATION_RADIANS_PER_SECOND_SQUARED;
+		if (distance < velocity * velocity / acceleration) {
+			return 2 * Math.sqrt(distance / acceleration);
+		}
+		return distance / velocity + velocity / acceleration;
+	}
+
+	// Where the simulated robot really faces (degrees, counterclockwise-positive)
+	private static double heading() {
+		return drive.getSimulatedPose().getRotation().getDegrees();
+	}
+
+	private static void step(double seconds) {
+		for (int i = 0; i < Math.round(seconds / TimedRobot.kDefaultPeriod); i++) {
+			drive.periodic();
+			drive.driveRobotRelative(0, 0, 0);
+			drive.simulationPeriodic();
+			SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.commands.autonomous.example_basic_auto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
+import frc.robot.Robot;
+import frc.robot.commands.autonomous.basic_path_planning.Drivetrain_GyroStrafe;
+import frc.robot.commands.autonomous.basic_path_planning.Drivetrain_GyroStraight;
+import frc.robot.subsystems.DriveSubsystem;
+
+/** The chained square against the same square stopping at every corner, on the drivetrain simulation */
+class SquareAutonomousTest {
+	private static final double SIDE = 0.5; // Meters, as in SquareAutonomous
+	private static final double TIMEOUT = 15; // Seconds
+
+	private static DriveSubsystem drive;
+
+	// Where the simulated robot went during the last run, relative to where it started
+	private double time, overshoot;
+	private Pose2d end;
+
+	@BeforeAll
+	static void setup() {
+		assertTrue(HAL.initialize(500, 0));
+		SimHooks.pauseTiming();
+		drive = Robot.m_driveSubsystem;
+	}
+
+	@BeforeEach
+	void stopRobot() {
+		for (int i = 0; i < 50; i++) {
+			drive.periodic();
+			drive.driveRobotRelative(0, 0, 0);
+			drive.simulationPeriodic();
+			SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+		}
+	}
+
+	@Test
+	void chainedSquareIsFasterAndStaysOnTheSquare() {
+		run(new SequentialCommandGroup(
+			new Drivetrain_GyroStraight(SIDE, 0.3),
+			new Drivetrain_GyroStrafe(SIDE, 0.3),
+			new Drivetrain_GyroStraight(SIDE, -0.3),
+			new Drivetrain_GyroStrafe(SIDE, -0.3)));
+		double stoppingTime = time;
+
+		stopRobot();
+		run(new SquareAutonomous());
+		assertTrue(time < stoppingTime, "chained " + time + " s, stopping " + stoppingTime + " s");
+		// Stopping 0.1 of top speed sideways at PATH_MAX_ACCELERATION takes 3.2 cm, plus a little tracking lag
+		assertTrue(overshoot < 0.05, "went " + overshoot + " m outside the square");
+		assertEquals(0, end.getTranslation().getNorm(), 0.05, "ended at " + end);
+		assertEquals(0, end.getRotation().getDegrees(), 2, "ended at " + end);
+	}
+
+	// Runs an autonomous to completion, recording how long it took and how far outside the square it went
+	private void run(Command auto) {
+		Pose2d start = drive.getSimulatedPose();
+		overshoot = 0;
+		int loops = 0;
+		drive.periodic();
+		auto.initialize();
+		while (true) {
+			drive.periodic();
+			auto.execute();
+			if (auto.isFinished()) {
+				break;
+			}
+			drive.simulationPeriodic();
+			SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+			Pose2d pose = drive.getSimulatedPose().relativeTo(start);
+			overshoot = Math.max(overshoot, Math.max(Math.max(pose.getX() - SIDE, -pose.getX()), Math.max(pose.getY() - SIDE, -pose.getY())));
+			assertTrue(++loops * TimedRobot.kDefaultPeriod < TIMEOUT, "never finished");
+		}
+		auto.end(false);
+		time = loops * TimedRobot.kDefaultPeriod;
+		end = drive.getSimulatedPose().relativeTo(start);
+	}
+}
@@ -0,0 +1,134 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.commands.autonomous.path_planner_auto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.pathplanner.lib.auto.AutoBuilder;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.Robot;
+import frc.robot.subsystems.DriveSubsystem;
+import frc.robot.subsystems.LocalizationSubsystem;
+
+/** The PathPlanner autos followed end to end through AutoBuilder on the drivetrain simulation */
+class PathPlannerAutoTest {
+  private static final double TIMEOUT = 10; // Seconds
+  private static final double MOVING = 0.1; // Meters per second the robot never drops below between its first and last waypoint
+
+  private static DriveSubsystem drive;
+  private static LocalizationSubsystem localization;
+
+  // What the simulated robot did during the last run, relative to where it started
+  private Pose2d end;
+  private double slowest, farthestX, farthestY;
+
+  @BeforeAll
+  static void setup() {
+    assertTrue(HAL.initialize(500, 0));
+    SimHooks.pauseTiming();
+    DriverStationSim.setDsAttached(true);
+    DriverStationSim.setAutonomous(true);
+    DriverStationSim.setEnabled(true);
+    DriverStationSim.notifyNewData();
+    drive = Robot.m_driveSubsystem;
+    localization = Robot.m_localizationSubsystem;
+    if (!AutoBuilder.isConfigured()) { // As robotInit does
+      drive.configureAutoBuilder(localization::getPose, localization::resetPose);
+    }
+  }
+
+  @AfterAll
+  static void disable() {
+    DriverStationSim.setEnabled(false);
+    DriverStationSim.setAutonomous(false);
+    DriverStationSim.notifyNewData();
+  }
+
+  @BeforeEach
+  void stopRobot() {
+    for (int i = 0; i < 50; i++) {
+      drive.periodic();
+      localization.periodic();
+      drive.driveRobotRelative(0, 0, 0);
+      drive.simulationPeriodic();
+      SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+    }
+  }
+
+  @Test
+  void drive1MeterEndsAMeterAhead() {
+    run(new PathPlannerDrive1MeterAuto());
+    assertEquals(1, end.getX(), 0.05, "ended at " + end);
+    assertEquals(0, end.getY(), 0.05, "ended at " + end);
+    assertEquals(0, end.getRotation().getDegrees(), 2, "ended at " + end);
+    assertTrue(slowest > MOVING, "slowed to " + slowest + " m/s on the way");
+  }
+
+  @Test
+  void squareGoesRoundWithoutStoppingAndEndsWhereItStarted() {
+    run(new PathPlannerSquareAuto());
+    assertEquals(0, end.getTranslation().getNorm(), 0.05, "ended at " + end);
+    assertEquals(0, end.getRotation().getDegrees(), 2, "ended at " + end);
+    // The rounded corners cut inside the square, but it still goes most of the way out
+    assertEquals(0.5, farthestX, 0.1, "only went " + farthestX + " m forward");
+    assertEquals(0.5, farthestY, 0.1, "only went " + farthestY + " m left");
+    assertTrue(slowest > MOVING, "stopped at a corner, slowed to " + slowest + " m/s");
+  }
+
+  // Runs an auto to completion, recording where it ended, how far it went and its slowest speed once moving
+  private void run(PathFollowingAuto auto) {
+    Pose2d start = drive.getSimulatedPose();
+    Pose2d last = start;
+    double[] speeds = new double[(int) Math.round(TIMEOUT / TimedRobot.kDefaultPeriod)];
+    farthestX = 0;
+    farthestY = 0;
+    int loops = 0;
+    drive.periodic();
+    localization.periodic();
+    auto.initialize();
+    while (true) {
+      drive.periodic();
+      localization.periodic();
+      auto.execute();
+      if (auto.isFinished()) {
+        break;
+      }
+      drive.simulationPeriodic();
+      SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+      Pose2d pose = drive.getSimulatedPose();
+      speeds[loops] = pose.getTranslation().getDistance(last.getTranslation()) / TimedRobot.kDefaultPeriod;
+      last = pose;
+      Pose2d relative = pose.relativeTo(start);
+      farthestX = Math.max(farthestX, relative.getX());
+      farthestY = Math.max(farthestY, relative.getY());
+      assertTrue(++loops * TimedRobot.kDefaultPeriod < TIMEOUT, auto.getName() + " never finished");
+    }
+    auto.end(false);
+    end = drive.getSimulatedPose().relativeTo(start);
+
+    // Slowest between getting going and slowing down for the end of the path
+    int first = 0, lastMoving = loops - 1;
+    while (first < loops && speeds[first] < 2 * MOVING) {
+      first++;
+    }
+    while (lastMoving > first && speeds[lastMoving] < 2 * MOVING) {
+      lastMoving--;
+    }
+    slowest = Double.POSITIVE_INFINITY;
+    for (int i = first; i <= lastMoving; i++) {
+      slowest = Math.min(slowest, speeds[i]);
+    }
+  }
+}
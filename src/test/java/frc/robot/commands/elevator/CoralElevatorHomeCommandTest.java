@@ -0,0 +1,150 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.commands.elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.Constants;
+import frc.robot.Robot;
+import frc.robot.subsystems.CoralElevatorSubsystem;
+
+/** Homing on the elevator simulation: from the starting configuration, with the arm out (both axes at once, or around
+ * the keep-out zone when it's enabled), and with the carriage up */
+class CoralElevatorHomeCommandTest {
+  private static final double MOVE_TIME = 3; // Seconds given to move the mechanism away from its stops before homing
+
+  private static CoralElevatorSubsystem elevator;
+
+  // Where the mechanism went during the last run. The encoders read true there, since every test starts homed.
+  private double time, highestClimb, climbMovedAt, armMovedAt;
+  private boolean enteredKeepOut;
+
+  @BeforeAll
+  static void setup() {
+    assertTrue(HAL.initialize(500, 0));
+    SimHooks.pauseTiming();
+    DriverStationSim.setDsAttached(true);
+    DriverStationSim.setEnabled(true);
+    DriverStationSim.notifyNewData();
+    elevator = Robot.m_CoralElevatorSubsystem;
+  }
+
+  @AfterAll
+  static void disable() {
+    DriverStationSim.setEnabled(false);
+    DriverStationSim.notifyNewData();
+  }
+
+  @BeforeEach
+  void home() {
+    run(new CoralElevatorHomeCommand(), Constants.ELEVATOR_HOMING_TIMEOUT * 3); // Back on the stops, with the encoders right
+    assertTrue(elevator.isHomed());
+  }
+
+  @Test
+  void homesFromTheStartingConfigurationInUnderASecond() {
+    double climbStart = elevator.getPositionClimbOne();
+    run(new CoralElevatorHomeCommand(), 1);
+    assertTrue(highestClimb - climbStart < 2, "lifted the carriage " + (highestClimb - climbStart) + " rotations");
+    assertHomed();
+  }
+
+  @Test
+  void homesBothAxesAtOnce() {
+    assumeFalse(Constants.ELEVATOR_KEEP_OUT_ENABLED);
+    moveTo(Constants.ELEVATOR_CLIMB_LOW_GOAL, 0); // Arm out level, carriage a little way up
+    run(new CoralElevatorHomeCommand(), Math.max(Constants.ELEVATOR_HOMING_TIMEOUT, Constants.ARM_HOMING_TIMEOUT));
+    assertTrue(climbMovedAt < 0.5, "the carriage only started down after " + climbMovedAt + " s");
+    assertTrue(armMovedAt < 0.5, "the arm only started back after " + armMovedAt + " s");
+    assertTrue(highestClimb < Constants.ELEVATOR_CLIMB_LOW_GOAL + 2, "lifted the carriage to " + highestClimb);
+    assertHomed();
+  }
+
+  @Test
+  void liftsTheCarriageBeforeSwingingTheArmDown() {
+    assumeTrue(Constants.ELEVATOR_KEEP_OUT_ENABLED);
+    moveTo(Constants.ELEVATOR_CLIMB_NEUTRAL, 0); // Arm out level, carriage low
+    run(new CoralElevatorHomeCommand(), Constants.ELEVATOR_HOMING_TIMEOUT * 3 + Constants.ARM_HOMING_TIMEOUT);
+    assertFalse(enteredKeepOut, "swung the arm through the keep-out zone");
+    assertTrue(highestClimb >= Constants.ELEVATOR_KEEP_OUT_CLIMB_MAX, "only lifted the carriage to " + highestClimb);
+    assertHomed();
+  }
+
+  @Test
+  void homesFromHighUp() {
+    moveTo(200, Constants.ARM_HOME_POSITION); // Arm stowed, so it probes as homed and the carriage comes straight down
+    run(new CoralElevatorHomeCommand(), Constants.ELEVATOR_HOMING_TIMEOUT);
+    assertFalse(enteredKeepOut, "swung the arm through the keep-out zone");
+    assertHomed();
+  }
+
+  private void assertHomed() {
+    assertTrue(elevator.isHomed());
+    assertEquals(Constants.ELEVATOR_CLIMB_HOME_POSITION, elevator.getPositionClimbOne(), Constants.ELEVATOR_HOMING_TOLERANCE);
+    assertEquals(Constants.ARM_HOME_POSITION, elevator.getPositionArm(), Constants.ELEVATOR_HOMING_TOLERANCE);
+  }
+
+  // Runs homing to completion, failing if it takes longer than the given seconds or gives up
+  private void run(CoralElevatorHomeCommand command, double timeout) {
+    highestClimb = Double.NEGATIVE_INFINITY;
+    climbMovedAt = Double.POSITIVE_INFINITY;
+    armMovedAt = Double.POSITIVE_INFINITY;
+    enteredKeepOut = false;
+    int loops = 0;
+    elevator.periodic();
+    double climbStart = elevator.getPositionClimbOne(), armStart = elevator.getPositionArm();
+    command.initialize();
+    while (true) {
+      elevator.periodic();
+      double climb = elevator.getPositionClimbOne(), arm = elevator.getPositionArm();
+      highestClimb = Math.max(highestClimb, climb);
+      if (Math.abs(climb - climbStart) > Constants.ELEVATOR_HOMING_TOLERANCE) {
+        climbMovedAt = Math.min(climbMovedAt, loops * TimedRobot.kDefaultPeriod);
+      }
+      if (Math.abs(arm - armStart) > Constants.ELEVATOR_HOMING_TOLERANCE) {
+        armMovedAt = Math.min(armMovedAt, loops * TimedRobot.kDefaultPeriod);
+      }
+      enteredKeepOut |= climb < Constants.ELEVATOR_KEEP_OUT_CLIMB_MAX
+          && arm > Constants.ELEVATOR_KEEP_OUT_ARM_MIN && arm < Constants.ELEVATOR_KEEP_OUT_ARM_MAX;
+      command.execute();
+      if (command.isFinished()) {
+        break;
+      }
+      elevator.simulationPeriodic();
+      SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+      assertTrue(++loops * TimedRobot.kDefaultPeriod < timeout, "homing took longer than " + timeout + " s");
+    }
+    command.end(false);
+    time = loops * TimedRobot.kDefaultPeriod;
+    assertTrue(elevator.isHomed(), "gave up after " + time + " s");
+  }
+
+  // Moves the homed mechanism somewhere, with the soft limits off so the arm can be held right on its stop
+  private static void moveTo(double climb, double arm) {
+    elevator.startHoming();
+    for (int i = 0; i < Math.round(MOVE_TIME / TimedRobot.kDefaultPeriod); i++) {
+      elevator.periodic();
+      elevator.setPositionClimbOne(climb);
+      elevator.setPositionArm(arm);
+      elevator.simulationPeriodic();
+      SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+    }
+    elevator.finishHoming();
+    assertEquals(climb, elevator.getPositionClimbOne(), Constants.ELEVATOR_HOMING_TOLERANCE);
+    assertEquals(arm, elevator.getPositionArm(), Constants.ELEVATOR_HOMING_TOLERANCE);
+  }
+}
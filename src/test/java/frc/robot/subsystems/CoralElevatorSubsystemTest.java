@@ -0,0 +1,192 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Constants;
+import frc.robot.Robot;
+import frc.robot.commands.elevator.CoralElevatorHomeCommand;
+import frc.robot.commands.elevator.CoralElevatorSetPositionArmCommand;
+import frc.robot.commands.elevator.CoralElevatorSetPositionClimbCommand;
+
+/** Benchmark of the climb and arm set-position moves on the elevator simulation: how long each preset takes against
+ * its MAXMotion profile and against the clamped P loop the commands used to run, and where it ends up */
+class CoralElevatorSubsystemTest {
+  private static final double SLACK = 0.5; // Seconds a move may take beyond its motion profile
+  // The clamped P loops the set-position commands used to run: gain, then the smallest and largest output
+  private static final double OLD_CLIMB_KP = 0.05, OLD_CLIMB_MIN = 0.05, OLD_CLIMB_MAX = 0.5; // Clamped to 0.5 past 0.2, as it was
+  private static final double OLD_ARM_KP = 0.04, OLD_ARM_MIN = 0.05, OLD_ARM_MAX = 0.2;
+  private static final double TIMEOUT = 10; // Seconds before a move counts as never finishing
+
+  private static CoralElevatorSubsystem elevator;
+
+  @BeforeAll
+  static void setup() {
+    assertTrue(HAL.initialize(500, 0));
+    SimHooks.pauseTiming();
+    DriverStationSim.setDsAttached(true);
+    DriverStationSim.setEnabled(true); // As in a match, so the motor outputs are live
+    DriverStationSim.notifyNewData();
+    elevator = Robot.m_CoralElevatorSubsystem;
+  }
+
+  @AfterAll
+  static void disable() {
+    DriverStationSim.setEnabled(false);
+    DriverStationSim.notifyNewData();
+  }
+
+  @BeforeEach
+  void home() {
+    run(new CoralElevatorHomeCommand(), 3 * Constants.ELEVATOR_HOMING_TIMEOUT);
+    assertTrue(elevator.isHomed());
+  }
+
+  @Test
+  void climbReachesEachPresetWithinItsProfile() {
+    CoralElevatorSetPositionClimbCommand move = new CoralElevatorSetPositionClimbCommand(0);
+    for (double goal : new double[] {Constants.ELEVATOR_CLIMB_LOW_GOAL, Constants.ELEVATOR_CLIMB_MID_GOAL, Constants.ELEVATOR_CLIMB_NEUTRAL}) {
+      double distance = Math.abs(goal - elevator.getPositionClimbOne());
+      move.setTarget(goal);
+      double time = run(move, TIMEOUT);
+      double profile = profileTime(distance, Constants.ELEVATOR_MAX_VELOCITY, Constants.ELEVATOR_MAX_ACCELERATION);
+      assertTrue(time < profile + SLACK, "climb to " + goal + " took " + time + " s, its profile " + profile + " s");
+      assertEquals(goal, elevator.getPositionClimbOne(), 3, "climb stopped short of " + goal);
+    }
+  }
+
+  @Test
+  void armReachesEachPresetWithinItsProfile() {
+    CoralElevatorSetPositionArmCommand move = new CoralElevatorSetPositionArmCommand(0);
+    for (double goal : new double[] {Constants.ARM_DROP, Constants.ARM_VERTICAL, Constants.ARM_PLAYER_INTAKE, Constants.ARM_MIN}) {
+      double distance = Math.abs(goal - elevator.getPositionArm());
+      move.setTarget(goal);
+      double time = run(move, TIMEOUT);
+      double profile = profileTime(distance, Constants.ARM_MAX_VELOCITY, Constants.ARM_MAX_ACCELERATION);
+      assertTrue(time < profile + SLACK, "arm to " + goal + " took " + time + " s, its profile " + profile + " s");
+      assertEquals(goal, elevator.getPositionArm(), 0.5, "arm stopped short of " + goal);
+    }
+  }
+
+  @Test
+  void climbPresetsAreFasterThanTheOldPLoop() {
+    CoralElevatorSetPositionClimbCommand move = new CoralElevatorSetPositionClimbCommand(0);
+    for (double goal : new double[] {Constants.ELEVATOR_CLIMB_LOW_GOAL, Constants.ELEVATOR_CLIMB_MID_GOAL, Constants.ELEVATOR_CLIMB_MAX}) {
+      move.setTarget(Constants.ELEVATOR_CLIMB_NEUTRAL);
+      run(move, TIMEOUT);
+      double old = runOldClimb(goal);
+      move.setTarget(Constants.ELEVATOR_CLIMB_NEUTRAL);
+      run(move, TIMEOUT);
+      move.setTarget(goal);
+      double time = run(move, TIMEOUT);
+      assertTrue(time < old, "climb to " + goal + " took " + time + " s, the old P loop " + old + " s");
+    }
+  }
+
+  @Test
+  void armPresetsAreFasterThanTheOldPLoop() {
+    CoralElevatorSetPositionArmCommand move = new CoralElevatorSetPositionArmCommand(0);
+    for (double goal : new double[] {Constants.ARM_DROP, Constants.ARM_VERTICAL, Constants.ARM_PLAYER_INTAKE}) {
+      move.setTarget(Constants.ARM_MIN);
+      run(move, TIMEOUT);
+      double old = runOldArm(goal);
+      move.setTarget(Constants.ARM_MIN);
+      run(move, TIMEOUT);
+      move.setTarget(goal);
+      double time = run(move, TIMEOUT);
+      assertTrue(time < old, "arm to " + goal + " took " + time + " s, the old P loop " + old + " s");
+    }
+  }
+
+  // Runs a command to completion on the elevator simulation and returns how long it took
+  private static double run(Command command, double timeout) {
+    int loops = 0;
+    elevator.periodic();
+    command.initialize();
+    while (true) {
+      elevator.periodic();
+      command.execute();
+      if (command.isFinished()) {
+        break;
+      }
+      elevator.simulationPeriodic();
+      SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+      assertTrue(++loops * TimedRobot.kDefaultPeriod < timeout, command.getName() + " never finished");
+    }
+    command.end(false);
+    return loops * TimedRobot.kDefaultPeriod;
+  }
+
+  // Runs the old climb P loop to a position and returns how long it took, or TIMEOUT if it never got there (its
+  // smallest output can't always hold the carriage up against gravity)
+  private static double runOldClimb(double goal) {
+    int loops = 0;
+    elevator.periodic();
+    while (loops * TimedRobot.kDefaultPeriod < TIMEOUT) {
+      elevator.periodic();
+      double error = goal - elevator.getPositionClimbOne();
+      if (Math.abs(error) < 3) { // The old goal threshold
+        break;
+      }
+      double output = OLD_CLIMB_KP * error;
+      if (Math.abs(output) > 0.2) {
+        output = Math.copySign(OLD_CLIMB_MAX, output);
+      }
+      if (Math.abs(output) < OLD_CLIMB_MIN) {
+        output = Math.copySign(OLD_CLIMB_MIN, output);
+      }
+      elevator.setSpeedClimbOne(output);
+      elevator.simulationPeriodic();
+      SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+      loops++;
+    }
+    elevator.stopClimb();
+    return Math.min(loops * TimedRobot.kDefaultPeriod, TIMEOUT);
+  }
+
+  // Runs the old arm P loop, with its gravity compensation, to a position and returns how long it took, or TIMEOUT
+  private static double runOldArm(double goal) {
+    int loops = 0;
+    elevator.periodic();
+    while (loops * TimedRobot.kDefaultPeriod < TIMEOUT) {
+      elevator.periodic();
+      double error = goal - elevator.getPositionArm();
+      if (Math.abs(error) <= 0.5) {
+        break;
+      }
+      double output = MathUtil.clamp(OLD_ARM_KP * error, -OLD_ARM_MAX, OLD_ARM_MAX);
+      if (Math.abs(output) < OLD_ARM_MIN) {
+        output = Math.copySign(OLD_ARM_MIN, output);
+      }
+      elevator.setSpeedArm(output - elevator.getGravityControl());
+      elevator.simulationPeriodic();
+      SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+      loops++;
+    }
+    elevator.stopArm();
+    return Math.min(loops * TimedRobot.kDefaultPeriod, TIMEOUT);
+  }
+
+  // Seconds a rest-to-rest MAXMotion move takes, with constraints in motor RPM and RPM per second
+  private static double profileTime(double distance, double maxVelocity, double maxAcceleration) {
+    double velocity = maxVelocity / 60, acceleration = maxAcceleration / 60;
+    if (distance < velocity * velocity / acceleration) {
+      return 2 * Math.sqrt(distance / acceleration);
+    }
+    return distance / velocity + velocity / acceleration;
+  }
+}
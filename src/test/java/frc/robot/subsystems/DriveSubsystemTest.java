@@ -0,0 +1,319 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.spark.SparkMax;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.MecanumDriveWheelSpeeds;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.Constants;
+import frc.robot.Robot;
+
+/** Closed-loop wheel control against open-loop MecanumDrive and the drivetrain simulation */
+class DriveSubsystemTest {
+	// Records what DriveSubsystem sends to each motor, with every sensor reading 0
+	private static class RecordingIO implements DriveIO {
+		final double[] dutyCycle = new double[4];
+		final double[] volts = new double[4];
+
+		@Override
+		public void updateInputs(DriveInputs inputs) {}
+		@Override
+		public void readOdometry(double[] sample) {}
+		@Override
+		public void setDutyCycle(int wheel, double dutyCycle) {
+			this.dutyCycle[wheel] = dutyCycle;
+		}
+		@Override
+		public void setVoltage(int wheel, double volts) {
+			this.volts[wheel] = volts;
+		}
+		@Override
+		public boolean isReplay() {
+			return true; // No odometry thread
+		}
+	}
+
+	// Sensors that move on whenever the test says, reading position everywhere
+	private static final class MovingIO extends RecordingIO {
+		double position;
+
+		@Override
+		public void updateInputs(DriveInputs inputs) {
+			inputs.leftFrontPosition = inputs.rightFrontPosition = inputs.leftBackPosition = inputs.rightBackPosition = position;
+		}
+	}
+
+	// Spark MAXes of its own (CAN IDs no real motor uses), counting every encoder read through the handles it hands
+	// out and every NavX read. It says it's a replay so periodic() updates odometry too, and the count covers the
+	// odometry thread's reads.
+	private static final class CountingSparkMaxIO extends DriveIOSparkMax {
+		static int reads; // Static, since openEncoder() runs before this class's fields are set
+		static final List<RelativeEncoder> encoders = new ArrayList<>(); // In wheel order
+
+		CountingSparkMaxIO() {
+			super(41, 42, 43, 44);
+		}
+
+		@Override
+		protected RelativeEncoder openEncoder(SparkMax motor) {
+			RelativeEncoder encoder = motor.getEncoder();
+			RelativeEncoder counted = (RelativeEncoder) Proxy.newProxyInstance(RelativeEncoder.class.getClassLoader(),
+				new Class<?>[] {RelativeEncoder.class}, (proxy, method, args) -> {
+					if (method.getName().startsWith("get")) {
+						reads++;
+					}
+					return method.invoke(encoder, args);
+				});
+			encoders.add(counted);
+			return counted;
+		}
+		@Override
+		protected double readGyroAngle() {
+			reads++;
+			return super.readGyroAngle();
+		}
+		@Override
+		protected double readGyroRate() {
+			reads++;
+			return super.readGyroRate();
+		}
+		@Override
+		protected double readPitch() {
+			reads++;
+			return super.readPitch();
+		}
+		@Override
+		protected double readRoll() {
+			reads++;
+			return super.readRoll();
+		}
+		@Override
+		public boolean isReplay() {
+			return true;
+		}
+	}
+
+	// The drivetrain's getters before they read the sampled inputs: each one went to the hardware through
+	// getEncoder() or the NavX, and periodic() and Robot's dashboard made their own reads besides
+	private static final class PollingDrivetrain {
+		private final CountingSparkMaxIO io;
+
+		PollingDrivetrain(CountingSparkMaxIO io) {
+			this.io = io;
+		}
+
+		void periodic() {
+			io.readGyroAngle(); // odometry.update(getRotation2d(), getWheelPositions())
+			wheelPositions();
+			wheelPositions(); // The four positions on the dashboard
+			io.readPitch(); // Robot's gyroscope pitch, yaw and roll on the dashboard
+			io.readGyroAngle();
+			io.readRoll();
+		}
+
+		// What one caller (a command, telemetry or the wheel controllers) asks for, as in the test below
+		void ask() {
+			position(DriveIO.LEFT_FRONT);
+			position(DriveIO.RIGHT_BACK);
+			wheelSpeeds(); // getWheelSpeeds()
+			wheelPositions(); // getWheelPositions()
+			wheelSpeeds(); // getAverageEncoderSpeed()
+			io.readGyroAngle(); // getGyroAngle()
+			io.readGyroRate(); // getTurnRate()
+			wheelSpeeds(); // setWheelSpeeds() measuring every wheel for its PID
+		}
+
+		private double position(int wheel) {
+			return CountingSparkMaxIO.encoders.get(wheel).getPosition() / Constants.DRIVE_GEAR_RATIO;
+		}
+		private double speed(int wheel) {
+			return CountingSparkMaxIO.encoders.get(wheel).getVelocity() / Constants.DRIVE_GEAR_RATIO;
+		}
+		private void wheelPositions() {
+			for (int wheel = 0; wheel < 4; wheel++) {
+				position(wheel);
+			}
+		}
+		private void wheelSpeeds() {
+			for (int wheel = 0; wheel < 4; wheel++) {
+				speed(wheel);
+			}
+		}
+	}
+
+	private static DriveSubsystem drive; // Robot's drivetrain, on the simulation
+
+	@BeforeAll
+	static void setup() {
+		assertTrue(HAL.initialize(500, 0));
+		SimHooks.pauseTiming(); // The odometry thread only runs when the test steps the clock
+		drive = Robot.m_driveSubsystem;
+	}
+
+	@BeforeEach
+	void stopRobot() {
+		run(0, 0, 0, 1.0);
+	}
+
+	@Test
+	void closedLoopTurnsEachMotorTheWayOpenLoopDoes() {
+		RecordingIO io = new RecordingIO();
+		DriveSubsystem recorded = new DriveSubsystem(io);
+		double[][] commands = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}, {0.5, -0.5, 0.3}, {-0.4, 0.2, -0.6}}; // Forward, left, counterclockwise
+		for (double[] command : commands) {
+			recorded.driveCartesian(command[0], command[1], command[2]);
+			recorded.driveRobotRelative(command[0] * Constants.MAX_DRIVE_SPEED, command[1] * Constants.MAX_DRIVE_SPEED,
+				command[2] * DriveSubsystem.kMaxAngularSpeed);
+			for (int wheel = 0; wheel < 4; wheel++) {
+				assertTrue(Math.abs(io.dutyCycle[wheel]) > 0.01);
+				assertEquals(Math.signum(io.dutyCycle[wheel]), Math.signum(io.volts[wheel]), "wheel " + wheel);
+			}
+		}
+	}
+
+	@Test
+	void sensorsAreReadOnceALoopHoweverManyCallersAsk() {
+		CountingSparkMaxIO io = new CountingSparkMaxIO();
+		DriveSubsystem sampled = new DriveSubsystem(io);
+		PollingDrivetrain polling = new PollingDrivetrain(io);
+		int lastPolled = 0;
+		for (int callers = 1; callers <= 4; callers++) {
+			CountingSparkMaxIO.reads = 0;
+			sampled.periodic();
+			sampled.getPitch(); // Robot's dashboard
+			sampled.getYaw();
+			sampled.getRoll();
+			for (int i = 0; i < callers; i++) {
+				ask(sampled);
+			}
+			int reads = CountingSparkMaxIO.reads;
+
+			CountingSparkMaxIO.reads = 0;
+			polling.periodic();
+			for (int i = 0; i < callers; i++) {
+				polling.ask();
+			}
+			int polled = CountingSparkMaxIO.reads;
+
+			// updateInputs(): 8 encoder and 4 NavX reads. readOdometry(): 4 encoder and 1 NavX.
+			assertEquals(17, reads, callers + " callers");
+			assertTrue(polled > lastPolled, callers + " callers polled " + polled + " times");
+			assertTrue(reads < polled, callers + " callers: sampled " + reads + " reads, polled " + polled);
+			lastPolled = polled;
+		}
+	}
+
+	@Test
+	void everyCallerSeesTheSameReadingsWithinALoop() {
+		MovingIO io = new MovingIO();
+		DriveSubsystem moving = new DriveSubsystem(io);
+		for (int loop = 0; loop < 4; loop++) {
+			io.position += 1;
+			moving.periodic();
+			double leftFront = moving.getLeftFrontPosition();
+			io.position += 1; // The sensors move on during the loop
+			for (int i = 0; i < 3; i++) {
+				ask(moving);
+				assertEquals(leftFront, moving.getLeftFrontPosition());
+				assertEquals(leftFront, moving.getRightBackPosition());
+			}
+		}
+	}
+
+	@Test
+	void wheelsTrackTheirSetpoints() {
+		run(2.0, 1.0, 0.5, 1.5);
+		MecanumDriveWheelSpeeds setpoint = drive.getkDriveKinematics().toWheelSpeeds(new ChassisSpeeds(2.0, 1.0, 0.5));
+		MecanumDriveWheelSpeeds measured = drive.getWheelSpeeds();
+		assertEquals(setpoint.frontLeftMetersPerSecond, measured.frontLeftMetersPerSecond, 0.1);
+		assertEquals(setpoint.frontRightMetersPerSecond, measured.frontRightMetersPerSecond, 0.1);
+		assertEquals(setpoint.rearLeftMetersPerSecond, measured.rearLeftMetersPerSecond, 0.1);
+		assertEquals(setpoint.rearRightMetersPerSecond, measured.rearRightMetersPerSecond, 0.1);
+	}
+
+	@Test
+	void forwardDrivesForward() {
+		Pose2d start = drive.getSimulatedPose();
+		run(2.0, 0, 0, 1.0);
+		Pose2d moved = drive.getSimulatedPose().relativeTo(start);
+		assertTrue(moved.getX() > 1.5, "moved " + moved);
+		assertEquals(0, moved.getY(), 0.05);
+		assertEquals(0, moved.getRotation().getDegrees(), 1);
+	}
+
+	@Test
+	void leftStrafesLeft() {
+		Pose2d start = drive.getSimulatedPose();
+		run(0, 2.0, 0, 1.0);
+		Pose2d moved = drive.getSimulatedPose().relativeTo(start);
+		assertTrue(moved.getY() > 1.5, "moved " + moved);
+		assertEquals(0, moved.getX(), 0.05);
+		assertEquals(0, moved.getRotation().getDegrees(), 1);
+	}
+
+	@Test
+	void positiveOmegaTurnsCounterclockwise() {
+		Pose2d start = drive.getSimulatedPose();
+		run(0, 0, 2.0, 1.0);
+		Pose2d moved = drive.getSimulatedPose().relativeTo(start);
+		assertTrue(moved.getRotation().getDegrees() > 80, "moved " + moved);
+		assertEquals(0, moved.getTranslation().getNorm(), 0.05);
+	}
+
+	@Test
+	void headingIsCounterclockwiseEverywhere() {
+		Pose2d start = drive.getSimulatedPose();
+		Pose2d odometryStart = drive.getPose();
+		double gyroStart = drive.getGyroAngle();
+		run(0, 0, 1.0, 0.5);
+		assertTrue(drive.getTurnRate() > 30);
+		double turned = drive.getSimulatedPose().getRotation().minus(start.getRotation()).getDegrees();
+		assertTrue(turned > 10, "turned " + turned);
+		assertEquals(turned, drive.getGyroAngle() - gyroStart, 0.5);
+		assertEquals(turned, drive.getRotation2d().minus(Rotation2d.fromDegrees(gyroStart)).getDegrees(), 0.5);
+		assertEquals(turned, drive.getPose().getRotation().minus(odometryStart.getRotation()).getDegrees(), 0.5);
+	}
+
+	// What one caller (a command, telemetry or the wheel controllers) asks the drivetrain for in a loop
+	private static void ask(DriveSubsystem drivetrain) {
+		drivetrain.getLeftFrontPosition();
+		drivetrain.getRightBackPosition();
+		drivetrain.getWheelSpeeds();
+		drivetrain.getWheelPositions();
+		drivetrain.getAverageEncoderSpeed();
+		drivetrain.getGyroAngle();
+		drivetrain.getTurnRate();
+		drivetrain.getPose();
+		drivetrain.driveRobotRelative(1, 0, 0); // setWheelSpeeds reads the measured wheel speeds
+	}
+
+	// Drives at robot-relative speeds (m/s, m/s, rad/s) for some seconds of simulated time
+	private static void run(double vx, double vy, double omega, double seconds) {
+		for (int loop = 0; loop < Math.round(seconds / TimedRobot.kDefaultPeriod); loop++) {
+			drive.periodic();
+			drive.driveRobotRelative(vx, vy, omega);
+			drive.simulationPeriodic();
+			SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+		}
+		drive.periodic(); // Read the speeds the last step ended at
+	}
+}
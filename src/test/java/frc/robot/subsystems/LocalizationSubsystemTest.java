@@ -0,0 +1,100 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform2d;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.Robot;
+
+/** Vision fusion on the drivetrain simulation and PhotonVision's simulated camera: odometry started off from where
+ * the robot really is, pulled back onto it by the AprilTags the camera sees, and delayed measurements applied where
+ * the robot was when they were taken */
+class LocalizationSubsystemTest {
+	// In front of the blue reef, facing it: tags 17, 18 and 19 are 1.5 to 2 meters ahead
+	private static final Pose2d FACING_REEF = new Pose2d(2.0, 4.03, Rotation2d.kZero);
+	// How far off odometry starts from the simulated robot
+	private static final Transform2d ODOMETRY_ERROR = new Transform2d(0.5, -0.3, Rotation2d.fromDegrees(10));
+
+	private static DriveSubsystem drive;
+	private static LocalizationSubsystem localization;
+
+	@BeforeAll
+	static void setup() {
+		assertTrue(HAL.initialize(500, 0));
+		SimHooks.pauseTiming(); // The odometry and vision threads only run when the test steps the clock
+		drive = Robot.m_driveSubsystem;
+		localization = Robot.m_localizationSubsystem;
+	}
+
+	@Test
+	void theCameraPullsOdometryOntoTheRobot() {
+		place(FACING_REEF);
+		localization.resetPose(FACING_REEF.plus(ODOMETRY_ERROR));
+		for (int i = 0; i < 150; i++) { // 3 seconds of camera frames
+			step(0, true);
+		}
+		assertTrue(localization.hasTarget(), "the camera never saw a tag");
+		Pose2d error = localization.getPose().relativeTo(drive.getSimulatedPose());
+		assertEquals(0, error.getTranslation().getNorm(), 0.05, "fused pose off by " + error);
+		assertEquals(0, error.getRotation().getDegrees(), 2, "fused pose off by " + error);
+	}
+
+	@Test
+	void aDelayedMeasurementCorrectsWhereTheRobotWas() {
+		double delay = 0.2; // Seconds, at 1 m/s a measurement applied to the current pose would be 20 cm behind
+		int delayLoops = (int) Math.round(delay / TimedRobot.kDefaultPeriod);
+		double[] times = new double[delayLoops + 1];
+		Pose2d[] truth = new Pose2d[delayLoops + 1];
+
+		place(FACING_REEF);
+		localization.resetPose(FACING_REEF.plus(ODOMETRY_ERROR));
+		int loops = delayLoops + 25; // Up to speed, without the camera
+		for (int i = 0; i < loops; i++) {
+			step(1, false);
+			times[i % times.length] = Timer.getFPGATimestamp();
+			truth[i % truth.length] = drive.getSimulatedPose(); // Where the odometry thread sampled it up to this time
+		}
+		// A measurement of where the robot was delay ago (the oldest recorded), trusted far more than odometry
+		int then = loops % times.length;
+		localization.addVisionMeasurement(truth[then], times[then], VecBuilder.fill(0.001, 0.001, 0.001));
+		drive.periodic();
+		localization.periodic();
+
+		Pose2d error = localization.getPose().relativeTo(drive.getSimulatedPose());
+		assertEquals(0, error.getTranslation().getNorm(), 0.02, "fused pose off by " + error);
+		assertEquals(0, error.getRotation().getDegrees(), 0.5, "fused pose off by " + error);
+	}
+
+	// Puts the simulated robot somewhere and lets it settle, so nothing is left over from before
+	private static void place(Pose2d pose) {
+		drive.resetSimulatedPose(pose);
+		for (int i = 0; i < 10; i++) {
+			step(0, false);
+		}
+	}
+
+	// One robot loop, driving forward at speed (meters/second), with or without the simulated camera
+	private static void step(double speed, boolean camera) {
+		drive.periodic();
+		localization.periodic();
+		drive.driveRobotRelative(speed, 0, 0);
+		drive.simulationPeriodic();
+		if (camera) {
+			localization.simulationPeriodic();
+		}
+		SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+	}
+}
@@ -0,0 +1,147 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.PowerDistribution;
+import edu.wpi.first.wpilibj.PowerDistribution.ModuleType;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.BatterySim;
+import edu.wpi.first.wpilibj.simulation.RoboRioSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.Constants;
+import frc.robot.Robot;
+
+/** The power budget holding the simulated battery above brownout through a pushing fight, and a benchmark of the PDH
+ * readings' main-loop cost on the simulated PDH: PowerSubsystem's periodic, which picks up the background sampler's
+ * latest snapshot, against the reads periodic used to make itself every loop */
+class PowerSubsystemTest {
+  private static final int LOOPS = 20000; // Loops timed for each
+  private static final int CHANNELS = 20; // Channels the old periodic read one at a time
+  // A pushing fight: the four drive motors, the climb and the arm all at full output, slowing from free speed to a
+  // stall over STALL_TIME as the robot is pushed to a stop
+  private static final DCMotor MOTORS = DCMotor.getNEO(6);
+  private static final double BATTERY_RESISTANCE = 0.02; // Ohms, BatterySim's default battery
+  private static final double STALL_TIME = 1; // Seconds
+  private static final double FIGHT_TIME = 3; // Seconds
+
+  private static PowerSubsystem power;
+
+  @BeforeAll
+  static void setup() {
+    assertTrue(HAL.initialize(500, 0));
+    SimHooks.pauseTiming(); // The sampler only runs when the test steps the clock
+    power = Robot.m_powerSubsystem;
+  }
+
+  @BeforeEach
+  void chargeBattery() {
+    RoboRioSim.setVInVoltage(BatterySim.calculateDefaultBatteryLoadedVoltage());
+    for (int i = 0; i < Math.round(2 / TimedRobot.kDefaultPeriod); i++) { // Until the budget has recovered
+      power.periodic();
+      SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+    }
+    assertEquals(1, power.getOutputScale(), 1e-9);
+  }
+
+  @Test
+  void withoutTheBudgetAPushingFightBrownsOut() {
+    assertTrue(pushingFight(false) < Constants.BROWNOUT_VOLTAGE);
+  }
+
+  @Test
+  void theBudgetKeepsTheBatteryAboveBrownout() {
+    double lowest = pushingFight(true);
+    assertTrue(lowest > Constants.BROWNOUT_VOLTAGE + 0.25, "the battery sagged to " + lowest + " V");
+    assertTrue(power.getOutputScale() < 1);
+  }
+
+  @Test
+  void theBudgetRecoversGradually() {
+    pushingFight(true);
+    double scale = power.getOutputScale();
+    RoboRioSim.setVInVoltage(BatterySim.calculateDefaultBatteryLoadedVoltage()); // The fight is over
+    for (int i = 0; i < 10; i++) {
+      power.periodic();
+      SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+    }
+    double recovered = power.getOutputScale() - scale;
+    assertTrue(recovered > 0, "didn't recover");
+    assertTrue(recovered <= Constants.POWER_BUDGET_RECOVERY_RATE * 10 * TimedRobot.kDefaultPeriod + 1e-9, "recovered " + recovered);
+  }
+
+  @Test
+  void theSamplerKeepsTheSnapshotFresh() {
+    double before = power.getSnapshot().timestamp();
+    SimHooks.stepTiming(2 / Constants.PDH_SAMPLE_FREQUENCY);
+    assertTrue(power.getSnapshot().timestamp() > before, "the snapshot wasn't updated");
+  }
+
+  @Test
+  void periodicCostsLessThanPollingThePDH() {
+    // A second PDH, so the old reads don't share a module with the sampler. The simulated PDH answers from memory,
+    // so this understates the old cost: on the robot each of these reads waits on the CAN bus.
+    try (PowerDistribution pdh = new PowerDistribution(2, ModuleType.kRev)) {
+      double[] currents = new double[CHANNELS];
+      timePolling(pdh, currents); // Warm up
+      timePeriodic();
+      double polling = timePolling(pdh, currents);
+      double periodic = timePeriodic();
+      assertTrue(periodic < polling, "periodic took " + periodic + " us a loop, polling the PDH " + polling + " us");
+    }
+  }
+
+  // Runs the pushing fight on the simulated battery, with the motors' outputs scaled by the budget if budgeted, and
+  // returns the lowest the battery voltage got
+  private static double pushingFight(boolean budgeted) {
+    double lowest = Double.POSITIVE_INFINITY;
+    for (int i = 0; i < Math.round(FIGHT_TIME / TimedRobot.kDefaultPeriod); i++) {
+      double speed = MOTORS.freeSpeedRadPerSec * Math.max(0, 1 - i * TimedRobot.kDefaultPeriod / STALL_TIME);
+      double scale = budgeted ? power.getOutputScale() : 1;
+      // The motors' current at this speed with the battery sagging under it, I = (scale V - speed / Kv) / R and
+      // V = nominal - I resistance solved together, since each loop's current sets that loop's voltage
+      double backEmf = speed / MOTORS.KvRadPerSecPerVolt;
+      double current = Math.max(0, scale * BatterySim.calculateDefaultBatteryLoadedVoltage() - backEmf)
+          / (MOTORS.rOhms + scale * BATTERY_RESISTANCE);
+      double voltage = BatterySim.calculateDefaultBatteryLoadedVoltage(current);
+      lowest = Math.min(lowest, voltage);
+      RoboRioSim.setVInVoltage(voltage);
+      power.periodic();
+      SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+    }
+    return lowest;
+  }
+
+  // Microseconds a loop of periodic() takes
+  private static double timePeriodic() {
+    long start = System.nanoTime();
+    for (int i = 0; i < LOOPS; i++) {
+      power.periodic();
+    }
+    return (System.nanoTime() - start) / 1e3 / LOOPS;
+  }
+
+  // Microseconds a loop of the reads the old periodic made takes, without publishing any of them
+  private static double timePolling(PowerDistribution pdh, double[] currents) {
+    double sum = 0;
+    long start = System.nanoTime();
+    for (int i = 0; i < LOOPS; i++) {
+      sum += pdh.getVoltage() + pdh.getTotalCurrent() + pdh.getTotalPower();
+      for (int channel = 0; channel < CHANNELS; channel++) {
+        currents[channel] = pdh.getCurrent(channel);
+      }
+    }
+    double time = (System.nanoTime() - start) / 1e3 / LOOPS;
+    assertTrue(sum >= 0 && currents[0] >= 0); // So the reads aren't optimized away
+    return time;
+  }
+}
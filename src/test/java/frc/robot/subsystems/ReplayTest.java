@@ -0,0 +1,196 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.util.datalog.DataLogWriter;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Constants;
+import frc.robot.util.ReplaySource;
+import frc.robot.util.Telemetry;
+
+/** Deterministic replay: a short simulated drive recorded to a .wpilog, then played back through ReplaySource,
+ * DriveIOReplay and ElevatorIOReplay. Given the same inputs, the replayed subsystems have to end up with the same
+ * pose and ask for the same motor outputs as the recorded ones, loop for loop. */
+class ReplayTest {
+	private static final int LOOPS = 150; // 3 seconds
+	private static final double TOLERANCE = 1e-9; // The replayed encoders go through the gear ratio and back, so only rounding differs
+
+	// Simulated drivetrain at spare CAN IDs, keeping the voltage last sent to each wheel
+	private static final class RecordedDriveIO extends DriveIOSim {
+		final double[] volts = new double[4];
+
+		RecordedDriveIO() {
+			super(45, 46, 47, 48);
+		}
+
+		@Override
+		public void setVoltage(int wheel, double volts) {
+			this.volts[wheel] = volts;
+			super.setVoltage(wheel, volts);
+		}
+	}
+
+	private static final class ReplayedDriveIO extends DriveIOReplay {
+		final double[] volts = new double[4];
+
+		ReplayedDriveIO(ReplaySource replay) {
+			super(replay);
+		}
+
+		@Override
+		public void setVoltage(int wheel, double volts) {
+			this.volts[wheel] = volts;
+		}
+	}
+
+	// Simulated elevator at spare CAN IDs, keeping the climb and arm targets and feedforwards and the wheel output
+	private static final class RecordedElevatorIO extends ElevatorIOSim {
+		final double[] outputs = new double[5];
+
+		RecordedElevatorIO() {
+			super(50, 51, 52);
+		}
+
+		@Override
+		public void setClimbPosition(double position, double feedforward) {
+			outputs[0] = position;
+			outputs[1] = feedforward;
+			super.setClimbPosition(position, feedforward);
+		}
+
+		@Override
+		public void setArmPosition(double position, double feedforward) {
+			outputs[2] = position;
+			outputs[3] = feedforward;
+			super.setArmPosition(position, feedforward);
+		}
+
+		@Override
+		public void setWheelDutyCycle(double dutyCycle) {
+			outputs[4] = dutyCycle;
+			super.setWheelDutyCycle(dutyCycle);
+		}
+	}
+
+	private static final class ReplayedElevatorIO extends ElevatorIOReplay {
+		final double[] outputs = new double[5];
+
+		ReplayedElevatorIO(ReplaySource replay) {
+			super(replay);
+		}
+
+		@Override
+		public void setClimbPosition(double position, double feedforward) {
+			outputs[0] = position;
+			outputs[1] = feedforward;
+		}
+
+		@Override
+		public void setArmPosition(double position, double feedforward) {
+			outputs[2] = position;
+			outputs[3] = feedforward;
+		}
+
+		@Override
+		public void setWheelDutyCycle(double dutyCycle) {
+			outputs[4] = dutyCycle;
+		}
+	}
+
+	private static DriveSubsystem drive, replayedDrive;
+	private static CoralElevatorSubsystem elevator, replayedElevator;
+
+	@BeforeAll
+	static void setup() {
+		assertTrue(HAL.initialize(500, 0));
+		SimHooks.pauseTiming(); // Every record in a loop gets that loop's timestamp, as it would on the robot
+		DriverStationSim.setDsAttached(true);
+		DriverStationSim.setEnabled(true); // The simulated Spark MAXes only apply output while enabled
+		DriverStationSim.notifyNewData();
+	}
+
+	@AfterAll
+	static void disable() {
+		// None of these belong to the robot, so other tests running the scheduler mustn't update them
+		CommandScheduler.getInstance().unregisterSubsystem(drive, elevator, replayedDrive, replayedElevator);
+		DriverStationSim.setEnabled(false);
+		DriverStationSim.notifyNewData();
+	}
+
+	@Test
+	void theReplayDoesExactlyWhatTheRecordedRunDid() throws IOException {
+		// Record: the simulated drive, with every Telemetry signal logged to a file of its own
+		Path file = Files.createTempFile("replay", ".wpilog");
+		DataLogWriter log = new DataLogWriter(file.toString());
+		RecordedDriveIO driveIO = new RecordedDriveIO();
+		RecordedElevatorIO elevatorIO = new RecordedElevatorIO();
+		drive = new DriveSubsystem(driveIO);
+		elevator = new CoralElevatorSubsystem(elevatorIO);
+		Telemetry.startLogging(log);
+
+		Pose2d[] poses = new Pose2d[LOOPS];
+		double[][] driveOutputs = new double[LOOPS][];
+		double[][] elevatorOutputs = new double[LOOPS][];
+		for (int i = 0; i < LOOPS; i++) {
+			drive.periodic();
+			elevator.periodic();
+			command(i, drive, elevator);
+			poses[i] = drive.getPose();
+			driveOutputs[i] = driveIO.volts.clone();
+			elevatorOutputs[i] = elevatorIO.outputs.clone();
+			drive.simulationPeriodic();
+			elevator.simulationPeriodic();
+			SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+		}
+		log.flush();
+		assertTrue(poses[LOOPS - 1].getTranslation().getNorm() > 1, "the recorded robot only got to " + poses[LOOPS - 1]);
+
+		// Replay: the same code and the same commands, fed the logged inputs instead of the simulation
+		ReplaySource replay = ReplaySource.open(file.toString());
+		assertNotNull(replay, "couldn't open the recorded log");
+		assertEquals(LOOPS, replay.getCycleCount());
+		ReplayedDriveIO replayedDriveIO = new ReplayedDriveIO(replay);
+		ReplayedElevatorIO replayedElevatorIO = new ReplayedElevatorIO(replay);
+		replayedDrive = new DriveSubsystem(replayedDriveIO);
+		replayedElevator = new CoralElevatorSubsystem(replayedElevatorIO);
+		for (int i = 0; i < LOOPS; i++) {
+			replayedDrive.periodic();
+			replayedElevator.periodic();
+			command(i, replayedDrive, replayedElevator);
+			Pose2d pose = replayedDrive.getPose();
+			assertEquals(poses[i].getX(), pose.getX(), TOLERANCE, "loop " + i + " pose");
+			assertEquals(poses[i].getY(), pose.getY(), TOLERANCE, "loop " + i + " pose");
+			assertEquals(poses[i].getRotation().getRadians(), pose.getRotation().getRadians(), TOLERANCE, "loop " + i + " pose");
+			assertArrayEquals(driveOutputs[i], replayedDriveIO.volts, TOLERANCE, "loop " + i + " drive voltages");
+			assertArrayEquals(elevatorOutputs[i], replayedElevatorIO.outputs, TOLERANCE, "loop " + i + " elevator outputs");
+			replay.advance();
+		}
+	}
+
+	// What the drive and elevator are told to do each loop, the same in the recorded run and the replay
+	private static void command(int loop, DriveSubsystem drive, CoralElevatorSubsystem elevator) {
+		drive.driveRobotRelative(1.0, 0.5 * Math.sin(loop * 0.05), (loop < LOOPS / 2) ? 0.8 : -0.8);
+		elevator.setPositionClimbOne(Constants.ELEVATOR_CLIMB_LOW_GOAL);
+		elevator.setPositionArm(Constants.ARM_DROP); // The arm's feedforward comes from its logged position
+		elevator.setSpeedWheel(0.5);
+	}
+}
@@ -0,0 +1,202 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.BatterySim;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.RoboRioSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.Commands;
+import frc.robot.Robot;
+import frc.robot.commands.elevator.CoralElevatorHomeCommand;
+import frc.robot.subsystems.Superstructure.State;
+
+/** The superstructure's state machine through the command scheduler on the elevator simulation: routes through the
+ * states in between, the request queue, interruptions and homing */
+class SuperstructureTest {
+  private static final double TIMEOUT = 20; // Seconds for every queued move to finish
+
+  private static Superstructure superstructure;
+  private static CoralElevatorSubsystem elevator;
+
+  // Every state the elevator moved to during the last run, in order
+  private final List<State> route = new ArrayList<>();
+
+  @BeforeAll
+  static void setup() {
+    assertTrue(HAL.initialize(500, 0));
+    SimHooks.pauseTiming();
+    RoboRioSim.setVInVoltage(BatterySim.calculateDefaultBatteryLoadedVoltage());
+    DriverStationSim.setDsAttached(true);
+    DriverStationSim.setEnabled(true); // Commands don't run while disabled
+    DriverStationSim.notifyNewData();
+    superstructure = Robot.m_superstructure;
+    elevator = Robot.m_CoralElevatorSubsystem;
+    elevator.removeDefaultCommand(); // Manual control, if a Robot has been set up for teleop
+  }
+
+  @AfterAll
+  static void disable() {
+    CommandScheduler.getInstance().cancelAll();
+    DriverStationSim.setEnabled(false);
+    DriverStationSim.notifyNewData();
+  }
+
+  @BeforeEach
+  void intake() {
+    CommandScheduler.getInstance().cancelAll();
+    superstructure.clearQueue();
+    if (!elevator.isHomed()) {
+      home();
+    }
+    superstructure.request(State.INTAKE);
+    runUntilIdle();
+    assertTrue(superstructure.isAt(State.INTAKE));
+  }
+
+  @Test
+  void goesThroughTheStatesInBetween() {
+    superstructure.request(State.STOWED);
+    runUntilIdle();
+    superstructure.request(State.SCORE_HIGH); // Not straight from stowed: the arm comes out to intake first
+    runUntilIdle();
+    assertEquals(List.of(State.INTAKE, State.SCORE_HIGH), route);
+    assertTrue(superstructure.isAt(State.SCORE_HIGH));
+    assertEquals(State.SCORE_HIGH.climb, elevator.getPositionClimbOne(), 3);
+    assertEquals(State.SCORE_HIGH.arm, elevator.getPositionArm(), 0.5);
+
+    superstructure.request(State.STOWED);
+    runUntilIdle();
+    assertEquals(List.of(State.INTAKE, State.STOWED), route);
+  }
+
+  @Test
+  void aQueuedRequestStartsAsSoonAsTheMoveArrives() {
+    superstructure.request(State.SCORE_LOW);
+    loop(); // Moving
+    superstructure.request(State.SCORE_MID); // Queued behind it
+    runUntilIdle();
+    assertEquals(List.of(State.SCORE_LOW, State.SCORE_MID), route); // Without stopping in between, which ends the run
+    assertTrue(superstructure.isAt(State.SCORE_MID));
+  }
+
+  @Test
+  void theQueueHoldsThreeAndReplacesTheLast() {
+    superstructure.request(State.SCORE_LOW);
+    loop(); // Moving
+    superstructure.request(State.SCORE_MID);
+    superstructure.request(State.SCORE_HIGH);
+    superstructure.request(State.SCORE_LOW);
+    superstructure.request(State.INTAKE); // Full, so this takes SCORE_LOW's place
+    runUntilIdle();
+    assertEquals(List.of(State.SCORE_LOW, State.SCORE_MID, State.SCORE_HIGH, State.INTAKE), route);
+    assertTrue(superstructure.isAt(State.INTAKE));
+  }
+
+  @Test
+  void anInterruptionDropsTheQueueAndTheState() {
+    superstructure.request(State.SCORE_HIGH);
+    superstructure.request(State.SCORE_MID);
+    for (int i = 0; i < 10; i++) {
+      loop();
+    }
+    Command manual = Commands.run(() -> {}, elevator); // Taking over the elevator, as manual control does
+    manual.schedule();
+    loop();
+    manual.cancel();
+    run(() -> false, 3);
+    assertNull(superstructure.getState());
+    assertNull(superstructure.getMovingTo());
+    assertEquals(List.of(), route, "carried on with the queue after being interrupted");
+  }
+
+  @Test
+  void requestsWaitForHoming() {
+    elevator.startHoming(); // As after a reboot: not homed until the home command has run
+    elevator.finishHoming();
+    superstructure.request(State.SCORE_LOW);
+    for (int i = 0; i < 10; i++) {
+      loop();
+      assertNull(superstructure.getMovingTo(), "moved before homing");
+    }
+    home();
+    runUntilIdle();
+    assertEquals(List.of(State.SCORE_LOW), route);
+    assertTrue(superstructure.isAt(State.SCORE_LOW));
+  }
+
+  @Test
+  void aButtonPressDoesntAllocate() {
+    for (State state : State.values()) {
+      assertSame(superstructure.requestCommand(state), superstructure.requestCommand(state));
+    }
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    State[] states = State.values(); // values() copies the array every call
+    long bytes = 0;
+    for (int run = 0; run < 2; run++) { // The first run warms up the JIT, and the allocation counter itself
+      long before = threads.getCurrentThreadAllocatedBytes();
+      for (int i = 0; i < 1000; i++) {
+        for (State state : states) {
+          // What the button binding does with the command on a press
+          Command press = superstructure.requestCommand(state);
+          press.initialize();
+          press.execute();
+          press.end(false);
+        }
+        superstructure.clearQueue();
+      }
+      bytes = threads.getCurrentThreadAllocatedBytes() - before;
+    }
+    assertTrue(bytes == 0, "5000 presses allocated " + bytes + " bytes");
+  }
+
+  private void home() {
+    new CoralElevatorHomeCommand().schedule();
+    run(elevator::isHomed, TIMEOUT);
+  }
+
+  // Runs the robot until the superstructure isn't moving any more, recording the states it moved to
+  private void runUntilIdle() {
+    run(() -> superstructure.getMovingTo() == null, TIMEOUT);
+    assertTrue(superstructure.getMovingTo() == null, "never finished, moved to " + route);
+  }
+
+  // Runs the robot until done (at least one loop) or for at most some seconds, recording the states moved to
+  private void run(BooleanSupplier done, double seconds) {
+    route.clear();
+    int loops = 0;
+    do {
+      loop();
+      State moving = superstructure.getMovingTo();
+      if (moving != null && (route.isEmpty() || route.get(route.size() - 1) != moving)) {
+        route.add(moving);
+      }
+    } while (!done.getAsBoolean() && ++loops * TimedRobot.kDefaultPeriod < seconds);
+  }
+
+  // One robot loop: every subsystem's periodic, the commands, and the simulation
+  private static void loop() {
+    CommandScheduler.getInstance().run();
+    SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+  }
+}
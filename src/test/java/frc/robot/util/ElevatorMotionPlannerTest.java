@@ -0,0 +1,122 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.Constants;
+
+/** Plans on the elevator's own constraints, with and without the keep-out zone, and what planning costs */
+class ElevatorMotionPlannerTest {
+  private static final ElevatorMotionPlanner.KeepOutZone ZONE = new ElevatorMotionPlanner.KeepOutZone(Constants.ELEVATOR_CLIMB_MIN,
+      Constants.ELEVATOR_KEEP_OUT_CLIMB_MAX, Constants.ELEVATOR_KEEP_OUT_ARM_MIN, Constants.ELEVATOR_KEEP_OUT_ARM_MAX);
+  private static final int PLANS = 1000; // Plans timed and counted for allocations
+
+  @Test
+  void withoutZonesBothAxesGoStraightAway() {
+    ElevatorMotionPlanner.Plan plan = new ElevatorMotionPlanner.Plan();
+    assertTrue(planner().plan(0, Constants.ARM_MIN, Constants.ELEVATOR_CLIMB_MID_GOAL, Constants.ARM_DROP, plan));
+    assertEquals(Constants.ELEVATOR_CLIMB_MID_GOAL, plan.getClimbGoal(0));
+    assertEquals(Constants.ARM_DROP, plan.getArmGoal(0));
+    assertEquals(0, plan.getLastGoalTime());
+    double climbTime = moveTime(Constants.ELEVATOR_CLIMB_MID_GOAL, Constants.ELEVATOR_MAX_VELOCITY, Constants.ELEVATOR_MAX_ACCELERATION);
+    double armTime = moveTime(Constants.ARM_DROP - Constants.ARM_MIN, Constants.ARM_MAX_VELOCITY, Constants.ARM_MAX_ACCELERATION);
+    assertEquals(Math.max(climbTime, armTime), plan.getDuration(), 1e-9);
+  }
+
+  @Test
+  void goesAroundTheZone() {
+    ElevatorMotionPlanner.Plan straight = new ElevatorMotionPlanner.Plan();
+    ElevatorMotionPlanner.Plan plan = new ElevatorMotionPlanner.Plan();
+    planner().plan(0, Constants.ARM_MIN, Constants.ELEVATOR_CLIMB_MID_GOAL, Constants.ARM_VERTICAL, straight);
+    assertTrue(passesThroughZone(straight)); // So there is something to plan around
+
+    assertTrue(planner(ZONE).plan(0, Constants.ARM_MIN, Constants.ELEVATOR_CLIMB_MID_GOAL, Constants.ARM_VERTICAL, plan));
+    assertFalse(passesThroughZone(plan));
+    assertTrue(plan.getDuration() > straight.getDuration());
+    assertEquals(Constants.ELEVATOR_CLIMB_MID_GOAL, plan.getClimbTarget());
+    assertEquals(Constants.ARM_VERTICAL, plan.getArmTarget());
+    assertEquals(Constants.ELEVATOR_CLIMB_MID_GOAL, plan.getClimbPosition(plan.getDuration()), 1e-9);
+    assertEquals(Constants.ARM_VERTICAL, plan.getArmPosition(plan.getDuration()), 1e-9);
+  }
+
+  @Test
+  void aGoalInsideTheZoneCantBePlanned() {
+    ElevatorMotionPlanner.Plan plan = new ElevatorMotionPlanner.Plan();
+    assertTrue(planner(ZONE).plan(0, Constants.ARM_MIN, 0, Constants.ARM_DROP, plan));
+    double duration = plan.getDuration();
+    assertFalse(planner(ZONE).plan(0, Constants.ARM_MIN, 0, (ZONE.armMin() + ZONE.armMax()) / 2, plan));
+    assertEquals(duration, plan.getDuration()); // Left as it was
+  }
+
+  @Test
+  void canLeaveAZoneItStartsIn() {
+    ElevatorMotionPlanner.Plan plan = new ElevatorMotionPlanner.Plan();
+    assertTrue(planner(ZONE).plan(0, (ZONE.armMin() + ZONE.armMax()) / 2, 0, Constants.ARM_DROP, plan));
+    assertEquals(Constants.ARM_DROP, plan.getArmTarget());
+  }
+
+  @Test
+  void planningDoesntAllocate() {
+    ElevatorMotionPlanner planner = planner(ZONE);
+    ElevatorMotionPlanner.Plan plan = new ElevatorMotionPlanner.Plan();
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    planAroundTheZone(planner, plan); // Warm up
+    long before = threads.getCurrentThreadAllocatedBytes();
+    planAroundTheZone(planner, plan);
+    long bytes = threads.getCurrentThreadAllocatedBytes() - before;
+    assertTrue(bytes < 1024, PLANS + " plans allocated " + bytes + " bytes");
+  }
+
+  @Test
+  void planningAroundTheZoneTakesUnderAMillisecond() {
+    ElevatorMotionPlanner planner = planner(ZONE);
+    ElevatorMotionPlanner.Plan plan = new ElevatorMotionPlanner.Plan();
+    planAroundTheZone(planner, plan); // Warm up
+    long start = System.nanoTime();
+    planAroundTheZone(planner, plan);
+    double average = (System.nanoTime() - start) / 1e6 / PLANS;
+    assertTrue(average < 1, "took " + average + " ms a plan");
+  }
+
+  // Plans the move that has to go around the zone PLANS times
+  private static void planAroundTheZone(ElevatorMotionPlanner planner, ElevatorMotionPlanner.Plan plan) {
+    for (int i = 0; i < PLANS; i++) {
+      assertTrue(planner.plan(0, Constants.ARM_MIN, Constants.ELEVATOR_CLIMB_MID_GOAL, Constants.ARM_VERTICAL, plan));
+    }
+  }
+
+  private static ElevatorMotionPlanner planner(ElevatorMotionPlanner.KeepOutZone... zones) {
+    return new ElevatorMotionPlanner(Constants.ELEVATOR_MAX_VELOCITY, Constants.ELEVATOR_MAX_ACCELERATION,
+        Constants.ARM_MAX_VELOCITY, Constants.ARM_MAX_ACCELERATION, Constants.ELEVATOR_CLIMB_MIN, Constants.ELEVATOR_CLIMB_MAX,
+        Constants.ARM_MIN, Constants.ARM_MAX, Constants.ELEVATOR_KEEP_OUT_MARGIN, zones);
+  }
+
+  // Whether the predicted motion enters the zone, checked every millisecond. The planner checks every 10 ms, when
+  // the axes can be up to a rotation further on, so the zone is shrunk by that much.
+  private static boolean passesThroughZone(ElevatorMotionPlanner.Plan plan) {
+    for (double time = 0; time <= plan.getDuration(); time += 0.001) {
+      double climb = plan.getClimbPosition(time), arm = plan.getArmPosition(time);
+      if (climb > ZONE.climbMin() + 1 && climb < ZONE.climbMax() - 1 && arm > ZONE.armMin() + 1 && arm < ZONE.armMax() - 1) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Seconds a rest-to-rest trapezoidal move takes, with constraints in RPM and RPM per second
+  private static double moveTime(double distance, double maxVelocity, double maxAcceleration) {
+    double velocity = maxVelocity / 60, acceleration = maxAcceleration / 60;
+    if (distance < velocity * velocity / acceleration) {
+      return 2 * Math.sqrt(distance / acceleration);
+    }
+    return distance / velocity + velocity / acceleration;
+  }
+}
@@ -0,0 +1,95 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import frc.robot.Constants;
+
+/** The game piece detector on made-up wheel traces: current, speed and position the way a NEO 550 behaves pulling a
+ * coral in, pushing it out, and jamming */
+class GamePieceDetectorTest {
+  private static final double DT = 0.02; // Seconds between samples, one robot loop
+
+  private GamePieceDetector detector;
+  private double position; // Wheel rotations, integrated from the speeds fed so far
+
+  @BeforeEach
+  void create() {
+    detector = new GamePieceDetector(Constants.WHEEL_LOAD_CURRENT, Constants.WHEEL_STALL_CURRENT, Constants.WHEEL_STALL_VELOCITY,
+        Constants.WHEEL_SEAT_TRAVEL, Constants.WHEEL_EJECT_TRAVEL, Constants.WHEEL_STARTUP_TIME, Constants.WHEEL_DETECT_DEBOUNCE);
+    position = 0;
+  }
+
+  @Test
+  void aCoralPulledInAndSeatedIsHeld() {
+    intake();
+    assertEquals(GamePieceDetector.State.HOLDING, detector.getState());
+  }
+
+  @Test
+  void theStartupSpikeIsntALoad() {
+    feed(1, 30, 200, 0.04); // Starting up
+    feed(1, 2, 11000, 0.5); // Spinning freely
+    assertEquals(GamePieceDetector.State.INTAKING, detector.getState());
+    feed(0, 0, 0, 0.1); // Let go with nothing in it
+    assertEquals(GamePieceDetector.State.EMPTY, detector.getState());
+  }
+
+  @Test
+  void aHeldCoralPushedOutIsGone() {
+    intake();
+    feed(-1, 30, -200, 0.04); // Starting up
+    feed(-1, 10, -10000, 0.08); // Pushing the coral out
+    assertEquals(GamePieceDetector.State.EJECTING, detector.getState());
+    feed(-1, 2, -11000, 0.2); // Spinning freely once it's gone
+    assertEquals(GamePieceDetector.State.EMPTY, detector.getState());
+  }
+
+  @Test
+  void aStallBeforeTheCoralIsSeatedIsAJam() {
+    feed(1, 2, 11000, 0.3);
+    feed(1, 10, 3000, 0.02); // Caught just after reaching the wheel
+    feed(1, 20, 0, 0.14);
+    assertEquals(GamePieceDetector.State.JAMMED, detector.getState());
+    feed(0, 0, 0, 0.1); // Stays jammed until it's cleared
+    assertEquals(GamePieceDetector.State.JAMMED, detector.getState());
+    detector.clearJam();
+    assertEquals(GamePieceDetector.State.EMPTY, detector.getState());
+  }
+
+  @Test
+  void somethingInTheWheelFromTheStartIsAJam() {
+    feed(1, 20, 0, 0.14);
+    assertEquals(GamePieceDetector.State.JAMMED, detector.getState());
+  }
+
+  @Test
+  void aStallWhileEjectingIsAJam() {
+    intake();
+    feed(-1, 20, 0, 0.14);
+    assertEquals(GamePieceDetector.State.JAMMED, detector.getState());
+  }
+
+  // Intakes a coral the way ElevatorIOSim models it: free spin, a few loops pulling it in, then stalled on its seat
+  private void intake() {
+    feed(1, 30, 200, 0.04);
+    feed(1, 2, 11000, 0.5);
+    feed(1, 10, 10000, 0.08);
+    assertEquals(GamePieceDetector.State.INTAKING, detector.getState());
+    feed(1, 20, 0, 0.14);
+    feed(0, 0, 0, 0.04); // Let go of the button
+  }
+
+  // Feeds the same current (amps) and speed (RPM) at a duty cycle for some seconds
+  private void feed(double output, double current, double velocity, double seconds) {
+    for (int i = 0; i < Math.round(seconds / DT); i++) {
+      position += velocity / 60 * DT;
+      detector.update(output, current, velocity, position, DT);
+    }
+  }
+}
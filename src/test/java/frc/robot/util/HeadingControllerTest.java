@@ -0,0 +1,84 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.Robot;
+import frc.robot.subsystems.DriveSubsystem;
+
+/** Heading hold on its own, and holding the simulated drivetrain straight through a long strafe */
+class HeadingControllerTest {
+	private static final double STRAFE_SECONDS = 10;
+	private static final double STRAFE_SPEED = 0.6; // Fraction of full speed, to the left
+	// Rotation command added every loop, standing in for the yaw a real mecanum drivetrain picks up while strafing
+	// (uneven weight and roller friction), which the simulation's identical wheels don't have
+	private static final double YAW_DISTURBANCE = 0.02;
+
+	private static DriveSubsystem drive;
+
+	@BeforeAll
+	static void setup() {
+		assertTrue(HAL.initialize(500, 0));
+		SimHooks.pauseTiming();
+		drive = Robot.m_driveSubsystem;
+	}
+
+	@Test
+	void turnsBackTowardsTheGoal() {
+		HeadingController controller = new HeadingController(DriveSubsystem.kMaxAngularSpeed);
+		controller.hold(0, 10, 0);
+		assertTrue(controller.calculate(0, 10, 0) < 0); // Counterclockwise of the goal, so turn clockwise
+		controller.hold(0, -10, 0);
+		assertTrue(controller.calculate(0, -10, 0) > 0);
+	}
+
+	@Test
+	void passesTheStickThrough() {
+		HeadingController controller = new HeadingController(DriveSubsystem.kMaxAngularSpeed);
+		controller.hold(0, 0, 0);
+		assertEquals(0.5, controller.calculate(0.5, 30, 0));
+		assertFalse(controller.isHolding());
+	}
+
+	@Test
+	void holdsTheHeadingThroughAStrafe() {
+		double drift = strafe(new HeadingController(DriveSubsystem.kMaxAngularSpeed));
+		assertTrue(Math.abs(drift) < 2, "drifted " + drift + " degrees");
+	}
+
+	@Test
+	void strafingDriftsWithoutHeadingHold() {
+		double drift = strafe(null);
+		assertTrue(Math.abs(drift) > 45, "drifted " + drift + " degrees"); // So the test above is holding against something
+	}
+
+	// Strafes field-oriented for STRAFE_SECONDS with the rotation stick idle, and returns how far the simulated robot turned (degrees)
+	private static double strafe(HeadingController controller) {
+		drive.periodic();
+		Rotation2d start = drive.getSimulatedPose().getRotation();
+		if (controller != null) {
+			controller.hold(drive.getGyroAngle(), drive.getGyroAngle(), drive.getTurnRate());
+		}
+		for (int loop = 0; loop < Math.round(STRAFE_SECONDS / TimedRobot.kDefaultPeriod); loop++) {
+			drive.periodic();
+			double rotation = (controller != null) ? controller.calculate(0, drive.getGyroAngle(), drive.getTurnRate()) : 0;
+			drive.driveCartesianClosedLoop(0, STRAFE_SPEED, rotation + YAW_DISTURBANCE, drive.getGyroAngle());
+			drive.simulationPeriodic();
+			SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+		}
+		drive.stop();
+		drive.periodic();
+		return drive.getSimulatedPose().getRotation().minus(start).getDegrees();
+	}
+}
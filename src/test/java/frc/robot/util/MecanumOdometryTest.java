@@ -0,0 +1,80 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.MecanumDriveKinematics;
+import edu.wpi.first.math.kinematics.MecanumDriveOdometry;
+import edu.wpi.first.math.kinematics.MecanumDriveWheelPositions;
+import frc.robot.Constants;
+
+/** The allocation-free odometry against WPILib's MecanumDriveOdometry, and what a steady-state update allocates */
+class MecanumOdometryTest {
+	private static final double DT = 1.0 / Constants.ODOMETRY_FREQUENCY; // Seconds between updates, as on the odometry thread
+	private static final int UPDATES = 10000; // Updates counted for allocations
+
+	// A made-up drive: wheel distances (meters) and a gyro heading (radians) at a time, weaving, strafing and turning
+	private static double wheel(int wheel, double time) {
+		return 0.8 * time + 0.3 * Math.sin(time * (1 + wheel)) * ((wheel % 3 == 0) ? 1 : -1);
+	}
+	private static double gyro(double time) {
+		return 0.5 * Math.sin(0.7 * time) + 0.2 * time;
+	}
+
+	@Test
+	void matchesWpilibOdometry() {
+		MecanumDriveKinematics kinematics = new MecanumDriveKinematics(
+			new Translation2d(Constants.WHEEL_BASE / 2, Constants.TRACK_WIDTH / 2),
+			new Translation2d(Constants.WHEEL_BASE / 2, -Constants.TRACK_WIDTH / 2),
+			new Translation2d(-Constants.WHEEL_BASE / 2, Constants.TRACK_WIDTH / 2),
+			new Translation2d(-Constants.WHEEL_BASE / 2, -Constants.TRACK_WIDTH / 2));
+		MecanumDriveOdometry wpilib = new MecanumDriveOdometry(kinematics, new Rotation2d(gyro(0)), positions(0));
+		MecanumOdometry odometry = new MecanumOdometry(gyro(0), wheel(0, 0), wheel(1, 0), wheel(2, 0), wheel(3, 0));
+		for (int i = 1; i <= 1000; i++) {
+			double time = i * DT;
+			Pose2d expected = wpilib.update(new Rotation2d(gyro(time)), positions(time));
+			odometry.update(gyro(time), wheel(0, time), wheel(1, time), wheel(2, time), wheel(3, time));
+			assertEquals(expected.getX(), odometry.getX(), 1e-9, "x after " + i + " updates");
+			assertEquals(expected.getY(), odometry.getY(), 1e-9, "y after " + i + " updates");
+			assertEquals(0, Math.IEEEremainder(expected.getRotation().getRadians() - odometry.getHeadingRadians(), 2 * Math.PI), 1e-9,
+				"heading after " + i + " updates");
+		}
+	}
+
+	@Test
+	void updatingDoesntAllocate() {
+		// What the odometry thread does each update
+		MecanumOdometry odometry = new MecanumOdometry(0, 0, 0, 0, 0);
+		PoseHistory history = new PoseHistory(Constants.POSE_HISTORY_SIZE);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long bytes = 0;
+		for (int run = 0; run < 2; run++) { // The first run warms up the JIT, and the allocation counter itself
+			long before = threads.getCurrentThreadAllocatedBytes();
+			update(odometry, history, run * UPDATES);
+			bytes = threads.getCurrentThreadAllocatedBytes() - before;
+		}
+		assertTrue(bytes == 0, UPDATES + " updates allocated " + bytes + " bytes");
+	}
+
+	private static void update(MecanumOdometry odometry, PoseHistory history, int first) {
+		for (int i = first; i < first + UPDATES; i++) {
+			double time = i * DT;
+			odometry.update(gyro(time), wheel(0, time), wheel(1, time), wheel(2, time), wheel(3, time));
+			history.add(time, odometry.getX(), odometry.getY(), odometry.getHeadingRadians());
+		}
+	}
+
+	private static MecanumDriveWheelPositions positions(double time) {
+		return new MecanumDriveWheelPositions(wheel(0, time), wheel(1, time), wheel(2, time), wheel(3, time));
+	}
+}
@@ -0,0 +1,97 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+/** The stick shaping steps: deadband and curve on their own, then whole sticks through the magnitude and slew limits,
+ * on the simulated clock */
+class StickShaperTest {
+  private static final double DEADBAND = 0.1;
+  private static final double EXPONENT = 2;
+  private static final double SLEW_RATE = 4; // Full stick per second
+
+  @BeforeAll
+  static void setup() {
+    assertTrue(HAL.initialize(500, 0));
+    SimHooks.pauseTiming(); // The slew limit only sees time pass when the test steps the clock
+  }
+
+  @Test
+  void theDeadbandReadsZeroAndTheRestStartsFromZero() {
+    assertEquals(0, StickShaper.shapeMagnitude(0, DEADBAND, EXPONENT));
+    assertEquals(0, StickShaper.shapeMagnitude(DEADBAND, DEADBAND, EXPONENT));
+    assertEquals(0, StickShaper.shapeMagnitude(DEADBAND + 1e-9, DEADBAND, 1), 1e-6); // No jump at the edge
+    assertEquals(1, StickShaper.shapeMagnitude(1, DEADBAND, EXPONENT));
+    assertEquals(1, StickShaper.shapeMagnitude(1.2, DEADBAND, EXPONENT)); // A diagonal past the edge of a square gate
+  }
+
+  @Test
+  void theCurveGivesFinerControlAtLowSpeed() {
+    double half = DEADBAND + (1 - DEADBAND) / 2; // Halfway through the live part of the stick
+    assertEquals(0.5, StickShaper.shapeMagnitude(half, DEADBAND, 1), 1e-9);
+    assertEquals(0.25, StickShaper.shapeMagnitude(half, DEADBAND, 2), 1e-9);
+    double last = 0;
+    for (double magnitude = DEADBAND; magnitude <= 1; magnitude += 0.01) {
+      double shaped = StickShaper.shapeMagnitude(magnitude, DEADBAND, 3);
+      assertTrue(shaped >= last, "fell at " + magnitude);
+      last = shaped;
+    }
+  }
+
+  @Test
+  void diagonalsKeepTheirDirectionAndAreLimitedAsAWhole() {
+    StickShaper shaper = new StickShaper(DEADBAND, EXPONENT, Double.POSITIVE_INFINITY);
+    double limit = 0.6;
+    shaper.update(1, 1, limit); // Pushed into the corner of a square gate
+    assertEquals(shaper.getX(), shaper.getY(), 1e-9);
+    assertEquals(limit, Math.hypot(shaper.getX(), shaper.getY()), 1e-9); // Not 0.6 on each axis
+    shaper.update(0.3, -0.4, limit); // Half a stick
+    assertEquals(-0.4 / 0.3, shaper.getY() / shaper.getX(), 1e-9);
+    assertEquals(StickShaper.shapeMagnitude(0.5, DEADBAND, EXPONENT) * limit, Math.hypot(shaper.getX(), shaper.getY()), 1e-9);
+  }
+
+  @Test
+  void theSlewLimitRampsInAStraightLine() {
+    StickShaper shaper = new StickShaper(DEADBAND, 1, SLEW_RATE);
+    int loops = 0;
+    do {
+      SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+      shaper.update(0.6, 0.8, 1); // Full stick, up and to the side
+      loops++;
+      assertEquals(0.8 / 0.6, shaper.getY() / shaper.getX(), 1e-9);
+      assertEquals(Math.min(1, SLEW_RATE * loops * TimedRobot.kDefaultPeriod), Math.hypot(shaper.getX(), shaper.getY()), 1e-9);
+    } while (Math.hypot(shaper.getX(), shaper.getY()) < 1 - 1e-9);
+    assertEquals(Math.round(1 / SLEW_RATE / TimedRobot.kDefaultPeriod), loops);
+
+    shaper.reset(); // Stops straight away, without ramping down
+    assertEquals(0, shaper.getX());
+    assertEquals(0, shaper.getY());
+  }
+
+  @Test
+  void shapingDoesntAllocate() {
+    StickShaper shaper = new StickShaper(DEADBAND, EXPONENT, SLEW_RATE);
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long bytes = 0;
+    for (int run = 0; run < 2; run++) { // The first run warms up the JIT, and the allocation counter itself
+      long before = threads.getCurrentThreadAllocatedBytes();
+      for (int i = 0; i < 10000; i++) {
+        shaper.update(Math.sin(i * 0.01), Math.cos(i * 0.013), 0.8);
+      }
+      bytes = threads.getCurrentThreadAllocatedBytes() - before;
+    }
+    assertTrue(bytes == 0, "10000 updates allocated " + bytes + " bytes");
+  }
+}
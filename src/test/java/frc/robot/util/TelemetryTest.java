@@ -0,0 +1,125 @@
+// Author: UMN Robotics Ri3D
+// Last Updated: October 2026
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.util.Telemetry.BooleanSignal;
+import frc.robot.util.Telemetry.NumberSignal;
+import frc.robot.util.Telemetry.StructSignal;
+
+/** Benchmark of a loop's dashboard numbers on the simulation's NetworkTables instance: Telemetry's pre-resolved
+ * signals set and flushed, against the string-keyed SmartDashboard.putNumber calls the robot used to make. And a
+ * loop's worth of the robot's signals, recorded to a .wpilog as well, against the loop's telemetry budget. */
+class TelemetryTest {
+  private static final int LOOPS = 20000; // Loops timed for each
+  private static final double BUDGET = 300; // Microseconds a loop's telemetry may take, logging included
+  // About as many signals of each kind as the robot sets every loop
+  private static final int NUMBERS = 45, LOG_ONLY = 24, BOOLS = 2, POSES = 6;
+  // The numbers the robot used to put every loop, from Robot, DriveSubsystem, CoralElevatorSubsystem and PowerSubsystem
+  private static final String[] KEYS = {
+    "Gyroscope Pitch", "Gyroscope Yaw", "Gyroscope Roll",
+    "Elevator Climb 1 Position", "Elevator Arm Position", "Elevator Wheel Position",
+    "Left Front Position", "Right Front Position", "Left Back Position", "Right Back Position",
+    "Voltage", "Total Current", "Total Power",
+    "Left Front Drive Motor Current", "Right Front Drive Motor Current", "Left Back Drive Motor Current",
+    "Right Back Drive Motor Current", "Intake Bar Motor Current", "Intake Deploy Motor Current",
+    "Elevator Stage 1 Motor Current", "Elevator Stage 2 Motor Current", "Elevator Arm Motor Current",
+    "Elevator Wheel Motor Current",
+  };
+
+  private static NumberSignal[] signals;
+
+  @BeforeAll
+  static void setup() {
+    assertTrue(HAL.initialize(500, 0));
+    signals = new NumberSignal[KEYS.length];
+    for (int i = 0; i < KEYS.length; i++) {
+      signals[i] = Telemetry.number("Benchmark/" + KEYS[i]); // Not the robot's keys, which its own signals publish
+    }
+  }
+
+  @Test
+  void aLoopOfSignalsWithLoggingFitsTheBudget() throws IOException {
+    // As robotInit does, but into a scratch directory. Logging stays on for the rest of the run.
+    DataLogManager.start(Files.createTempDirectory("telemetry").toString());
+    Telemetry.startLogging(DataLogManager.getLog());
+    NumberSignal[] numbers = new NumberSignal[NUMBERS + LOG_ONLY];
+    for (int i = 0; i < numbers.length; i++) {
+      numbers[i] = (i < NUMBERS) ? Telemetry.number("Budget/Number " + i) : Telemetry.log("Budget/Input " + i);
+    }
+    BooleanSignal[] bools = new BooleanSignal[BOOLS];
+    for (int i = 0; i < bools.length; i++) {
+      bools[i] = Telemetry.bool("Budget/Bool " + i);
+    }
+    @SuppressWarnings("unchecked")
+    StructSignal<Pose2d>[] poses = new StructSignal[POSES];
+    for (int i = 0; i < poses.length; i++) {
+      poses[i] = Telemetry.struct("Budget/Pose " + i, Pose2d.struct);
+    }
+    Pose2d pose = new Pose2d(1, 2, Rotation2d.fromDegrees(30));
+
+    double perLoop = 0;
+    for (int run = 0; run < 2; run++) { // The first run warms up the JIT
+      long start = System.nanoTime();
+      for (int loop = 0; loop < LOOPS; loop++) {
+        for (int i = 0; i < numbers.length; i++) {
+          numbers[i].set(loop + i); // Every value changes, so every one is logged and sent
+        }
+        for (int i = 0; i < bools.length; i++) {
+          bools[i].set((loop & 1) == 0);
+        }
+        for (int i = 0; i < poses.length; i++) {
+          poses[i].set(pose);
+        }
+        Telemetry.flush();
+      }
+      perLoop = (System.nanoTime() - start) / 1e3 / LOOPS;
+    }
+    assertTrue(perLoop < BUDGET, "a loop of telemetry took " + perLoop + " us, over the " + BUDGET + " us budget");
+  }
+
+  @Test
+  void signalsCostLessThanPuttingByKey() {
+    timePutNumber(); // Warm up
+    timeSignals();
+    double putNumber = timePutNumber();
+    double batched = timeSignals();
+    assertTrue(batched < putNumber, "signals took " + batched + " us a loop, putNumber " + putNumber + " us");
+  }
+
+  // Microseconds a loop of putNumber calls takes. Every value changes every loop, so each one is really sent.
+  private static double timePutNumber() {
+    long start = System.nanoTime();
+    for (int loop = 0; loop < LOOPS; loop++) {
+      for (int i = 0; i < KEYS.length; i++) {
+        SmartDashboard.putNumber(KEYS[i], loop + i);
+      }
+    }
+    return (System.nanoTime() - start) / 1e3 / LOOPS;
+  }
+
+  // Microseconds a loop of setting every signal and flushing takes, with the same changing values
+  private static double timeSignals() {
+    long start = System.nanoTime();
+    for (int loop = 0; loop < LOOPS; loop++) {
+      for (int i = 0; i < signals.length; i++) {
+        signals[i].set(loop + i);
+      }
+      Telemetry.flush();
+    }
+    return (System.nanoTime() - start) / 1e3 / LOOPS;
+  }
+}